@@ -2,8 +2,10 @@ package com.finance_dashboard.ProjetoT1;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ProjetoT1Application {
 
 	public static void main(String[] args) {
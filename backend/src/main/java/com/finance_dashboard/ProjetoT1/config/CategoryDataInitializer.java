@@ -2,6 +2,7 @@ package com.finance_dashboard.ProjetoT1.config;
 
 import com.finance_dashboard.ProjetoT1.model.Category;
 import com.finance_dashboard.ProjetoT1.repository.CategoryRepository;
+import com.finance_dashboard.ProjetoT1.service.CategoryCatalog;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
@@ -12,9 +13,11 @@ import java.util.List;
 public class CategoryDataInitializer implements CommandLineRunner {
 
     private final CategoryRepository categoryRepository;
+    private final CategoryCatalog categoryCatalog;
 
-    public CategoryDataInitializer(CategoryRepository categoryRepository) {
+    public CategoryDataInitializer(CategoryRepository categoryRepository, CategoryCatalog categoryCatalog) {
         this.categoryRepository = categoryRepository;
+        this.categoryCatalog = categoryCatalog;
     }
 
     @Override
@@ -55,5 +58,8 @@ public class CategoryDataInitializer implements CommandLineRunner {
                 categoryRepository.save(category);
             }
         }
+
+        // Snapshot imutável das globais, consultado sem ir ao banco
+        categoryCatalog.publishGlobals(categoryRepository.findByUserEmailIsNullAndActiveTrue());
     }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.finance_dashboard.ProjetoT1.config;
+
+import com.finance_dashboard.ProjetoT1.service.DataVersionService;
+import com.finance_dashboard.ProjetoT1.service.TransactionWritePublisher;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+// GET condicional nas leituras de transações/resumos: o ETag vem da versão dos dados do usuário
+// (uma leitura por _id), então um If-None-Match atual recebe 304 antes de o controller consultar
+// as transações ou descriptografar.
+// Antes do ETag, recupera escritas interrompidas do usuário: o estado derivado que elas deixaram
+// desatualizado é descartado e a versão avança, para nenhuma leitura servir (ou revalidar) esse estado
+@Component
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    private final DataVersionService dataVersionService;
+    private final TransactionWritePublisher writePublisher;
+
+    public ConditionalGetInterceptor(DataVersionService dataVersionService, TransactionWritePublisher writePublisher) {
+        this.dataVersionService = dataVersionService;
+        this.writePublisher = writePublisher;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod())) {
+            return true;
+        }
+
+        String userEmail = AuthenticatedUser.getEmail();
+        writePublisher.recoverAbandoned(userEmail);
+
+        String etag = dataVersionService.etag(userEmail);
+
+        // Dados por usuário: só o cliente guarda, e sempre revalida. Com o cabeçalho definido aqui,
+        // o Spring Security não sobrescreve com "no-store"
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+
+        // Define o ETag na resposta e, se ele bater com o If-None-Match, o status 304
+        return !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+}
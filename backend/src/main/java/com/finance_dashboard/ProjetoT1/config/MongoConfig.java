@@ -0,0 +1,15 @@
+package com.finance_dashboard.ProjetoT1.config;
+
+import com.finance_dashboard.ProjetoT1.security.EncryptedValueConverters;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+@Configuration
+public class MongoConfig {
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(EncryptedValueConverters.all());
+    }
+}
@@ -0,0 +1,91 @@
+package com.finance_dashboard.ProjetoT1.config;
+
+import com.finance_dashboard.ProjetoT1.model.AmountDistribution;
+import com.finance_dashboard.ProjetoT1.model.Budget;
+import com.finance_dashboard.ProjetoT1.model.BudgetSpend;
+import com.finance_dashboard.ProjetoT1.model.Category;
+import com.finance_dashboard.ProjetoT1.model.CategoryRollup;
+import com.finance_dashboard.ProjetoT1.model.Goal;
+import com.finance_dashboard.ProjetoT1.model.MerchantSketch;
+import com.finance_dashboard.ProjetoT1.model.RecurringRule;
+import com.finance_dashboard.ProjetoT1.model.Transaction;
+import com.finance_dashboard.ProjetoT1.model.User;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Cria os índices declarados (@CompoundIndex/@Indexed) de todas as coleções consultadas pelos repositórios.
+// Não usamos spring.data.mongodb.auto-index-creation porque ele também criaria o índice único de
+// categories, que bases existentes (categorias removidas mais de uma vez) podem violar.
+// QueryPlanVerificationTest confere que toda consulta dos repositórios usa algum destes índices.
+@Component
+public class MongoIndexInitializer implements CommandLineRunner {
+
+    private static final List<Class<?>> INDEXED_ENTITIES = List.of(
+            Transaction.class,
+            CategoryRollup.class,
+            MerchantSketch.class,
+            AmountDistribution.class,
+            Budget.class,
+            BudgetSpend.class,
+            RecurringRule.class,
+            Goal.class,
+            User.class
+    );
+
+    // Só os índices não únicos destas entidades
+    private static final List<Class<?>> NON_UNIQUE_ONLY = List.of(
+            Category.class
+    );
+
+    // Índices substituídos pelos parciais de transações vivas; removidos depois que os novos existem
+    private static final List<String> RETIRED_TRANSACTION_INDEXES = List.of(
+            "user_date_deleted_idx",
+            "user_deleted_date_id_idx",
+            "user_category_deleted_date_id_idx"
+    );
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+
+    public MongoIndexInitializer(MongoTemplate mongoTemplate, MongoMappingContext mappingContext) {
+        this.mongoTemplate = mongoTemplate;
+        this.mappingContext = mappingContext;
+    }
+
+    @Override
+    public void run(String... args) {
+        IndexResolver resolver = IndexResolver.create(mappingContext);
+
+        for (Class<?> entity : INDEXED_ENTITIES) {
+            IndexOperations indexOps = mongoTemplate.indexOps(entity);
+            resolver.resolveIndexFor(entity).forEach(indexOps::ensureIndex);
+        }
+
+        for (Class<?> entity : NON_UNIQUE_ONLY) {
+            IndexOperations indexOps = mongoTemplate.indexOps(entity);
+            resolver.resolveIndexFor(entity).forEach(index -> {
+                if (!Boolean.TRUE.equals(index.getIndexOptions().get("unique"))) {
+                    indexOps.ensureIndex(index);
+                }
+            });
+        }
+
+        IndexOperations transactionIndexes = mongoTemplate.indexOps(Transaction.class);
+        Set<String> existing = transactionIndexes.getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .collect(Collectors.toSet());
+
+        RETIRED_TRANSACTION_INDEXES.stream()
+                .filter(existing::contains)
+                .forEach(transactionIndexes::dropIndex);
+    }
+}
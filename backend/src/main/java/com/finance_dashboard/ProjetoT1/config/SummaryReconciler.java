@@ -0,0 +1,23 @@
+package com.finance_dashboard.ProjetoT1.config;
+
+import com.finance_dashboard.ProjetoT1.service.BalanceSnapshotService;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Reconstrói os resumos de saldo de todos os usuários na inicialização (ex.: após migrar dados antigos)
+@Component
+@ConditionalOnProperty(name = "app.summary.reconcile-on-startup", havingValue = "true")
+public class SummaryReconciler implements CommandLineRunner {
+
+    private final BalanceSnapshotService balanceSnapshotService;
+
+    public SummaryReconciler(BalanceSnapshotService balanceSnapshotService) {
+        this.balanceSnapshotService = balanceSnapshotService;
+    }
+
+    @Override
+    public void run(String... args) {
+        balanceSnapshotService.reconcileAll();
+    }
+}
@@ -14,6 +14,9 @@ public class WebConfig implements WebMvcConfigurer {
     @Autowired
     private RateLimitInterceptor rateLimitInterceptor;
 
+    @Autowired
+    private ConditionalGetInterceptor conditionalGetInterceptor;
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         registry
@@ -23,9 +26,30 @@ public class WebConfig implements WebMvcConfigurer {
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-        // Aplica o limite apenas nos endpoints sensíveis (Login e Transações)
+        // Aplica o limite apenas nos endpoints sensíveis (Login, Transações e o painel, que as agrega)
         registry.addInterceptor(rateLimitInterceptor)
-                .addPathPatterns("/auth/**", "/transactions/**");
+                .addPathPatterns("/auth/**", "/transactions/**", "/dashboard");
+
+        // ETag/If-None-Match nas leituras que dependem só das transações, categorias e orçamentos do usuário
+        registry.addInterceptor(conditionalGetInterceptor)
+                .addPathPatterns(
+                        "/transactions",
+                        "/transactions/summary",
+                        "/transactions/by-month",
+                        "/transactions/by-category",
+                        "/transactions/by-period",
+                        "/transactions/summary-by-category",
+                        "/transactions/summary-by-period",
+                        "/transactions/category-summary-by-period",
+                        "/transactions/series",
+                        "/transactions/search",
+                        "/transactions/top-merchants",
+                        "/transactions/distribution",
+                        "/dashboard",
+                        "/categories",
+                        "/budgets",
+                        "/budgets/status"
+                );
     }
 
     @Override
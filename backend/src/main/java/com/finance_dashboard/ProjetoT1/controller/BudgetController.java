@@ -0,0 +1,54 @@
+package com.finance_dashboard.ProjetoT1.controller;
+
+import com.finance_dashboard.ProjetoT1.config.AuthenticatedUser;
+import com.finance_dashboard.ProjetoT1.dto.BudgetRequestDTO;
+import com.finance_dashboard.ProjetoT1.dto.BudgetStatusDTO;
+import com.finance_dashboard.ProjetoT1.model.Budget;
+import com.finance_dashboard.ProjetoT1.service.BudgetService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/budgets")
+public class BudgetController {
+
+    private final BudgetService budgetService;
+
+    public BudgetController(BudgetService budgetService) {
+        this.budgetService = budgetService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<Budget>> list() {
+        return ResponseEntity.ok(budgetService.list(AuthenticatedUser.getEmail()));
+    }
+
+    @PostMapping
+    public ResponseEntity<Budget> create(@RequestBody @Valid BudgetRequestDTO dto) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(budgetService.create(AuthenticatedUser.getEmail(), dto));
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<Budget> update(@PathVariable String id, @RequestBody @Valid BudgetRequestDTO dto) {
+        return ResponseEntity.ok(budgetService.update(AuthenticatedUser.getEmail(), id, dto));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable String id) {
+        budgetService.delete(AuthenticatedUser.getEmail(), id);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Gasto do mês x limite de cada orçamento (padrão: mês corrente), lido do estado mantido a cada escrita
+    @GetMapping("/status")
+    public ResponseEntity<List<BudgetStatusDTO>> status(
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) Integer month
+    ) {
+        return ResponseEntity.ok(budgetService.status(AuthenticatedUser.getEmail(), year, month));
+    }
+}
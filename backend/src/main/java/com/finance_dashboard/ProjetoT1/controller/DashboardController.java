@@ -0,0 +1,30 @@
+package com.finance_dashboard.ProjetoT1.controller;
+
+import com.finance_dashboard.ProjetoT1.dto.DashboardDTO;
+import com.finance_dashboard.ProjetoT1.service.DashboardService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/dashboard")
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    public DashboardController(DashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+    }
+
+    // Substitui, na abertura do painel, as chamadas a /transactions, /transactions/summary,
+    // /transactions/summary-by-category e /categories
+    @GetMapping
+    public ResponseEntity<DashboardDTO> getDashboard(
+            @RequestParam int year,
+            @RequestParam int month
+    ) {
+        return ResponseEntity.ok(dashboardService.getDashboard(year, month));
+    }
+}
@@ -0,0 +1,41 @@
+package com.finance_dashboard.ProjetoT1.controller;
+
+import com.finance_dashboard.ProjetoT1.config.AuthenticatedUser;
+import com.finance_dashboard.ProjetoT1.dto.RecurringRuleDTO;
+import com.finance_dashboard.ProjetoT1.dto.RecurringRuleRequestDTO;
+import com.finance_dashboard.ProjetoT1.service.RecurringTransactionService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/recurring-transactions")
+public class RecurringTransactionController {
+
+    private final RecurringTransactionService recurringTransactionService;
+
+    public RecurringTransactionController(RecurringTransactionService recurringTransactionService) {
+        this.recurringTransactionService = recurringTransactionService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<RecurringRuleDTO>> list() {
+        return ResponseEntity.ok(recurringTransactionService.list(AuthenticatedUser.getEmail()));
+    }
+
+    // Ocorrências já vencidas (início no passado ou hoje) são geradas logo após a criação, em segundo plano
+    @PostMapping
+    public ResponseEntity<RecurringRuleDTO> create(@RequestBody @Valid RecurringRuleRequestDTO dto) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(recurringTransactionService.create(AuthenticatedUser.getEmail(), dto));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable String id) {
+        recurringTransactionService.delete(AuthenticatedUser.getEmail(), id);
+        return ResponseEntity.noContent().build();
+    }
+}
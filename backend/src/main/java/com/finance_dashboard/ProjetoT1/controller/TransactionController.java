@@ -1,15 +1,37 @@
 package com.finance_dashboard.ProjetoT1.controller;
 
+import com.finance_dashboard.ProjetoT1.config.AuthenticatedUser;
+import com.finance_dashboard.ProjetoT1.dto.BatchItemResultDTO;
 import com.finance_dashboard.ProjetoT1.dto.CategorySummaryDTO;
+import com.finance_dashboard.ProjetoT1.dto.DistributionDTO;
+import com.finance_dashboard.ProjetoT1.dto.ImportResultDTO;
+import com.finance_dashboard.ProjetoT1.dto.SeriesDTO;
 import com.finance_dashboard.ProjetoT1.dto.SummaryResponseDTO;
+import com.finance_dashboard.ProjetoT1.dto.TopMerchantsDTO;
 import com.finance_dashboard.ProjetoT1.dto.TransactionRequestDTO;
 import com.finance_dashboard.ProjetoT1.model.Transaction;
+import com.finance_dashboard.ProjetoT1.security.RateLimitInterceptor;
+import com.finance_dashboard.ProjetoT1.service.AmountDistributionService;
+import com.finance_dashboard.ProjetoT1.service.MerchantStatsService;
+import com.finance_dashboard.ProjetoT1.service.StatementImportService;
+import com.finance_dashboard.ProjetoT1.service.TransactionExportService;
+import com.finance_dashboard.ProjetoT1.service.TransactionExportService.ExportFormat;
+import com.finance_dashboard.ProjetoT1.service.TransactionSearchService;
+import com.finance_dashboard.ProjetoT1.service.TransactionSeriesService;
+import com.finance_dashboard.ProjetoT1.service.TransactionSeriesService.Granularity;
+import com.finance_dashboard.ProjetoT1.service.TransactionSeriesService.GroupBy;
 import com.finance_dashboard.ProjetoT1.service.TransactionService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.List;
 
@@ -18,9 +40,32 @@ import java.util.List;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final TransactionExportService transactionExportService;
+    private final StatementImportService statementImportService;
+    private final TransactionSeriesService transactionSeriesService;
+    private final TransactionSearchService transactionSearchService;
+    private final MerchantStatsService merchantStatsService;
+    private final AmountDistributionService amountDistributionService;
+    private final RateLimitInterceptor rateLimitInterceptor;
 
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(
+            TransactionService transactionService,
+            TransactionExportService transactionExportService,
+            StatementImportService statementImportService,
+            TransactionSeriesService transactionSeriesService,
+            TransactionSearchService transactionSearchService,
+            MerchantStatsService merchantStatsService,
+            AmountDistributionService amountDistributionService,
+            RateLimitInterceptor rateLimitInterceptor
+    ) {
         this.transactionService = transactionService;
+        this.transactionExportService = transactionExportService;
+        this.statementImportService = statementImportService;
+        this.transactionSeriesService = transactionSeriesService;
+        this.transactionSearchService = transactionSearchService;
+        this.merchantStatsService = merchantStatsService;
+        this.amountDistributionService = amountDistributionService;
+        this.rateLimitInterceptor = rateLimitInterceptor;
     }
 
     @PostMapping
@@ -29,28 +74,99 @@ public class TransactionController {
         return ResponseEntity.status(HttpStatus.CREATED).body(savedTransaction);
     }
 
+    // Lote de criações: o limite de requisições cobra um token por item, não por chamada
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchItemResultDTO>> createBatch(
+            @RequestBody List<TransactionRequestDTO> dtos,
+            HttpServletRequest request
+    ) {
+        // Tamanho validado antes da cobrança: um lote recusado não consome os tokens do usuário
+        transactionService.validateBatchSize(dtos);
+
+        if (dtos.size() > 1) {
+            rateLimitInterceptor.chargeAdditional(request, dtos.size() - 1);
+        }
+
+        return ResponseEntity.ok(transactionService.createBatch(dtos));
+    }
+
+    // Sem cursor/limit devolve a lista completa (formato antigo); com eles, uma página { items, nextCursor }
     @GetMapping
-    public ResponseEntity<List<Transaction>> findAll() {
+    public ResponseEntity<?> findAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        if (isPaged(cursor, limit)) {
+            return ResponseEntity.ok(transactionService.findAllPage(cursor, limit));
+        }
         return ResponseEntity.ok(transactionService.findAll());
     }
 
+    // Histórico completo em NDJSON (padrão) ou CSV, escrito em streaming
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) String format
+    ) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = transactionExportService.export(AuthenticatedUser.getEmail(), exportFormat);
+
+        boolean csv = exportFormat == ExportFormat.CSV;
+
+        return ResponseEntity.ok()
+                .contentType(csv
+                        ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"transacoes." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
+    }
+
+    // Extrato bancário em CSV ou OFX; linhas sem categoria usam categoryId (ou "OUTROS")
+    @PostMapping("/import")
+    public ResponseEntity<ImportResultDTO> importStatement(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) String categoryId
+    ) {
+        return ResponseEntity.ok(statementImportService.importStatement(file, format, categoryId));
+    }
+
+    // Busca por palavras da descrição (prefixos de 3+ letras), mais recentes primeiro
+    @GetMapping("/search")
+    public ResponseEntity<List<Transaction>> search(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(transactionSearchService.search(AuthenticatedUser.getEmail(), q, limit));
+    }
+
     @GetMapping("/summary")
     public ResponseEntity<SummaryResponseDTO> getSummary() {
         return ResponseEntity.ok(transactionService.getSummary());
     }
 
     @GetMapping("/by-month")
-    public ResponseEntity<List<Transaction>> findByMonth(
+    public ResponseEntity<?> findByMonth(
             @RequestParam int year,
-            @RequestParam int month
+            @RequestParam int month,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
     ) {
+        if (isPaged(cursor, limit)) {
+            return ResponseEntity.ok(transactionService.findByMonthPage(year, month, cursor, limit));
+        }
         return ResponseEntity.ok(transactionService.findByMonth(year, month));
     }
 
     @GetMapping("/by-category")
-    public ResponseEntity<List<Transaction>> findByCategory(
-            @RequestParam String categoryId
+    public ResponseEntity<?> findByCategory(
+            @RequestParam String categoryId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
     ) {
+        if (isPaged(cursor, limit)) {
+            return ResponseEntity.ok(transactionService.findByCategoryPage(categoryId, cursor, limit));
+        }
         return ResponseEntity.ok(
                 transactionService.findByCategory(categoryId)
         );
@@ -67,6 +183,32 @@ public class TransactionController {
 
     }
 
+    // Descrições de despesa mais frequentes e de maior gasto por categoria no mês (estimativas com erro máximo)
+    @GetMapping("/top-merchants")
+    public ResponseEntity<List<TopMerchantsDTO>> getTopMerchants(
+            @RequestParam int year,
+            @RequestParam int month,
+            @RequestParam(required = false) String categoryId,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(
+                merchantStatsService.topMerchants(AuthenticatedUser.getEmail(), year, month, categoryId, limit)
+        );
+    }
+
+    // Percentis (p50/p90/p99) dos valores por categoria nos meses from..to (yyyy-MM), sem ler as transações
+    @GetMapping("/distribution")
+    public ResponseEntity<List<DistributionDTO>> getDistribution(
+            @RequestParam String from,
+            @RequestParam String to,
+            @RequestParam(required = false) String categoryId,
+            @RequestParam(required = false) String type
+    ) {
+        return ResponseEntity.ok(
+                amountDistributionService.distribution(AuthenticatedUser.getEmail(), from, to, categoryId, type)
+        );
+    }
+
     // Atualiza transação
     @PutMapping("/{id}")
     public ResponseEntity<Transaction> updateTransaction(
@@ -85,13 +227,21 @@ public class TransactionController {
     }
 
     @GetMapping("/by-period")
-    public ResponseEntity<List<Transaction>> findByPeriod(
+    public ResponseEntity<?> findByPeriod(
             @RequestParam String start,
-            @RequestParam String end
+            @RequestParam String end,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
     ) {
         Instant startInstant = Instant.parse(start);
         Instant endInstant = Instant.parse(end);
 
+        if (isPaged(cursor, limit)) {
+            return ResponseEntity.ok(
+                    transactionService.findByDateRangePage(startInstant, endInstant, cursor, limit)
+            );
+        }
+
         return ResponseEntity.ok(
                 transactionService.findByDateRange(startInstant, endInstant)
         );
@@ -126,4 +276,30 @@ public class TransactionController {
         );
     }
 
+    // Série para gráficos (day|week|month, agrupada por type|category) calculada numa única passada
+    @GetMapping("/series")
+    public ResponseEntity<SeriesDTO> getSeries(
+            @RequestParam String start,
+            @RequestParam String end,
+            @RequestParam(required = false) String granularity,
+            @RequestParam(required = false) String groupBy
+    ) {
+        Instant startInstant = Instant.parse(start);
+        Instant endInstant = Instant.parse(end);
+
+        return ResponseEntity.ok(
+                transactionSeriesService.series(
+                        AuthenticatedUser.getEmail(),
+                        startInstant,
+                        endInstant,
+                        Granularity.from(granularity),
+                        GroupBy.from(groupBy)
+                )
+        );
+    }
+
+    private static boolean isPaged(String cursor, Integer limit) {
+        return cursor != null || limit != null;
+    }
+
 }
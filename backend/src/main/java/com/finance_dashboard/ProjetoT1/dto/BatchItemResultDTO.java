@@ -0,0 +1,39 @@
+package com.finance_dashboard.ProjetoT1.dto;
+
+import com.finance_dashboard.ProjetoT1.model.Transaction;
+
+public class BatchItemResultDTO {
+
+    public static final String CREATED = "CREATED";
+    public static final String INVALID = "INVALID";
+    public static final String FAILED = "FAILED";
+
+    // Posição do item na requisição
+    private int index;
+    private String status;
+    private Transaction transaction;
+    private String error;
+
+    public BatchItemResultDTO(int index, String status, Transaction transaction, String error) {
+        this.index = index;
+        this.status = status;
+        this.transaction = transaction;
+        this.error = error;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Transaction getTransaction() {
+        return transaction;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
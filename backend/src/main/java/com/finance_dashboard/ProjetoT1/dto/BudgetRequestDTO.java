@@ -0,0 +1,20 @@
+package com.finance_dashboard.ProjetoT1.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+
+public class BudgetRequestDTO {
+
+    @NotBlank(message = "A categoria é obrigatória")
+    private String categoryId;
+
+    @NotNull(message = "O limite mensal é obrigatório")
+    @Positive(message = "O limite mensal deve ser maior que zero")
+    private BigDecimal monthlyLimit;
+
+    public String getCategoryId() { return categoryId; }
+    public BigDecimal getMonthlyLimit() { return monthlyLimit; }
+}
@@ -0,0 +1,85 @@
+package com.finance_dashboard.ProjetoT1.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public class BudgetStatusDTO {
+
+    private String budgetId;
+    private String categoryId;
+    private String categoryName;
+    private BigDecimal monthlyLimit;
+    // spent, remaining e percentUsed ficam nulos com o level PENDING
+    private BigDecimal spent;
+    private BigDecimal remaining;
+    private BigDecimal percentUsed;
+    // OK, WARNING (percentual de aviso atingido), EXCEEDED (limite atingido) ou PENDING
+    // (gasto ainda sendo calculado em segundo plano; o ETag muda quando ficar pronto)
+    private String level;
+    private Instant warnedAt;
+    private Instant exceededAt;
+
+    public BudgetStatusDTO(
+            String budgetId,
+            String categoryId,
+            String categoryName,
+            BigDecimal monthlyLimit,
+            BigDecimal spent,
+            BigDecimal remaining,
+            BigDecimal percentUsed,
+            String level,
+            Instant warnedAt,
+            Instant exceededAt
+    ) {
+        this.budgetId = budgetId;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.monthlyLimit = monthlyLimit;
+        this.spent = spent;
+        this.remaining = remaining;
+        this.percentUsed = percentUsed;
+        this.level = level;
+        this.warnedAt = warnedAt;
+        this.exceededAt = exceededAt;
+    }
+
+    public String getBudgetId() {
+        return budgetId;
+    }
+
+    public String getCategoryId() {
+        return categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public BigDecimal getMonthlyLimit() {
+        return monthlyLimit;
+    }
+
+    public BigDecimal getSpent() {
+        return spent;
+    }
+
+    public BigDecimal getRemaining() {
+        return remaining;
+    }
+
+    public BigDecimal getPercentUsed() {
+        return percentUsed;
+    }
+
+    public String getLevel() {
+        return level;
+    }
+
+    public Instant getWarnedAt() {
+        return warnedAt;
+    }
+
+    public Instant getExceededAt() {
+        return exceededAt;
+    }
+}
@@ -0,0 +1,70 @@
+package com.finance_dashboard.ProjetoT1.dto;
+
+import com.finance_dashboard.ProjetoT1.model.Transaction;
+
+import java.util.List;
+
+public class DashboardDTO {
+
+    private int year;
+    private int month;
+
+    // Totais do mês pedido
+    private SummaryResponseDTO summary;
+
+    // Totais de todo o histórico (mesmo valor de GET /transactions/summary)
+    private SummaryResponseDTO overall;
+
+    private List<CategorySummaryDTO> categorySummary;
+
+    // Transações mais recentes do mês, da mais nova para a mais antiga
+    private List<Transaction> recentTransactions;
+
+    private CategoriesResponseDTO categories;
+
+    public DashboardDTO(
+            int year,
+            int month,
+            SummaryResponseDTO summary,
+            SummaryResponseDTO overall,
+            List<CategorySummaryDTO> categorySummary,
+            List<Transaction> recentTransactions,
+            CategoriesResponseDTO categories
+    ) {
+        this.year = year;
+        this.month = month;
+        this.summary = summary;
+        this.overall = overall;
+        this.categorySummary = categorySummary;
+        this.recentTransactions = recentTransactions;
+        this.categories = categories;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public int getMonth() {
+        return month;
+    }
+
+    public SummaryResponseDTO getSummary() {
+        return summary;
+    }
+
+    public SummaryResponseDTO getOverall() {
+        return overall;
+    }
+
+    public List<CategorySummaryDTO> getCategorySummary() {
+        return categorySummary;
+    }
+
+    public List<Transaction> getRecentTransactions() {
+        return recentTransactions;
+    }
+
+    public CategoriesResponseDTO getCategories() {
+        return categories;
+    }
+}
@@ -0,0 +1,82 @@
+package com.finance_dashboard.ProjetoT1.dto;
+
+import java.math.BigDecimal;
+
+// Percentis dos valores de uma categoria no intervalo; cada um com erro relativo de no máximo relativeError
+public class DistributionDTO {
+
+    private String categoryId;
+    private String categoryName;
+    private String type;
+    private long count;
+    private BigDecimal min;
+    private BigDecimal p50;
+    private BigDecimal p90;
+    private BigDecimal p99;
+    private BigDecimal max;
+    private double relativeError;
+
+    public DistributionDTO(
+            String categoryId,
+            String categoryName,
+            String type,
+            long count,
+            BigDecimal min,
+            BigDecimal p50,
+            BigDecimal p90,
+            BigDecimal p99,
+            BigDecimal max,
+            double relativeError
+    ) {
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.type = type;
+        this.count = count;
+        this.min = min;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.max = max;
+        this.relativeError = relativeError;
+    }
+
+    public String getCategoryId() {
+        return categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public BigDecimal getMin() {
+        return min;
+    }
+
+    public BigDecimal getP50() {
+        return p50;
+    }
+
+    public BigDecimal getP90() {
+        return p90;
+    }
+
+    public BigDecimal getP99() {
+        return p99;
+    }
+
+    public BigDecimal getMax() {
+        return max;
+    }
+
+    public double getRelativeError() {
+        return relativeError;
+    }
+}
@@ -0,0 +1,42 @@
+package com.finance_dashboard.ProjetoT1.dto;
+
+import java.util.List;
+
+public class ImportResultDTO {
+
+    private int total;
+    private int imported;
+    private int duplicates;
+    private int failed;
+
+    // Limitado às primeiras linhas com erro; "failed" traz o total
+    private List<ImportRowErrorDTO> errors;
+
+    public ImportResultDTO(int total, int imported, int duplicates, int failed, List<ImportRowErrorDTO> errors) {
+        this.total = total;
+        this.imported = imported;
+        this.duplicates = duplicates;
+        this.failed = failed;
+        this.errors = errors;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public int getDuplicates() {
+        return duplicates;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public List<ImportRowErrorDTO> getErrors() {
+        return errors;
+    }
+}
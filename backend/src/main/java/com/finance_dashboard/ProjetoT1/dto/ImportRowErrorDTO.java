@@ -0,0 +1,20 @@
+package com.finance_dashboard.ProjetoT1.dto;
+
+public class ImportRowErrorDTO {
+
+    private int line;
+    private String message;
+
+    public ImportRowErrorDTO(int line, String message) {
+        this.line = line;
+        this.message = message;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
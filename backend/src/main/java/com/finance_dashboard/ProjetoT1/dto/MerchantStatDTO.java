@@ -0,0 +1,30 @@
+package com.finance_dashboard.ProjetoT1.dto;
+
+import java.math.BigDecimal;
+
+public class MerchantStatDTO {
+
+    private String description;
+    // Estimativa do sketch: nunca menor que o valor real
+    private BigDecimal value;
+    // O valor real está em [value - maxError, value]
+    private BigDecimal maxError;
+
+    public MerchantStatDTO(String description, BigDecimal value, BigDecimal maxError) {
+        this.description = description;
+        this.value = value;
+        this.maxError = maxError;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public BigDecimal getValue() {
+        return value;
+    }
+
+    public BigDecimal getMaxError() {
+        return maxError;
+    }
+}
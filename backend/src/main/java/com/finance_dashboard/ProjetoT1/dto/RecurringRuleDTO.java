@@ -0,0 +1,91 @@
+package com.finance_dashboard.ProjetoT1.dto;
+
+import com.finance_dashboard.ProjetoT1.model.RecurrenceFrequency;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class RecurringRuleDTO {
+
+    private String id;
+    private String description;
+    private BigDecimal amount;
+    private String type;
+    private String categoryId;
+    private RecurrenceFrequency frequency;
+    private String cron;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private LocalDate nextOccurrence;
+    private boolean active;
+
+    public RecurringRuleDTO(
+            String id,
+            String description,
+            BigDecimal amount,
+            String type,
+            String categoryId,
+            RecurrenceFrequency frequency,
+            String cron,
+            LocalDate startDate,
+            LocalDate endDate,
+            LocalDate nextOccurrence,
+            boolean active
+    ) {
+        this.id = id;
+        this.description = description;
+        this.amount = amount;
+        this.type = type;
+        this.categoryId = categoryId;
+        this.frequency = frequency;
+        this.cron = cron;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.nextOccurrence = nextOccurrence;
+        this.active = active;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getCategoryId() {
+        return categoryId;
+    }
+
+    public RecurrenceFrequency getFrequency() {
+        return frequency;
+    }
+
+    public String getCron() {
+        return cron;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public LocalDate getNextOccurrence() {
+        return nextOccurrence;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+}
@@ -0,0 +1,45 @@
+package com.finance_dashboard.ProjetoT1.dto;
+
+import com.finance_dashboard.ProjetoT1.model.RecurrenceFrequency;
+import com.finance_dashboard.ProjetoT1.model.TransactionType;
+import jakarta.validation.constraints.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class RecurringRuleRequestDTO {
+
+    @NotBlank(message = "A descrição não pode estar em branco")
+    @Size(max = 100, message = "A descrição deve ter no máximo 100 caracteres")
+    private String description;
+
+    @NotNull(message = "O valor é obrigatório")
+    @Positive(message = "O valor deve ser maior que zero")
+    private BigDecimal amount;
+
+    @NotNull(message = "O tipo (INCOME/EXPENSE) é obrigatório")
+    private TransactionType type;
+
+    @NotBlank(message = "A categoria é obrigatória")
+    private String categoryId;
+
+    @NotNull(message = "A frequência (WEEKLY/MONTHLY/CRON) é obrigatória")
+    private RecurrenceFrequency frequency;
+
+    // Só para CRON, no formato do Spring: "segundo minuto hora dia mês dia-da-semana"
+    private String cron;
+
+    @NotNull(message = "A data de início é obrigatória")
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    public String getDescription() { return description; }
+    public BigDecimal getAmount() { return amount; }
+    public TransactionType getType() { return type; }
+    public String getCategoryId() { return categoryId; }
+    public RecurrenceFrequency getFrequency() { return frequency; }
+    public String getCron() { return cron; }
+    public LocalDate getStartDate() { return startDate; }
+    public LocalDate getEndDate() { return endDate; }
+}
@@ -0,0 +1,36 @@
+package com.finance_dashboard.ProjetoT1.dto;
+
+import java.util.List;
+
+public class SeriesDTO {
+
+    private String granularity;
+    private String groupBy;
+
+    // Data (UTC) de início de cada bucket; todas as linhas têm um valor por bucket, na mesma ordem
+    private List<String> buckets;
+    private List<SeriesLineDTO> series;
+
+    public SeriesDTO(String granularity, String groupBy, List<String> buckets, List<SeriesLineDTO> series) {
+        this.granularity = granularity;
+        this.groupBy = groupBy;
+        this.buckets = buckets;
+        this.series = series;
+    }
+
+    public String getGranularity() {
+        return granularity;
+    }
+
+    public String getGroupBy() {
+        return groupBy;
+    }
+
+    public List<String> getBuckets() {
+        return buckets;
+    }
+
+    public List<SeriesLineDTO> getSeries() {
+        return series;
+    }
+}
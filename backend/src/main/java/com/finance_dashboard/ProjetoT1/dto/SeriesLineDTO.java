@@ -0,0 +1,36 @@
+package com.finance_dashboard.ProjetoT1.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class SeriesLineDTO {
+
+    // INCOME/EXPENSE no agrupamento por tipo; id da categoria no agrupamento por categoria
+    private String key;
+    private String name;
+    private String type;
+    private List<BigDecimal> values;
+
+    public SeriesLineDTO(String key, String name, String type, List<BigDecimal> values) {
+        this.key = key;
+        this.name = name;
+        this.type = type;
+        this.values = values;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public List<BigDecimal> getValues() {
+        return values;
+    }
+}
@@ -0,0 +1,55 @@
+package com.finance_dashboard.ProjetoT1.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Descrições de despesa mais frequentes (quantidade) e de maior gasto (soma) de uma categoria no mês
+public class TopMerchantsDTO {
+
+    private String categoryId;
+    private String categoryName;
+    private long expenseCount;
+    private BigDecimal expenseTotal;
+    private List<MerchantStatDTO> mostFrequent;
+    private List<MerchantStatDTO> mostExpensive;
+
+    public TopMerchantsDTO(
+            String categoryId,
+            String categoryName,
+            long expenseCount,
+            BigDecimal expenseTotal,
+            List<MerchantStatDTO> mostFrequent,
+            List<MerchantStatDTO> mostExpensive
+    ) {
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.expenseCount = expenseCount;
+        this.expenseTotal = expenseTotal;
+        this.mostFrequent = mostFrequent;
+        this.mostExpensive = mostExpensive;
+    }
+
+    public String getCategoryId() {
+        return categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public long getExpenseCount() {
+        return expenseCount;
+    }
+
+    public BigDecimal getExpenseTotal() {
+        return expenseTotal;
+    }
+
+    public List<MerchantStatDTO> getMostFrequent() {
+        return mostFrequent;
+    }
+
+    public List<MerchantStatDTO> getMostExpensive() {
+        return mostExpensive;
+    }
+}
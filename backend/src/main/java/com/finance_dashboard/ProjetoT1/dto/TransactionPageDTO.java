@@ -0,0 +1,26 @@
+package com.finance_dashboard.ProjetoT1.dto;
+
+import com.finance_dashboard.ProjetoT1.model.Transaction;
+
+import java.util.List;
+
+public class TransactionPageDTO {
+
+    private List<Transaction> items;
+
+    // null quando não há mais páginas
+    private String nextCursor;
+
+    public TransactionPageDTO(List<Transaction> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Transaction> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,18 @@
+package com.finance_dashboard.ProjetoT1.exception;
+
+// Lançada quando uma requisição com peso (ex.: lote de transações) não cabe no bucket do RateLimitInterceptor
+public class RateLimitExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(long retryAfterSeconds) {
+        super("Muitas requisições. Tente novamente em " + retryAfterSeconds + " segundos.");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
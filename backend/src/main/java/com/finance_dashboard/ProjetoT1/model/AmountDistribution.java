@@ -0,0 +1,85 @@
+package com.finance_dashboard.ProjetoT1.model;
+
+import com.finance_dashboard.ProjetoT1.security.EncryptedValue;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// Distribuição cifrada dos valores (receitas e despesas) por usuário, mês (UTC) e categoria
+// (ver AmountDistributionService)
+@Document(collection = "amount_distributions")
+@CompoundIndex(name = "user_month_idx", def = "{'userEmail': 1, 'month': 1}")
+public class AmountDistribution {
+
+    // userEmail|yyyy-MM|categoryId
+    @Id
+    private String id;
+
+    private String userEmail;
+
+    // yyyy-MM, ordenável como texto
+    private String month;
+
+    private String categoryId;
+
+    @Version
+    private Long version;
+
+    // Envelope AES-GCM com os dois QuantileSketch serializados (despesas e receitas)
+    private EncryptedValue sketches;
+
+    private Instant updatedAt;
+
+    public AmountDistribution() {
+    }
+
+    public AmountDistribution(String userEmail, String month, String categoryId) {
+        this.id = idOf(userEmail, month, categoryId);
+        this.userEmail = userEmail;
+        this.month = month;
+        this.categoryId = categoryId;
+    }
+
+    public static String idOf(String userEmail, String month, String categoryId) {
+        return userEmail + "|" + month + "|" + categoryId;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getUserEmail() {
+        return userEmail;
+    }
+
+    public String getMonth() {
+        return month;
+    }
+
+    public String getCategoryId() {
+        return categoryId;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public EncryptedValue getSketches() {
+        return sketches;
+    }
+
+    public void setSketches(EncryptedValue sketches) {
+        this.sketches = sketches;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,33 @@
+package com.finance_dashboard.ProjetoT1.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// Marca que as distribuições do usuário foram construídas e estão sendo mantidas.
+// Sem este documento, a próxima leitura reconstrói todas as distribuições a partir das transações.
+@Document(collection = "amount_distribution_states")
+public class AmountDistributionState {
+
+    @Id
+    private String userEmail;
+
+    private Instant builtAt;
+
+    public AmountDistributionState() {
+    }
+
+    public AmountDistributionState(String userEmail, Instant builtAt) {
+        this.userEmail = userEmail;
+        this.builtAt = builtAt;
+    }
+
+    public String getUserEmail() {
+        return userEmail;
+    }
+
+    public Instant getBuiltAt() {
+        return builtAt;
+    }
+}
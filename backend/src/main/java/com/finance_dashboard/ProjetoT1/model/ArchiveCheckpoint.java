@@ -0,0 +1,57 @@
+package com.finance_dashboard.ProjetoT1.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// Posição (deletedAt, _id) da última transação arquivada. Como deletedAt só cresce, a próxima
+// execução continua daqui em vez de reler o que já foi movido, mesmo após uma interrupção.
+@Document(collection = "archive_checkpoints")
+public class ArchiveCheckpoint {
+
+    @Id
+    private String name;
+
+    private Instant lastDeletedAt;
+
+    private String lastId;
+
+    private long archived;
+
+    private Instant updatedAt;
+
+    public ArchiveCheckpoint() {
+    }
+
+    public ArchiveCheckpoint(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Instant getLastDeletedAt() {
+        return lastDeletedAt;
+    }
+
+    public String getLastId() {
+        return lastId;
+    }
+
+    public long getArchived() {
+        return archived;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void advance(Instant lastDeletedAt, String lastId, int batchSize) {
+        this.lastDeletedAt = lastDeletedAt;
+        this.lastId = lastId;
+        this.archived += batchSize;
+        this.updatedAt = Instant.now();
+    }
+}
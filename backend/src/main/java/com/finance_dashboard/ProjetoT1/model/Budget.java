@@ -0,0 +1,70 @@
+package com.finance_dashboard.ProjetoT1.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// Limite mensal de despesas de uma categoria; no máximo um por usuário e categoria
+@Document(collection = "budgets")
+@CompoundIndex(name = "user_category_unique_idx", def = "{'userEmail': 1, 'categoryId': 1}", unique = true)
+public class Budget {
+
+    @Id
+    private String id;
+
+    private String userEmail;
+
+    private String categoryId;
+
+    private BigDecimal monthlyLimit;
+
+    private Instant createdAt;
+
+    private Instant updatedAt;
+
+    public Budget() {
+    }
+
+    public Budget(String userEmail, String categoryId, BigDecimal monthlyLimit) {
+        this.userEmail = userEmail;
+        this.categoryId = categoryId;
+        this.monthlyLimit = monthlyLimit;
+        this.createdAt = Instant.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getUserEmail() {
+        return userEmail;
+    }
+
+    public String getCategoryId() {
+        return categoryId;
+    }
+
+    public BigDecimal getMonthlyLimit() {
+        return monthlyLimit;
+    }
+
+    public void setMonthlyLimit(BigDecimal monthlyLimit) {
+        this.monthlyLimit = monthlyLimit;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
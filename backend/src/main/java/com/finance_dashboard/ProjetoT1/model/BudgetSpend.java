@@ -0,0 +1,94 @@
+package com.finance_dashboard.ProjetoT1.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// Quando o gasto de uma categoria com orçamento cruzou o aviso e o limite no mês (UTC).
+// O gasto em si vem dos rollups por categoria (ver BudgetService)
+@Document(collection = "budget_spends")
+@CompoundIndex(name = "user_month_idx", def = "{'userEmail': 1, 'month': 1}")
+public class BudgetSpend {
+
+    // userEmail|yyyy-MM|categoryId
+    @Id
+    private String id;
+
+    private String userEmail;
+
+    // yyyy-MM
+    private String month;
+
+    private String categoryId;
+
+    @Version
+    private Long version;
+
+    // Quando o gasto atingiu o percentual de aviso / o limite; null enquanto abaixo
+    private Instant warnedAt;
+
+    private Instant exceededAt;
+
+    private Instant updatedAt;
+
+    public BudgetSpend() {
+    }
+
+    public BudgetSpend(String userEmail, String month, String categoryId) {
+        this.id = idOf(userEmail, month, categoryId);
+        this.userEmail = userEmail;
+        this.month = month;
+        this.categoryId = categoryId;
+    }
+
+    public static String idOf(String userEmail, String month, String categoryId) {
+        return userEmail + "|" + month + "|" + categoryId;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getUserEmail() {
+        return userEmail;
+    }
+
+    public String getMonth() {
+        return month;
+    }
+
+    public String getCategoryId() {
+        return categoryId;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Instant getWarnedAt() {
+        return warnedAt;
+    }
+
+    public void setWarnedAt(Instant warnedAt) {
+        this.warnedAt = warnedAt;
+    }
+
+    public Instant getExceededAt() {
+        return exceededAt;
+    }
+
+    public void setExceededAt(Instant exceededAt) {
+        this.exceededAt = exceededAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -12,6 +12,8 @@ import java.time.Instant;
         def = "{'userEmail': 1, 'normalizedName': 1, 'active': 1}",
         unique = true
 )
+// Listagem das categorias ativas do usuário (e das globais, com userEmail nulo)
+@CompoundIndex(name = "user_active_idx", def = "{'userEmail': 1, 'active': 1}")
 public class Category {
 
     @Id
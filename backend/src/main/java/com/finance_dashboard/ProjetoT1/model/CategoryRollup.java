@@ -0,0 +1,84 @@
+package com.finance_dashboard.ProjetoT1.model;
+
+import com.finance_dashboard.ProjetoT1.security.EncryptedValue;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// Totais cifrados de receitas/despesas por usuário, mês (UTC) e categoria (ver CategoryRollupService)
+@Document(collection = "category_rollups")
+@CompoundIndex(name = "user_month_idx", def = "{'userEmail': 1, 'month': 1}")
+public class CategoryRollup {
+
+    // userEmail|yyyy-MM|categoryId
+    @Id
+    private String id;
+
+    private String userEmail;
+
+    // yyyy-MM, ordenável como texto
+    private String month;
+
+    private String categoryId;
+
+    @Version
+    private Long version;
+
+    // Envelope AES-GCM com "receitas\ndespesas"
+    private EncryptedValue totals;
+
+    private Instant updatedAt;
+
+    public CategoryRollup() {
+    }
+
+    public CategoryRollup(String userEmail, String month, String categoryId) {
+        this.id = idOf(userEmail, month, categoryId);
+        this.userEmail = userEmail;
+        this.month = month;
+        this.categoryId = categoryId;
+    }
+
+    public static String idOf(String userEmail, String month, String categoryId) {
+        return userEmail + "|" + month + "|" + categoryId;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getUserEmail() {
+        return userEmail;
+    }
+
+    public String getMonth() {
+        return month;
+    }
+
+    public String getCategoryId() {
+        return categoryId;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public EncryptedValue getTotals() {
+        return totals;
+    }
+
+    public void setTotals(EncryptedValue totals) {
+        this.totals = totals;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
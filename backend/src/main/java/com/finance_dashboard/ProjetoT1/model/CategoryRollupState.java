@@ -0,0 +1,33 @@
+package com.finance_dashboard.ProjetoT1.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// Marca que os rollups do usuário foram construídos e estão sendo mantidos.
+// Sem este documento, a próxima leitura reconstrói todos os rollups a partir das transações.
+@Document(collection = "category_rollup_states")
+public class CategoryRollupState {
+
+    @Id
+    private String userEmail;
+
+    private Instant builtAt;
+
+    public CategoryRollupState() {
+    }
+
+    public CategoryRollupState(String userEmail, Instant builtAt) {
+        this.userEmail = userEmail;
+        this.builtAt = builtAt;
+    }
+
+    public String getUserEmail() {
+        return userEmail;
+    }
+
+    public Instant getBuiltAt() {
+        return builtAt;
+    }
+}
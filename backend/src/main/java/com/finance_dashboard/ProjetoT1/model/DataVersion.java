@@ -0,0 +1,25 @@
+package com.finance_dashboard.ProjetoT1.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// Versão dos dados do usuário, base dos ETags das leituras (ver DataVersionService)
+@Document(collection = "data_versions")
+public class DataVersion {
+
+    @Id
+    private String userEmail;
+
+    private long version;
+
+    public DataVersion() {
+    }
+
+    public String getUserEmail() {
+        return userEmail;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
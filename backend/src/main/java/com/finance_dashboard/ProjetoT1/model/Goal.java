@@ -1,6 +1,7 @@
 package com.finance_dashboard.ProjetoT1.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.math.BigDecimal;
@@ -9,6 +10,8 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Document(collection = "goals")
+// Metas do usuário, da mais recente para a mais antiga
+@CompoundIndex(name = "user_created_idx", def = "{'userId': 1, 'createdAt': -1}")
 public class Goal {
 
     @Id
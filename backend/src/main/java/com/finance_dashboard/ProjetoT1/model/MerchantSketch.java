@@ -0,0 +1,85 @@
+package com.finance_dashboard.ProjetoT1.model;
+
+import com.finance_dashboard.ProjetoT1.security.EncryptedValue;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// Descrições mais frequentes e de maior gasto por usuário, mês (UTC) e categoria, cifradas
+// (ver MerchantStatsService)
+@Document(collection = "merchant_sketches")
+@CompoundIndex(name = "user_month_idx", def = "{'userEmail': 1, 'month': 1}")
+public class MerchantSketch {
+
+    // userEmail|yyyy-MM|categoryId
+    @Id
+    private String id;
+
+    private String userEmail;
+
+    // yyyy-MM
+    private String month;
+
+    private String categoryId;
+
+    @Version
+    private Long version;
+
+    // Envelope AES-GCM com os dois sketches (frequência e valor) serializados
+    private EncryptedValue counters;
+
+    private Instant updatedAt;
+
+    public MerchantSketch() {
+    }
+
+    public MerchantSketch(String userEmail, String month, String categoryId) {
+        this.id = idOf(userEmail, month, categoryId);
+        this.userEmail = userEmail;
+        this.month = month;
+        this.categoryId = categoryId;
+    }
+
+    public static String idOf(String userEmail, String month, String categoryId) {
+        return userEmail + "|" + month + "|" + categoryId;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getUserEmail() {
+        return userEmail;
+    }
+
+    public String getMonth() {
+        return month;
+    }
+
+    public String getCategoryId() {
+        return categoryId;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public EncryptedValue getCounters() {
+        return counters;
+    }
+
+    public void setCounters(EncryptedValue counters) {
+        this.counters = counters;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
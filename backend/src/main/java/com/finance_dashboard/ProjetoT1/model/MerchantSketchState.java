@@ -0,0 +1,38 @@
+package com.finance_dashboard.ProjetoT1.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// Marca que os sketches de um mês do usuário foram construídos e estão sendo mantidos.
+// Sem este documento, a próxima leitura do mês reconstrói os sketches a partir das transações dele.
+@Document(collection = "merchant_sketch_states")
+public class MerchantSketchState {
+
+    // userEmail|yyyy-MM
+    @Id
+    private String id;
+
+    private Instant builtAt;
+
+    public MerchantSketchState() {
+    }
+
+    public MerchantSketchState(String userEmail, String month, Instant builtAt) {
+        this.id = idOf(userEmail, month);
+        this.builtAt = builtAt;
+    }
+
+    public static String idOf(String userEmail, String month) {
+        return userEmail + "|" + month;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Instant getBuiltAt() {
+        return builtAt;
+    }
+}
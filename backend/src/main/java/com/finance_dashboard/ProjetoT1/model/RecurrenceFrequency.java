@@ -0,0 +1,10 @@
+package com.finance_dashboard.ProjetoT1.model;
+
+public enum RecurrenceFrequency {
+    // Mesmo dia da semana de startDate
+    WEEKLY,
+    // Mesmo dia do mês de startDate (ou o último dia, em meses mais curtos)
+    MONTHLY,
+    // Expressão cron do Spring (6 campos), avaliada por dia em UTC
+    CRON
+}
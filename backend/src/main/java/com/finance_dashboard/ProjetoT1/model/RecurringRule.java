@@ -0,0 +1,152 @@
+package com.finance_dashboard.ProjetoT1.model;
+
+import com.finance_dashboard.ProjetoT1.security.EncryptedValue;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+// Lançamento que se repete (salário, aluguel, assinaturas), materializado pelo RecurringTransactionService
+@Document(collection = "recurring_rules")
+@CompoundIndex(name = "user_created_idx", def = "{'userEmail': 1, 'createdAt': -1}")
+// Varredura do agendador: regras ativas agrupadas por usuário, vencidas filtradas no próprio índice
+@CompoundIndex(name = "active_user_id_next_idx", def = "{'active': 1, 'userEmail': 1, '_id': 1, 'nextOccurrence': 1}")
+public class RecurringRule {
+
+    @Id
+    private String id;
+
+    private String userEmail;
+
+    private String categoryId;
+
+    // Envelope AES-GCM com type, amount e description (ver RecurringTransactionService)
+    private EncryptedValue payload;
+
+    private RecurrenceFrequency frequency;
+
+    private String cron;
+
+    private LocalDate startDate;
+
+    // Inclusiva; null = sem fim
+    private LocalDate endDate;
+
+    // Próxima data a materializar; null quando a regra terminou
+    private LocalDate nextOccurrence;
+
+    private boolean active;
+
+    @Version
+    private Long version;
+
+    private Instant createdAt;
+
+    private Instant updatedAt;
+
+    public RecurringRule() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUserEmail() {
+        return userEmail;
+    }
+
+    public void setUserEmail(String userEmail) {
+        this.userEmail = userEmail;
+    }
+
+    public String getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(String categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public EncryptedValue getPayload() {
+        return payload;
+    }
+
+    public void setPayload(EncryptedValue payload) {
+        this.payload = payload;
+    }
+
+    public RecurrenceFrequency getFrequency() {
+        return frequency;
+    }
+
+    public void setFrequency(RecurrenceFrequency frequency) {
+        this.frequency = frequency;
+    }
+
+    public String getCron() {
+        return cron;
+    }
+
+    public void setCron(String cron) {
+        this.cron = cron;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public LocalDate getNextOccurrence() {
+        return nextOccurrence;
+    }
+
+    public void setNextOccurrence(LocalDate nextOccurrence) {
+        this.nextOccurrence = nextOccurrence;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
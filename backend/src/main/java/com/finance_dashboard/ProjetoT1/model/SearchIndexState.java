@@ -0,0 +1,33 @@
+package com.finance_dashboard.ProjetoT1.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// Marca que todas as transações do usuário já têm o índice cego de busca.
+// Sem este documento, a primeira busca preenche os tokens das transações gravadas antes dele.
+@Document(collection = "search_index_states")
+public class SearchIndexState {
+
+    @Id
+    private String userEmail;
+
+    private Instant builtAt;
+
+    public SearchIndexState() {
+    }
+
+    public SearchIndexState(String userEmail, Instant builtAt) {
+        this.userEmail = userEmail;
+        this.builtAt = builtAt;
+    }
+
+    public String getUserEmail() {
+        return userEmail;
+    }
+
+    public Instant getBuiltAt() {
+        return builtAt;
+    }
+}
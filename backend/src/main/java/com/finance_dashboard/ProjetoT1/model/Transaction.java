@@ -1,14 +1,54 @@
 package com.finance_dashboard.ProjetoT1.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.finance_dashboard.ProjetoT1.security.EncryptedValue;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.List;
 
 @Document(collection = "transactions")
-@CompoundIndex(name = "user_date_deleted_idx", def = "{'userEmail': 1, 'date': 1, 'deletedAt': 1}")
+// Índices parciais só das transações vivas: toda consulta quente filtra "deletedAt: null", e as
+// removidas (até serem arquivadas) não ocupam entradas. Servem às listagens paginadas por
+// (date desc, _id desc) e às buscas por intervalo de datas.
+@CompoundIndex(
+        name = "user_live_date_id_idx",
+        def = "{'userEmail': 1, 'date': -1, '_id': -1}",
+        partialFilter = "{ 'deletedAt': null }"
+)
+@CompoundIndex(
+        name = "user_category_live_date_id_idx",
+        def = "{'userEmail': 1, 'categoryId': 1, 'date': -1, '_id': -1}",
+        partialFilter = "{ 'deletedAt': null }"
+)
+// Busca por descrição: igualdade em um token do índice cego, já na ordem da listagem
+@CompoundIndex(
+        name = "user_search_tokens_date_id_idx",
+        def = "{'userEmail': 1, 'searchTokens': 1, 'date': -1, '_id': -1}",
+        partialFilter = "{ 'deletedAt': null }"
+)
+// Varredura da compactação (TransactionArchiveService): só as removidas, em ordem de remoção
+@CompoundIndex(
+        name = "deleted_at_id_idx",
+        def = "{'deletedAt': 1, '_id': 1}",
+        partialFilter = "{ 'deletedAt': { '$exists': true } }"
+)
+@CompoundIndex(
+        name = "user_import_hash_unique_idx",
+        def = "{'userEmail': 1, 'importHash': 1}",
+        unique = true,
+        partialFilter = "{ 'importHash': { '$exists': true } }"
+)
+// Ocorrência gerada por uma regra recorrente: no máximo uma por regra e data, mesmo com reexecuções
+@CompoundIndex(
+        name = "user_occurrence_key_unique_idx",
+        def = "{'userEmail': 1, 'occurrenceKey': 1}",
+        unique = true,
+        partialFilter = "{ 'occurrenceKey': { '$exists': true } }"
+)
 public class Transaction {
 
     @Id
@@ -34,6 +74,27 @@ public class Transaction {
 
     private Instant deletedAt;
 
+    // Versão do formato de armazenamento (null = legado, campos soltos)
+    @JsonIgnore
+    private Integer formatVersion;
+
+    // Envelope AES-GCM com description, amount e type (ver TransactionCipher), gravado como BSON Binary
+    @JsonIgnore
+    private EncryptedValue payload;
+
+    // HMAC (chave derivada da chave do usuário) da linha de extrato importada; único por usuário,
+    // torna a reimportação do mesmo arquivo idempotente
+    @JsonIgnore
+    private String importHash;
+
+    // "idDaRegra|yyyy-MM-dd" nas transações geradas por RecurringTransactionService
+    @JsonIgnore
+    private String occurrenceKey;
+
+    // Índice cego da descrição (ver SearchTokenizer), gravado junto com o envelope
+    @JsonIgnore
+    private List<String> searchTokens;
+
     public Transaction() {
     }
 
@@ -51,6 +112,10 @@ public class Transaction {
         return id;
     }
 
+    public void setId(String id) {
+        this.id = id;
+    }
+
     public String getDescription() {
         return description;
     }
@@ -136,4 +201,44 @@ public class Transaction {
     public void setDeletedAt(Instant deletedAt) {
         this.deletedAt = deletedAt;
     }
-}
\ No newline at end of file
+
+    public Integer getFormatVersion() {
+        return formatVersion;
+    }
+
+    public void setFormatVersion(Integer formatVersion) {
+        this.formatVersion = formatVersion;
+    }
+
+    public EncryptedValue getPayload() {
+        return payload;
+    }
+
+    public void setPayload(EncryptedValue payload) {
+        this.payload = payload;
+    }
+
+    public String getImportHash() {
+        return importHash;
+    }
+
+    public void setImportHash(String importHash) {
+        this.importHash = importHash;
+    }
+
+    public String getOccurrenceKey() {
+        return occurrenceKey;
+    }
+
+    public void setOccurrenceKey(String occurrenceKey) {
+        this.occurrenceKey = occurrenceKey;
+    }
+
+    public List<String> getSearchTokens() {
+        return searchTokens;
+    }
+
+    public void setSearchTokens(List<String> searchTokens) {
+        this.searchTokens = searchTokens;
+    }
+}
@@ -2,6 +2,7 @@ package com.finance_dashboard.ProjetoT1.model;
 
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -14,6 +15,8 @@ public class User {
 
     private String name;
 
+    // Não único pelo mesmo motivo do índice único de categories (ver MongoIndexInitializer)
+    @Indexed(name = "email_idx")
     private String email;
 
     private String password;
@@ -0,0 +1,56 @@
+package com.finance_dashboard.ProjetoT1.model;
+
+import com.finance_dashboard.ProjetoT1.security.EncryptedValue;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// Totais de receitas e despesas do usuário, mantidos a cada escrita (ver BalanceSnapshotService)
+@Document(collection = "user_summaries")
+public class UserSummary {
+
+    @Id
+    private String userEmail;
+
+    // Controle otimista: os totais são cifrados, então não dá para usar $inc no banco
+    @Version
+    private Long version;
+
+    // Envelope AES-GCM com "receitas\ndespesas"
+    private EncryptedValue totals;
+
+    private Instant updatedAt;
+
+    public UserSummary() {
+    }
+
+    public UserSummary(String userEmail) {
+        this.userEmail = userEmail;
+    }
+
+    public String getUserEmail() {
+        return userEmail;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public EncryptedValue getTotals() {
+        return totals;
+    }
+
+    public void setTotals(EncryptedValue totals) {
+        this.totals = totals;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,40 @@
+package com.finance_dashboard.ProjetoT1.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// Contadores de escritas de transações do usuário (ver WriteGenerationService): "started" avança antes
+// de gravar a transação e "finished" depois que todos os listeners rodaram
+@Document(collection = "write_generations")
+public class WriteGeneration {
+
+    @Id
+    private String userEmail;
+
+    private long started;
+
+    private long finished;
+
+    private Instant startedAt;
+
+    public WriteGeneration() {
+    }
+
+    public String getUserEmail() {
+        return userEmail;
+    }
+
+    public long getStarted() {
+        return started;
+    }
+
+    public long getFinished() {
+        return finished;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+}
@@ -0,0 +1,16 @@
+package com.finance_dashboard.ProjetoT1.repository;
+
+import com.finance_dashboard.ProjetoT1.model.AmountDistribution;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.util.List;
+
+public interface AmountDistributionRepository extends MongoRepository<AmountDistribution, String> {
+
+    // Meses no formato yyyy-MM, limites inclusivos
+    @Query("{ 'userEmail': ?0, 'month': { '$gte': ?1, '$lte': ?2 } }")
+    List<AmountDistribution> findByUserEmailAndMonthRange(String userEmail, String fromMonth, String toMonth);
+
+    void deleteByUserEmail(String userEmail);
+}
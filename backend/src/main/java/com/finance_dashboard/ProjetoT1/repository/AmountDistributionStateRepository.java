@@ -0,0 +1,7 @@
+package com.finance_dashboard.ProjetoT1.repository;
+
+import com.finance_dashboard.ProjetoT1.model.AmountDistributionState;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface AmountDistributionStateRepository extends MongoRepository<AmountDistributionState, String> {
+}
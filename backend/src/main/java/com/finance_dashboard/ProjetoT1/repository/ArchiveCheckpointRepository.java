@@ -0,0 +1,7 @@
+package com.finance_dashboard.ProjetoT1.repository;
+
+import com.finance_dashboard.ProjetoT1.model.ArchiveCheckpoint;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface ArchiveCheckpointRepository extends MongoRepository<ArchiveCheckpoint, String> {
+}
@@ -0,0 +1,16 @@
+package com.finance_dashboard.ProjetoT1.repository;
+
+import com.finance_dashboard.ProjetoT1.model.Budget;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface BudgetRepository extends MongoRepository<Budget, String> {
+
+    List<Budget> findByUserEmail(String userEmail);
+
+    Optional<Budget> findByUserEmailAndCategoryId(String userEmail, String categoryId);
+
+    Optional<Budget> findByIdAndUserEmail(String id, String userEmail);
+}
@@ -0,0 +1,13 @@
+package com.finance_dashboard.ProjetoT1.repository;
+
+import com.finance_dashboard.ProjetoT1.model.BudgetSpend;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+public interface BudgetSpendRepository extends MongoRepository<BudgetSpend, String> {
+
+    List<BudgetSpend> findByUserEmailAndMonth(String userEmail, String month);
+
+    void deleteByUserEmailAndCategoryId(String userEmail, String categoryId);
+}
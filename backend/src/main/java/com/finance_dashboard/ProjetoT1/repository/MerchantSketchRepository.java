@@ -0,0 +1,13 @@
+package com.finance_dashboard.ProjetoT1.repository;
+
+import com.finance_dashboard.ProjetoT1.model.MerchantSketch;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+public interface MerchantSketchRepository extends MongoRepository<MerchantSketch, String> {
+
+    List<MerchantSketch> findByUserEmailAndMonth(String userEmail, String month);
+
+    void deleteByUserEmailAndMonth(String userEmail, String month);
+}
@@ -0,0 +1,10 @@
+package com.finance_dashboard.ProjetoT1.repository;
+
+import com.finance_dashboard.ProjetoT1.model.MerchantSketchState;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface MerchantSketchStateRepository extends MongoRepository<MerchantSketchState, String> {
+
+    // Intervalo aberto nos dois extremos ($gt/$lt) sobre o _id
+    void deleteByIdBetween(String from, String to);
+}
@@ -0,0 +1,14 @@
+package com.finance_dashboard.ProjetoT1.repository;
+
+import com.finance_dashboard.ProjetoT1.model.RecurringRule;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface RecurringRuleRepository extends MongoRepository<RecurringRule, String> {
+
+    List<RecurringRule> findByUserEmailOrderByCreatedAtDesc(String userEmail);
+
+    Optional<RecurringRule> findByIdAndUserEmail(String id, String userEmail);
+}
@@ -0,0 +1,31 @@
+package com.finance_dashboard.ProjetoT1.repository;
+
+import java.time.Instant;
+
+// Filtros das listagens de transações. Limites nulos não restringem a data;
+// "from" é inclusivo só quando fromInclusive (meses inteiros), "to" é sempre exclusivo.
+public record TransactionFilter(
+        String categoryId,
+        Instant from,
+        boolean fromInclusive,
+        Instant to
+) {
+
+    public static TransactionFilter all() {
+        return new TransactionFilter(null, null, false, null);
+    }
+
+    public static TransactionFilter category(String categoryId) {
+        return new TransactionFilter(categoryId, null, false, null);
+    }
+
+    // [start, end)
+    public static TransactionFilter halfOpen(Instant start, Instant end) {
+        return new TransactionFilter(null, start, true, end);
+    }
+
+    // (start, end), como o "DateBetween" derivado
+    public static TransactionFilter between(Instant start, Instant end) {
+        return new TransactionFilter(null, start, false, end);
+    }
+}
@@ -1,7 +1,9 @@
 package com.finance_dashboard.ProjetoT1.repository;
 
 import com.finance_dashboard.ProjetoT1.model.Transaction;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
@@ -9,7 +11,12 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TransactionRepository extends MongoRepository<Transaction, String> {
+public interface TransactionRepository extends MongoRepository<Transaction, String>, TransactionRepositoryCustom {
+
+    // Projeção usada pelas agregações: sem descrição, e-mail ou datas de auditoria.
+    // Documentos legados trazem amount/type soltos; os atuais, formatVersion + payload.
+    String SUMMARY_FIELDS =
+            "{ 'amount': 1, 'type': 1, 'categoryId': 1, 'date': 1, 'formatVersion': 1, 'payload': 1 }";
 
     List<Transaction> findByUserEmailAndCategoryIdAndDeletedAtIsNull(
             String userEmail,
@@ -29,6 +36,45 @@ public interface TransactionRepository extends MongoRepository<Transaction, Stri
             Instant end
     );
 
+    @Query(value = "{ 'userEmail': ?0, 'deletedAt': null }", fields = SUMMARY_FIELDS)
+    List<Transaction> findSummaryRowsByUserEmail(String userEmail);
+
+    // Mesmos limites exclusivos do "DateBetween" derivado
+    @Query(
+            value = "{ 'userEmail': ?0, 'date': { '$gt': ?1, '$lt': ?2 }, 'deletedAt': null }",
+            fields = SUMMARY_FIELDS
+    )
+    List<Transaction> findSummaryRowsByUserEmailAndDateBetween(
+            String userEmail,
+            Instant start,
+            Instant end
+    );
+
+    // Intervalo semiaberto [start, end): usado para meses inteiros e para a borda final dos períodos
+    @Query("{ 'userEmail': ?0, 'date': { '$gte': ?1, '$lt': ?2 }, 'deletedAt': null }")
+    List<Transaction> findByUserEmailAndDateFromInclusive(
+            String userEmail,
+            Instant start,
+            Instant end
+    );
+
+    @Query(
+            value = "{ 'userEmail': ?0, 'date': { '$gte': ?1, '$lt': ?2 }, 'deletedAt': null }",
+            fields = SUMMARY_FIELDS
+    )
+    List<Transaction> findSummaryRowsByUserEmailAndDateFromInclusive(
+            String userEmail,
+            Instant start,
+            Instant end
+    );
+
+    // Todas as palavras da busca precisam casar; mais recentes primeiro (índice user_search_tokens_date_id_idx)
+    @Query(
+            value = "{ 'userEmail': ?0, 'searchTokens': { '$all': ?1 }, 'deletedAt': null }",
+            sort = "{ 'date': -1, '_id': -1 }"
+    )
+    List<Transaction> findBySearchTokens(String userEmail, List<String> tokens, Limit limit);
+
     boolean existsByUserEmailAndCategoryIdAndDeletedAtIsNull(
             String userEmail,
             String categoryId
@@ -0,0 +1,24 @@
+package com.finance_dashboard.ProjetoT1.repository;
+
+import com.finance_dashboard.ProjetoT1.model.Transaction;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+public interface TransactionRepositoryCustom {
+
+    // Página ordenada por (date desc, _id desc), começando logo depois de (afterDate, afterId).
+    // afterDate/afterId nulos = primeira página.
+    List<Transaction> findPage(
+            String userEmail,
+            TransactionFilter filter,
+            Instant afterDate,
+            String afterId,
+            int limit
+    );
+
+    // Insert não ordenado (um insertMany): falhas de um documento não impedem os demais.
+    // Retorna índice na lista → código de erro do Mongo (11000 = chave duplicada) dos rejeitados.
+    Map<Integer, Integer> insertUnordered(List<Transaction> transactions);
+}
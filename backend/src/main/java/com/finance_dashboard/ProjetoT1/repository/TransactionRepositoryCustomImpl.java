@@ -0,0 +1,91 @@
+package com.finance_dashboard.ProjetoT1.repository;
+
+import com.finance_dashboard.ProjetoT1.model.Transaction;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TransactionRepositoryCustomImpl implements TransactionRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public TransactionRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<Transaction> findPage(
+            String userEmail,
+            TransactionFilter filter,
+            Instant afterDate,
+            String afterId,
+            int limit
+    ) {
+        List<Criteria> conditions = new ArrayList<>();
+        conditions.add(Criteria.where("userEmail").is(userEmail));
+        conditions.add(Criteria.where("deletedAt").is(null));
+
+        if (filter.categoryId() != null) {
+            conditions.add(Criteria.where("categoryId").is(filter.categoryId()));
+        }
+
+        if (filter.from() != null) {
+            conditions.add(filter.fromInclusive()
+                    ? Criteria.where("date").gte(filter.from())
+                    : Criteria.where("date").gt(filter.from()));
+        }
+
+        if (filter.to() != null) {
+            conditions.add(Criteria.where("date").lt(filter.to()));
+        }
+
+        // Keyset: (date, _id) estritamente menor que o último item da página anterior
+        if (afterDate != null && afterId != null) {
+            conditions.add(new Criteria().orOperator(
+                    Criteria.where("date").lt(afterDate),
+                    Criteria.where("date").is(afterDate).and("_id").lt(toObjectId(afterId))
+            ));
+        }
+
+        Query query = new Query(new Criteria().andOperator(conditions))
+                .with(Sort.by(Sort.Order.desc("date"), Sort.Order.desc("_id")))
+                .limit(limit);
+
+        return mongoTemplate.find(query, Transaction.class);
+    }
+
+    @Override
+    public Map<Integer, Integer> insertUnordered(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return Map.of();
+        }
+
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Transaction.class)
+                    .insert(transactions)
+                    .execute();
+            return Map.of();
+        } catch (BulkOperationException e) {
+            Map<Integer, Integer> rejected = new HashMap<>();
+            for (BulkWriteError error : e.getErrors()) {
+                rejected.put(error.getIndex(), error.getCode());
+            }
+            return rejected;
+        }
+    }
+
+    private static Object toObjectId(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+}
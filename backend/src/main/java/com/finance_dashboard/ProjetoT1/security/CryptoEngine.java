@@ -0,0 +1,134 @@
+package com.finance_dashboard.ProjetoT1.security;
+
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+// Motor AES compartilhado: um Cipher por thread, um único SecureRandom e chaves já parseadas.
+// Mantém exatamente o formato "Base64(iv):Base64(ciphertext)" usado desde o início.
+@Component
+public class CryptoEngine {
+
+    private static final String ALGORITHM = "AES/CBC/PKCS5Padding";
+    private static final int IV_LENGTH = 16;
+
+    private static final String GCM_ALGORITHM = "AES/GCM/NoPadding";
+    private static final int GCM_IV_LENGTH = 12;
+    private static final int GCM_TAG_BITS = 128;
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private static final Base64.Encoder ENCODER = Base64.getEncoder();
+    private static final Base64.Decoder DECODER = Base64.getDecoder();
+
+    private final SecureRandom random = new SecureRandom();
+
+    private final ThreadLocal<Cipher> cbc = ThreadLocal.withInitial(() -> newCipher(ALGORITHM));
+    private final ThreadLocal<Cipher> gcm = ThreadLocal.withInitial(() -> newCipher(GCM_ALGORITHM));
+    private final ThreadLocal<Mac> mac = ThreadLocal.withInitial(CryptoEngine::newMac);
+
+    public String encrypt(String text, SecretKey key) throws GeneralSecurityException {
+        byte[] iv = new byte[IV_LENGTH];
+        random.nextBytes(iv);
+
+        Cipher cipher = cbc.get();
+        cipher.init(Cipher.ENCRYPT_MODE, key, new IvParameterSpec(iv));
+
+        byte[] encrypted = cipher.doFinal(text.getBytes());
+        return ENCODER.encodeToString(iv) + ":" + ENCODER.encodeToString(encrypted);
+    }
+
+    public String decrypt(String data, SecretKey key) throws GeneralSecurityException {
+        int separator = data.indexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Formato criptografado inválido");
+        }
+
+        int end = data.indexOf(':', separator + 1);
+        if (end < 0) {
+            end = data.length();
+        }
+
+        byte[] iv = DECODER.decode(data.substring(0, separator));
+        byte[] encrypted = DECODER.decode(data.substring(separator + 1, end));
+
+        Cipher cipher = cbc.get();
+        cipher.init(Cipher.DECRYPT_MODE, key, new IvParameterSpec(iv));
+
+        return new String(cipher.doFinal(encrypted));
+    }
+
+    // AES-GCM autenticado; o "aad" amarra o texto cifrado ao documento (não é cifrado, mas é verificado)
+    public EncryptedValue seal(byte[] plaintext, SecretKey key, byte[] aad) throws GeneralSecurityException {
+        byte[] iv = new byte[GCM_IV_LENGTH];
+        random.nextBytes(iv);
+
+        Cipher cipher = gcm.get();
+        cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_BITS, iv));
+        cipher.updateAAD(aad);
+
+        return new EncryptedValue(iv, cipher.doFinal(plaintext));
+    }
+
+    public byte[] open(EncryptedValue value, SecretKey key, byte[] aad) throws GeneralSecurityException {
+        Cipher cipher = gcm.get();
+        cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_BITS, value.getIv()));
+        cipher.updateAAD(aad);
+
+        return cipher.doFinal(value.getCiphertext());
+    }
+
+    public byte[] hmac(SecretKey key, byte[] data) throws GeneralSecurityException {
+        Mac hmac = mac.get();
+        hmac.init(key);
+        return hmac.doFinal(data);
+    }
+
+    // Chave HMAC derivada para um propósito específico, para não reutilizar a chave AES em outro algoritmo
+    public SecretKey deriveKey(SecretKey key, String purpose) throws GeneralSecurityException {
+        SecretKey base = new SecretKeySpec(key.getEncoded(), HMAC_ALGORITHM);
+        return new SecretKeySpec(hmac(base, purpose.getBytes(StandardCharsets.UTF_8)), HMAC_ALGORITHM);
+    }
+
+    public static SecretKey aesKey(byte[] keyBytes) {
+        return new SecretKeySpec(keyBytes, "AES");
+    }
+
+    public static SecretKey aesKeyFromHex(String hex) {
+        return aesKey(hexToBytes(hex));
+    }
+
+    public static byte[] hexToBytes(String s) {
+        int len = s.length();
+        byte[] data = new byte[len / 2];
+        for (int i = 0; i < len; i += 2) {
+            data[i / 2] = (byte) ((Character.digit(s.charAt(i), 16) << 4) + Character.digit(s.charAt(i + 1), 16));
+        }
+        return data;
+    }
+
+    private static Mac newMac() {
+        try {
+            return Mac.getInstance(HMAC_ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Algoritmo indisponível: " + HMAC_ALGORITHM, e);
+        }
+    }
+
+    private static Cipher newCipher(String transformation) {
+        try {
+            return Cipher.getInstance(transformation);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Algoritmo indisponível: " + transformation, e);
+        }
+    }
+}
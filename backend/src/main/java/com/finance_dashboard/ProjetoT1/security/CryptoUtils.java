@@ -1,12 +1,10 @@
 package com.finance_dashboard.ProjetoT1.security;
 
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import javax.crypto.Cipher;
-import javax.crypto.spec.IvParameterSpec;
-import javax.crypto.spec.SecretKeySpec;
-import java.security.SecureRandom;
-import java.util.Base64;
+
+import javax.crypto.SecretKey;
 
 @Component
 public class CryptoUtils {
@@ -14,18 +12,22 @@ public class CryptoUtils {
     @Value("${master.encryption.key}")
     private String masterKeyHex;
 
-    private static final String ALGORITHM = "AES/CBC/PKCS5Padding";
+    private final CryptoEngine engine;
 
-    public String encrypt(String text) throws Exception {
-        byte[] keyBytes = hexStringToByteArray(masterKeyHex);
-        byte[] iv = new byte[16];
-        new SecureRandom().nextBytes(iv);
+    // Master Key parseada uma única vez na inicialização
+    private SecretKey masterKey;
+
+    public CryptoUtils(CryptoEngine engine) {
+        this.engine = engine;
+    }
 
-        Cipher cipher = Cipher.getInstance(ALGORITHM);
-        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(keyBytes, "AES"), new IvParameterSpec(iv));
+    @PostConstruct
+    void init() {
+        masterKey = CryptoEngine.aesKeyFromHex(masterKeyHex);
+    }
 
-        byte[] encrypted = cipher.doFinal(text.getBytes());
-        return Base64.getEncoder().encodeToString(iv) + ":" + Base64.getEncoder().encodeToString(encrypted);
+    public String encrypt(String text) throws Exception {
+        return engine.encrypt(text, masterKey);
     }
 
     public String decrypt(String data) throws Exception {
@@ -33,22 +35,6 @@ public class CryptoUtils {
             return data;
         }
 
-        String[] parts = data.split(":");
-        byte[] iv = Base64.getDecoder().decode(parts[0]);
-        byte[] encrypted = Base64.getDecoder().decode(parts[1]);
-
-        Cipher cipher = Cipher.getInstance(ALGORITHM);
-        cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(hexStringToByteArray(masterKeyHex), "AES"), new IvParameterSpec(iv));
-
-        return new String(cipher.doFinal(encrypted));
-    }
-
-    private byte[] hexStringToByteArray(String s) {
-        int len = s.length();
-        byte[] data = new byte[len / 2];
-        for (int i = 0; i < len; i += 2) {
-            data[i / 2] = (byte) ((Character.digit(s.charAt(i), 16) << 4) + Character.digit(s.charAt(i+1), 16));
-        }
-        return data;
+        return engine.decrypt(data, masterKey);
     }
-}
\ No newline at end of file
+}
@@ -1,44 +1,23 @@
 package com.finance_dashboard.ProjetoT1.security;
 
-import javax.crypto.Cipher;
-import javax.crypto.spec.IvParameterSpec;
-import javax.crypto.spec.SecretKeySpec;
-import java.security.SecureRandom;
-import java.util.Base64;
+import org.springframework.stereotype.Component;
 
-public class DataCrypto {
-
-    private static final String ALGORITHM = "AES/CBC/PKCS5Padding";
+import javax.crypto.SecretKey;
 
-    public static String encryptWithUserKey(String text, String userKeyHex) throws Exception {
-        byte[] keyBytes = hexStringToByteArray(userKeyHex);
-        byte[] iv = new byte[16];
-        new SecureRandom().nextBytes(iv);
+@Component
+public class DataCrypto {
 
-        Cipher cipher = Cipher.getInstance(ALGORITHM);
-        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(keyBytes, "AES"), new IvParameterSpec(iv));
+    private final CryptoEngine engine;
 
-        byte[] encrypted = cipher.doFinal(text.getBytes());
-        return Base64.getEncoder().encodeToString(iv) + ":" + Base64.getEncoder().encodeToString(encrypted);
+    public DataCrypto(CryptoEngine engine) {
+        this.engine = engine;
     }
 
-    public static String decryptWithUserKey(String data, String userKeyHex) throws Exception {
-        String[] parts = data.split(":");
-        byte[] iv = Base64.getDecoder().decode(parts[0]);
-        byte[] encrypted = Base64.getDecoder().decode(parts[1]);
-
-        Cipher cipher = Cipher.getInstance(ALGORITHM);
-        cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(hexStringToByteArray(userKeyHex), "AES"), new IvParameterSpec(iv));
-
-        return new String(cipher.doFinal(encrypted));
+    public String encryptWithUserKey(String text, SecretKey userKey) throws Exception {
+        return engine.encrypt(text, userKey);
     }
 
-    private static byte[] hexStringToByteArray(String s) {
-        int len = s.length();
-        byte[] data = new byte[len / 2];
-        for (int i = 0; i < len; i += 2) {
-            data[i / 2] = (byte) ((Character.digit(s.charAt(i), 16) << 4) + Character.digit(s.charAt(i + 1), 16));
-        }
-        return data;
+    public String decryptWithUserKey(String data, SecretKey userKey) throws Exception {
+        return engine.decrypt(data, userKey);
     }
-}
\ No newline at end of file
+}
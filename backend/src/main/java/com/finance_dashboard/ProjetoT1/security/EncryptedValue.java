@@ -0,0 +1,59 @@
+package com.finance_dashboard.ProjetoT1.security;
+
+import java.util.Arrays;
+import java.util.Base64;
+
+// IV + texto cifrado de um campo criptografado.
+// No Mongo vira um único BSON Binary: [tamanho do IV (1 byte)][IV][texto cifrado].
+public final class EncryptedValue {
+
+    private final byte[] iv;
+    private final byte[] ciphertext;
+
+    public EncryptedValue(byte[] iv, byte[] ciphertext) {
+        this.iv = iv;
+        this.ciphertext = ciphertext;
+    }
+
+    public byte[] getIv() {
+        return iv;
+    }
+
+    public byte[] getCiphertext() {
+        return ciphertext;
+    }
+
+    public byte[] toBytes() {
+        byte[] bytes = new byte[1 + iv.length + ciphertext.length];
+        bytes[0] = (byte) iv.length;
+        System.arraycopy(iv, 0, bytes, 1, iv.length);
+        System.arraycopy(ciphertext, 0, bytes, 1 + iv.length, ciphertext.length);
+        return bytes;
+    }
+
+    public static EncryptedValue fromBytes(byte[] bytes) {
+        if (bytes.length < 1 || bytes.length < 1 + (bytes[0] & 0xFF)) {
+            throw new IllegalArgumentException("Formato criptografado inválido");
+        }
+
+        int ivLength = bytes[0] & 0xFF;
+        return new EncryptedValue(
+                Arrays.copyOfRange(bytes, 1, 1 + ivLength),
+                Arrays.copyOfRange(bytes, 1 + ivLength, bytes.length)
+        );
+    }
+
+    // Forma legada em texto: "Base64(iv):Base64(ciphertext)"
+    public static EncryptedValue parse(String data) {
+        int separator = data.indexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Formato criptografado inválido");
+        }
+
+        Base64.Decoder decoder = Base64.getDecoder();
+        return new EncryptedValue(
+                decoder.decode(data.substring(0, separator)),
+                decoder.decode(data.substring(separator + 1))
+        );
+    }
+}
@@ -0,0 +1,57 @@
+package com.finance_dashboard.ProjetoT1.security;
+
+import org.bson.BsonBinarySubType;
+import org.bson.types.Binary;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+
+import java.util.List;
+
+// Conversores Spring Data para gravar EncryptedValue como BSON Binary (subtipo definido pelo usuário)
+// e continuar lendo documentos antigos, em que o mesmo campo era uma String Base64 "iv:conteúdo".
+public final class EncryptedValueConverters {
+
+    public static final byte BINARY_SUBTYPE = BsonBinarySubType.USER_DEFINED.getValue();
+
+    private EncryptedValueConverters() {
+    }
+
+    public static List<Converter<?, ?>> all() {
+        return List.of(
+                EncryptedValueToBinary.INSTANCE,
+                BinaryToEncryptedValue.INSTANCE,
+                StringToEncryptedValue.INSTANCE
+        );
+    }
+
+    @WritingConverter
+    enum EncryptedValueToBinary implements Converter<EncryptedValue, Binary> {
+        INSTANCE;
+
+        @Override
+        public Binary convert(EncryptedValue source) {
+            return new Binary(BINARY_SUBTYPE, source.toBytes());
+        }
+    }
+
+    @ReadingConverter
+    enum BinaryToEncryptedValue implements Converter<Binary, EncryptedValue> {
+        INSTANCE;
+
+        @Override
+        public EncryptedValue convert(Binary source) {
+            return EncryptedValue.fromBytes(source.getData());
+        }
+    }
+
+    @ReadingConverter
+    enum StringToEncryptedValue implements Converter<String, EncryptedValue> {
+        INSTANCE;
+
+        @Override
+        public EncryptedValue convert(String source) {
+            return EncryptedValue.parse(source);
+        }
+    }
+}
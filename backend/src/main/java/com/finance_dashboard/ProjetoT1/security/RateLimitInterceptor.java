@@ -1,5 +1,6 @@
 package com.finance_dashboard.ProjetoT1.security;
 
+import com.finance_dashboard.ProjetoT1.exception.RateLimitExceededException;
 import io.github.bucket4j.Bucket;
 import io.github.bucket4j.ConsumptionProbe;
 import jakarta.servlet.http.HttpServletRequest;
@@ -34,6 +35,20 @@ public class RateLimitInterceptor implements HandlerInterceptor {
         return buckets.computeIfAbsent(key, k -> createNewBucket());
     }
 
+    // Cobra tokens extras de uma requisição que já passou pelo preHandle (que cobrou 1),
+    // para que um lote de N itens custe o mesmo que N chamadas individuais
+    public void chargeAdditional(HttpServletRequest request, long tokens) {
+        if (tokens <= 0) {
+            return;
+        }
+
+        ConsumptionProbe probe = resolveBucket(request).tryConsumeAndReturnRemaining(tokens);
+
+        if (!probe.isConsumed()) {
+            throw new RateLimitExceededException(probe.getNanosToWaitForRefill() / 1_000_000_000);
+        }
+    }
+
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
         // Ignora requisições OPTIONS (CORS preflight)
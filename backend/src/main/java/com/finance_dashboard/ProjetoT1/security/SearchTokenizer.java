@@ -0,0 +1,101 @@
+package com.finance_dashboard.ProjetoT1.security;
+
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// Índice cego das descrições: cada palavra normalizada (minúsculas, sem acento) vira os HMACs dos
+// seus prefixos de 3 a 16 caracteres, com chave derivada da do usuário. O banco só vê tokens opacos;
+// a busca calcula o token de cada palavra pesquisada e casa palavras que começam com ela.
+// Palavras de 1-2 caracteres só casam com a palavra inteira.
+// No máximo MAX_TOKENS (256) tokens por descrição, na ordem das palavras (cerca de 18 palavras de
+// 16+ caracteres, mais se forem curtas): palavras depois do limite não são encontradas pela busca.
+@Component
+public class SearchTokenizer {
+
+    private static final String PURPOSE = "transaction-search-token";
+    private static final int MIN_PREFIX = 3;
+    private static final int MAX_PREFIX = 16;
+    private static final int TOKEN_BYTES = 12;
+    private static final int MAX_TOKENS = 256;
+
+    private final CryptoEngine engine;
+
+    public SearchTokenizer(CryptoEngine engine) {
+        this.engine = engine;
+    }
+
+    public List<String> tokens(SecretKey userKey, String description) throws GeneralSecurityException {
+        SecretKey tokenKey = engine.deriveKey(userKey, PURPOSE);
+        Set<String> tokens = new LinkedHashSet<>();
+
+        for (String word : words(description)) {
+            int longest = Math.min(word.length(), MAX_PREFIX);
+            for (int length = Math.min(MIN_PREFIX, longest); length <= longest && tokens.size() < MAX_TOKENS; length++) {
+                tokens.add(token(tokenKey, word.substring(0, length)));
+            }
+        }
+
+        return new ArrayList<>(tokens);
+    }
+
+    // Um token por palavra da busca; todas precisam casar
+    public List<String> queryTokens(SecretKey userKey, String query) throws GeneralSecurityException {
+        SecretKey tokenKey = engine.deriveKey(userKey, PURPOSE);
+        Set<String> tokens = new LinkedHashSet<>();
+
+        for (String word : words(query)) {
+            tokens.add(token(tokenKey, word.substring(0, Math.min(word.length(), MAX_PREFIX))));
+        }
+
+        return new ArrayList<>(tokens);
+    }
+
+    // Mesma regra sem criptografia, para descrições já em texto puro (usuários legados sem chave)
+    public static boolean matches(String description, String query) {
+        List<String> descriptionWords = words(description);
+
+        for (String word : words(query)) {
+            String prefix = word.substring(0, Math.min(word.length(), MAX_PREFIX));
+            boolean found = descriptionWords.stream().anyMatch(candidate -> prefix.length() < MIN_PREFIX
+                    ? candidate.equals(prefix)
+                    : candidate.startsWith(prefix));
+
+            if (!found) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public static List<String> words(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+
+        return Arrays.stream(normalized.split("[^a-z0-9]+"))
+                .filter(word -> !word.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    private String token(SecretKey tokenKey, String prefix) throws GeneralSecurityException {
+        byte[] mac = engine.hmac(tokenKey, prefix.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(mac, TOKEN_BYTES));
+    }
+}
@@ -0,0 +1,139 @@
+package com.finance_dashboard.ProjetoT1.security;
+
+import com.finance_dashboard.ProjetoT1.model.Transaction;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+// Leitura/escrita versionada dos campos sensíveis de Transaction.
+//
+// Formatos suportados:
+//  - sem formatVersion (legado): description, amount e type soltos, cada um em texto puro
+//    ou cifrado individualmente em AES-CBC ("iv:conteúdo");
+//  - ENVELOPE_FORMAT: os três valores num único envelope AES-GCM no campo payload,
+//    com o id da transação como AAD (um documento não pode "herdar" o envelope de outro).
+@Component
+public class TransactionCipher {
+
+    public static final int ENVELOPE_FORMAT = 2;
+
+    // O que uma linha que não pôde ser descriptografada exibe (e soma) no lugar dos valores reais
+    public static final TransactionPayload PROTECTED =
+            new TransactionPayload("[Conteúdo Protegido]", "0", "EXPENSE");
+
+    private static final char SEPARATOR = '\n';
+
+    private final CryptoEngine engine;
+    private final DataCrypto dataCrypto;
+    private final SearchTokenizer searchTokenizer;
+
+    public TransactionCipher(CryptoEngine engine, DataCrypto dataCrypto, SearchTokenizer searchTokenizer) {
+        this.engine = engine;
+        this.dataCrypto = dataCrypto;
+        this.searchTokenizer = searchTokenizer;
+    }
+
+    // Exige que o id já esteja definido, pois ele entra como AAD
+    public void seal(Transaction transaction, TransactionPayload payload, SecretKey key) throws Exception {
+        if (transaction.getId() == null) {
+            throw new IllegalStateException("Transação sem id não pode ser criptografada");
+        }
+
+        // type e amount nunca contêm quebra de linha; a descrição vai por último e pode conter
+        String plain = payload.type() + SEPARATOR + payload.amount() + SEPARATOR + payload.description();
+
+        transaction.setPayload(engine.seal(plain.getBytes(StandardCharsets.UTF_8), key, aad(transaction)));
+        transaction.setFormatVersion(ENVELOPE_FORMAT);
+
+        // Todo caminho de escrita (cadastro, edição, lote, importação) regrava o índice cego junto
+        transaction.setSearchTokens(searchTokenizer.tokens(key, payload.description()));
+
+        // Os campos soltos não são mais gravados neste formato
+        transaction.setDescription(null);
+        transaction.setAmount(null);
+        transaction.setType(null);
+    }
+
+    public TransactionPayload open(Transaction transaction, SecretKey key) throws Exception {
+        return open(transaction, key, TransactionField.ALL);
+    }
+
+    // Campos não pedidos voltam como null. No layout legado eles nem são descriptografados;
+    // no envelope o GCM precisa autenticar o bloco inteiro, mas a descrição não é materializada.
+    public TransactionPayload open(Transaction transaction, SecretKey key, Set<TransactionField> fields) throws Exception {
+        Integer version = transaction.getFormatVersion();
+
+        if (version == null) {
+            return new TransactionPayload(
+                    fields.contains(TransactionField.DESCRIPTION) ? openLegacyField(transaction.getDescription(), key) : null,
+                    fields.contains(TransactionField.AMOUNT) ? openLegacyField(transaction.getAmount(), key) : null,
+                    fields.contains(TransactionField.TYPE) ? openLegacyField(transaction.getType(), key) : null
+            );
+        }
+
+        if (version == ENVELOPE_FORMAT) {
+            String plain = new String(
+                    engine.open(transaction.getPayload(), key, aad(transaction)),
+                    StandardCharsets.UTF_8
+            );
+
+            int first = plain.indexOf(SEPARATOR);
+            int second = plain.indexOf(SEPARATOR, first + 1);
+
+            return new TransactionPayload(
+                    fields.contains(TransactionField.DESCRIPTION) ? plain.substring(second + 1) : null,
+                    fields.contains(TransactionField.AMOUNT) ? plain.substring(first + 1, second) : null,
+                    fields.contains(TransactionField.TYPE) ? plain.substring(0, first) : null
+            );
+        }
+
+        throw new IllegalStateException("Formato de transação desconhecido: " + version);
+    }
+
+    // Nunca lança: sem chave (usuário legado) devolve os campos em texto puro,
+    // e linhas ilegíveis devolvem PROTECTED, como na listagem
+    public TransactionPayload openOrProtected(Transaction transaction, SecretKey key, Set<TransactionField> fields) {
+        if (key == null) {
+            return new TransactionPayload(transaction.getDescription(), transaction.getAmount(), transaction.getType());
+        }
+
+        try {
+            return open(transaction, key, fields);
+        } catch (Exception e) {
+            return PROTECTED;
+        }
+    }
+
+    // Abre o documento e deixa os valores em texto puro na própria entidade (para resposta da API)
+    public void decryptInPlace(Transaction transaction, SecretKey key) throws Exception {
+        decryptInPlace(transaction, key, TransactionField.ALL);
+    }
+
+    public void decryptInPlace(Transaction transaction, SecretKey key, Set<TransactionField> fields) throws Exception {
+        reveal(transaction, open(transaction, key, fields));
+    }
+
+    // Coloca valores já conhecidos em texto puro na entidade; ela não deve mais ser salva depois disso
+    public void reveal(Transaction transaction, TransactionPayload payload) {
+        transaction.setDescription(payload.description());
+        transaction.setAmount(payload.amount());
+        transaction.setType(payload.type());
+        transaction.setPayload(null);
+        transaction.setSearchTokens(null);
+    }
+
+    private String openLegacyField(String value, SecretKey key) throws Exception {
+        // O dado criptografado SEMPRE contém ":" separando IV do conteúdo.
+        // Dados antigos (plain text) não têm ":", então são mantidos como estão.
+        if (value != null && value.contains(":")) {
+            return dataCrypto.decryptWithUserKey(value, key);
+        }
+        return value;
+    }
+
+    private static byte[] aad(Transaction transaction) {
+        return transaction.getId().getBytes(StandardCharsets.UTF_8);
+    }
+}
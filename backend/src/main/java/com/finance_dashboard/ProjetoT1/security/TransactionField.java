@@ -0,0 +1,16 @@
+package com.finance_dashboard.ProjetoT1.security;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+// Campos sensíveis que um chamador pode pedir para descriptografar
+public enum TransactionField {
+    DESCRIPTION,
+    AMOUNT,
+    TYPE;
+
+    public static final Set<TransactionField> ALL = EnumSet.allOf(TransactionField.class);
+
+    // Suficiente para qualquer agregação (totais por tipo/categoria)
+    public static final Set<TransactionField> AMOUNT_AND_TYPE = EnumSet.of(AMOUNT, TYPE);
+}
@@ -0,0 +1,9 @@
+package com.finance_dashboard.ProjetoT1.security;
+
+// Campos sensíveis de uma transação, já em texto puro
+public record TransactionPayload(
+        String description,
+        String amount,
+        String type
+) {
+}
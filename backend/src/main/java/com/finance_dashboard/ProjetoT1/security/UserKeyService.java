@@ -1,20 +1,187 @@
 package com.finance_dashboard.ProjetoT1.security;
 
 import com.finance_dashboard.ProjetoT1.model.User;
+import com.finance_dashboard.ProjetoT1.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+// Contadores do cache publicados por JMX (spring.jmx.enabled)
 @Service
+@ManagedResource(objectName = "ProjetoT1:type=UserKeyCache")
 public class UserKeyService {
     @Autowired
     private CryptoUtils cryptoUtils;
 
-    public String getUserKey(User user) throws Exception {
-        if (user.getEncryptedUserKey() == null) {
-            // Você pode lançar uma exceção personalizada ou retornar null
-            // Dependendo de como o Clarus lida com novos usuários
-            throw new IllegalStateException("Usuário não possui chave de criptografia configurada.");
+    @Autowired
+    private UserRepository userRepository;
+
+    // Cache LRU (por e-mail) das chaves já desembrulhadas pela Master Key.
+    // Guarda os bytes crus da chave, nunca a String hexadecimal.
+    private final Map<String, CachedKey> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private final int maxEntries;
+    private final long idleTtlNanos;
+
+    public UserKeyService(
+            @Value("${app.crypto.key-cache.max-entries:1000}") int maxEntries,
+            @Value("${app.crypto.key-cache.idle-ttl:PT15M}") Duration idleTtl
+    ) {
+        this.maxEntries = maxEntries;
+        this.idleTtlNanos = idleTtl.toNanos();
+    }
+
+    // Resolve a chave pelo e-mail sem consultar o banco quando ela já está em cache.
+    // Optional vazio = usuário legado sem chave (dados em texto puro).
+    public Optional<byte[]> findUserKeyBytes(String email) throws Exception {
+        CachedKey cached = lookup(email);
+
+        if (cached != null) {
+            hits.increment();
+            return Optional.ofNullable(cached.key);
+        }
+
+        misses.increment();
+
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+
+        return Optional.ofNullable(load(user).key);
+    }
+
+    // Mesma resolução, já como SecretKey pronta para o CryptoEngine (parse feito uma vez por requisição)
+    public Optional<SecretKey> findUserSecretKey(String email) throws Exception {
+        Optional<byte[]> raw = findUserKeyBytes(email);
+        if (raw.isEmpty()) {
+            return Optional.empty();
+        }
+
+        byte[] keyBytes = raw.get();
+        try {
+            return Optional.of(CryptoEngine.aesKey(keyBytes));
+        } finally {
+            // SecretKeySpec guarda a própria cópia
+            Arrays.fill(keyBytes, (byte) 0);
+        }
+    }
+
+    // Deve ser chamado sempre que User.encryptedUserKey for alterado
+    public void invalidate(String email) {
+        synchronized (cache) {
+            CachedKey removed = cache.remove(email);
+            if (removed != null) {
+                removed.wipe();
+            }
+        }
+    }
+
+    @ManagedAttribute(description = "Chaves servidas do cache")
+    public long getCacheHits() {
+        return hits.sum();
+    }
+
+    @ManagedAttribute(description = "Chaves desembrulhadas pela Master Key")
+    public long getCacheMisses() {
+        return misses.sum();
+    }
+
+    @ManagedAttribute(description = "Chaves em cache")
+    public int getCacheSize() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private CachedKey lookup(String email) {
+        long now = System.nanoTime();
+
+        synchronized (cache) {
+            CachedKey cached = cache.get(email);
+
+            if (cached == null) {
+                return null;
+            }
+
+            if (now - cached.lastAccess > idleTtlNanos) {
+                cache.remove(email);
+                cached.wipe();
+                return null;
+            }
+
+            cached.lastAccess = now;
+            return cached.copy();
+        }
+    }
+
+    private CachedKey load(User user) throws Exception {
+        byte[] key = null;
+
+        if (user.getEncryptedUserKey() != null) {
+            key = CryptoEngine.hexToBytes(cryptoUtils.decrypt(user.getEncryptedUserKey()));
+        }
+
+        CachedKey loaded = new CachedKey(key, System.nanoTime());
+
+        synchronized (cache) {
+            CachedKey previous = cache.put(user.getEmail(), loaded);
+            if (previous != null) {
+                previous.wipe();
+            }
+            evictExpiredAndOverflow(loaded.lastAccess);
+            return loaded.copy();
+        }
+    }
+
+    // Chamado com o lock do cache: remove entradas ociosas e, depois, as menos usadas
+    private void evictExpiredAndOverflow(long now) {
+        Iterator<CachedKey> it = cache.values().iterator();
+        int size = cache.size();
+
+        while (it.hasNext()) {
+            CachedKey entry = it.next();
+            if (size > maxEntries || now - entry.lastAccess > idleTtlNanos) {
+                it.remove();
+                entry.wipe();
+                size--;
+            } else {
+                // Ordem de acesso: a partir daqui todas as entradas são mais recentes
+                break;
+            }
+        }
+    }
+
+    private static final class CachedKey {
+        private final byte[] key;
+        private long lastAccess;
+
+        private CachedKey(byte[] key, long lastAccess) {
+            this.key = key;
+            this.lastAccess = lastAccess;
+        }
+
+        // Cópia entregue aos chamadores, para que a evicção nunca zere uma chave em uso
+        private CachedKey copy() {
+            return new CachedKey(key == null ? null : key.clone(), lastAccess);
+        }
+
+        private void wipe() {
+            if (key != null) {
+                Arrays.fill(key, (byte) 0);
+            }
         }
-        return cryptoUtils.decrypt(user.getEncryptedUserKey());
     }
 }
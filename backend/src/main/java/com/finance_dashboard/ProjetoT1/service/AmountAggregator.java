@@ -0,0 +1,278 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+import com.finance_dashboard.ProjetoT1.model.TransactionType;
+import com.finance_dashboard.ProjetoT1.service.BalanceSnapshotService.Totals;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Kernel de agregação compartilhado pelos resumos: o valor em texto é lido direto para long em
+// unidades de 10^-4, o tipo vira um byte e cada chave (categoria, mês...) um índice denso em arrays
+// primitivos. BigDecimal só aparece no resultado final ou em valores fora do caminho rápido
+// (mais de 4 casas decimais, notação científica, somas que estourariam o long).
+// A escala de cada total é a maior escala somada nele, igual à soma com BigDecimal.add.
+// Não é thread-safe: uma instância por agregação.
+public final class AmountAggregator {
+
+    public static final byte EXPENSE = 0;
+    public static final byte INCOME = 1;
+
+    private static final int MINOR_SCALE = 4;
+    private static final long[] POW10 = {1L, 10L, 100L, 1_000L, 10_000L};
+    private static final long NOT_FAST = Long.MIN_VALUE;
+
+    private final Map<String, Integer> slots = new HashMap<>();
+
+    private String[] keys;
+    private long[] income;
+    private long[] expense;
+
+    // Acumuladores lentos, criados só se algum valor sair do caminho rápido
+    private BigDecimal[] incomeSlow;
+    private BigDecimal[] expenseSlow;
+
+    // Maior escala somada em cada slot, para devolver o mesmo BigDecimal que a soma direta devolveria
+    private int[] incomeScale;
+    private int[] expenseScale;
+
+    private int size;
+
+    // Escala (casas decimais) do último valor lido por parseMinor
+    private int lastScale;
+
+    // Última chave usada: linhas seguidas da mesma categoria não consultam o mapa
+    private String lastKey;
+    private int lastSlot = -1;
+
+    public AmountAggregator() {
+        this(16);
+    }
+
+    public AmountAggregator(int expectedKeys) {
+        int capacity = Math.max(4, expectedKeys);
+        keys = new String[capacity];
+        income = new long[capacity];
+        expense = new long[capacity];
+        incomeScale = new int[capacity];
+        expenseScale = new int[capacity];
+    }
+
+    // Slots 0..count-1 já reservados e sem chave (ex.: um por bucket de uma série temporal)
+    public static AmountAggregator dense(int count) {
+        AmountAggregator aggregator = new AmountAggregator(count);
+        aggregator.size = count;
+        return aggregator;
+    }
+
+    public static byte typeOf(String type) {
+        return TransactionType.INCOME.name().equals(type) ? INCOME : EXPENSE;
+    }
+
+    public void add(String key, String amount, String type) {
+        addToSlot(slot(key), amount, typeOf(type));
+    }
+
+    public void add(String key, String amount, byte type) {
+        addToSlot(slot(key), amount, type);
+    }
+
+    public int slot(String key) {
+        if (lastSlot >= 0 && (key == null ? lastKey == null : key.equals(lastKey))) {
+            return lastSlot;
+        }
+
+        Integer existing = slots.get(key);
+        int slot;
+        if (existing != null) {
+            slot = existing;
+        } else {
+            slot = size++;
+            if (slot == keys.length) {
+                grow();
+            }
+            keys[slot] = key;
+            slots.put(key, slot);
+        }
+
+        lastKey = key;
+        lastSlot = slot;
+        return slot;
+    }
+
+    public void addToSlot(int slot, String amount, byte type) {
+        if (amount == null || amount.isEmpty()) {
+            return;
+        }
+
+        long minor = parseMinor(amount);
+
+        if (minor == NOT_FAST) {
+            addSlow(slot, new BigDecimal(amount), type);
+            return;
+        }
+
+        int[] scales = type == INCOME ? incomeScale : expenseScale;
+        scales[slot] = Math.max(scales[slot], lastScale);
+        long[] target = type == INCOME ? income : expense;
+
+        try {
+            target[slot] = Math.addExact(target[slot], minor);
+        } catch (ArithmeticException e) {
+            // Transborda a soma acumulada para o acumulador lento e recomeça o long do zero
+            spill(slot, BigDecimal.valueOf(target[slot], MINOR_SCALE), type);
+            target[slot] = minor;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Map<String, Totals> toTotals() {
+        Map<String, Totals> totals = new LinkedHashMap<>();
+        for (int slot = 0; slot < size; slot++) {
+            totals.put(keys[slot], totalsOf(slot));
+        }
+        return totals;
+    }
+
+    // Soma de todas as chaves
+    public Totals total() {
+        return new Totals(
+                sum(income, incomeSlow, incomeScale),
+                sum(expense, expenseSlow, expenseScale)
+        );
+    }
+
+    public Totals totalsOf(int slot) {
+        return new Totals(
+                finish(income[slot], incomeSlow == null ? null : incomeSlow[slot], incomeScale[slot]),
+                finish(expense[slot], expenseSlow == null ? null : expenseSlow[slot], expenseScale[slot])
+        );
+    }
+
+    private BigDecimal sum(long[] fast, BigDecimal[] slow, int[] scales) {
+        long minor = 0;
+        BigDecimal extra = null;
+        int scale = 0;
+
+        for (int slot = 0; slot < size; slot++) {
+            try {
+                minor = Math.addExact(minor, fast[slot]);
+            } catch (ArithmeticException e) {
+                BigDecimal spilled = BigDecimal.valueOf(minor, MINOR_SCALE);
+                extra = extra == null ? spilled : extra.add(spilled);
+                minor = fast[slot];
+            }
+            if (slow != null && slow[slot] != null) {
+                extra = extra == null ? slow[slot] : extra.add(slow[slot]);
+            }
+            scale = Math.max(scale, scales[slot]);
+        }
+
+        return finish(minor, extra, scale);
+    }
+
+    private static BigDecimal finish(long minor, BigDecimal slow, int scale) {
+        BigDecimal value = BigDecimal.valueOf(minor, MINOR_SCALE);
+        if (slow != null) {
+            value = value.add(slow);
+        }
+
+        // Exato: nenhuma parcela tinha mais casas do que "scale"
+        return value.setScale(scale, RoundingMode.UNNECESSARY);
+    }
+
+    private void addSlow(int slot, BigDecimal value, byte type) {
+        spill(slot, value, type);
+
+        int[] scales = type == INCOME ? incomeScale : expenseScale;
+        scales[slot] = Math.max(scales[slot], value.scale());
+    }
+
+    // Soma no acumulador lento sem mexer na escala (a soma transbordada tem escala fixa 4)
+    private void spill(int slot, BigDecimal value, byte type) {
+        if (incomeSlow == null) {
+            incomeSlow = new BigDecimal[keys.length];
+            expenseSlow = new BigDecimal[keys.length];
+        }
+
+        BigDecimal[] target = type == INCOME ? incomeSlow : expenseSlow;
+        target[slot] = target[slot] == null ? value : target[slot].add(value);
+    }
+
+    // "[-]123[.4567]" em unidades de 10^-4, sem alocar; NOT_FAST para qualquer outra forma
+    private long parseMinor(String text) {
+        int length = text.length();
+        int i = 0;
+        boolean negative = false;
+
+        char first = text.charAt(0);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i = 1;
+        }
+
+        if (i == length) {
+            return NOT_FAST;
+        }
+
+        long value = 0;
+        int integerDigits = 0;
+        int fractionDigits = -1;
+
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+
+            if (c == '.') {
+                if (fractionDigits >= 0) {
+                    return NOT_FAST;
+                }
+                fractionDigits = 0;
+                continue;
+            }
+
+            if (c < '0' || c > '9') {
+                return NOT_FAST;
+            }
+
+            if (fractionDigits >= 0) {
+                if (++fractionDigits > MINOR_SCALE) {
+                    return NOT_FAST;
+                }
+            } else if (++integerDigits > 14) {
+                return NOT_FAST;
+            }
+
+            value = value * 10 + (c - '0');
+        }
+
+        // Sem nenhum dígito ("." ou "-."): deixa o BigDecimal rejeitar
+        if (integerDigits == 0 && fractionDigits <= 0) {
+            return NOT_FAST;
+        }
+
+        int digits = Math.max(fractionDigits, 0);
+        lastScale = digits;
+        value *= POW10[MINOR_SCALE - digits];
+
+        return negative ? -value : value;
+    }
+
+    private void grow() {
+        int capacity = keys.length * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        income = Arrays.copyOf(income, capacity);
+        expense = Arrays.copyOf(expense, capacity);
+        incomeScale = Arrays.copyOf(incomeScale, capacity);
+        expenseScale = Arrays.copyOf(expenseScale, capacity);
+        if (incomeSlow != null) {
+            incomeSlow = Arrays.copyOf(incomeSlow, capacity);
+            expenseSlow = Arrays.copyOf(expenseSlow, capacity);
+        }
+    }
+}
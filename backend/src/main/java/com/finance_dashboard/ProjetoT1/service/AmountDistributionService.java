@@ -0,0 +1,430 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+import com.finance_dashboard.ProjetoT1.dto.DistributionDTO;
+import com.finance_dashboard.ProjetoT1.model.AmountDistribution;
+import com.finance_dashboard.ProjetoT1.model.AmountDistributionState;
+import com.finance_dashboard.ProjetoT1.model.Transaction;
+import com.finance_dashboard.ProjetoT1.model.TransactionType;
+import com.finance_dashboard.ProjetoT1.repository.AmountDistributionRepository;
+import com.finance_dashboard.ProjetoT1.repository.AmountDistributionStateRepository;
+import com.finance_dashboard.ProjetoT1.repository.TransactionRepository;
+import com.finance_dashboard.ProjetoT1.security.CryptoEngine;
+import com.finance_dashboard.ProjetoT1.security.TransactionCipher;
+import com.finance_dashboard.ProjetoT1.security.TransactionField;
+import com.finance_dashboard.ProjetoT1.security.TransactionPayload;
+import com.finance_dashboard.ProjetoT1.security.UserKeyService;
+import com.finance_dashboard.ProjetoT1.service.CategoryCatalog.CategoryRef;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.Consumer;
+
+// Percentis de valores por categoria ("gasto típico" x "fora do comum") sem ordenar transações:
+// um QuantileSketch de despesas e um de receitas por mês (UTC) e categoria, num documento cifrado
+// ajustado a cada escrita. Um intervalo de meses é a junção dos sketches dos meses.
+// Mesmo ciclo de vida dos rollups: construído na primeira leitura, reconstruído se um ajuste falhar,
+// e a reconstrução não é gravada se concorrer com escritas (ver WriteGenerationService).
+@Service
+public class AmountDistributionService implements TransactionWriteListener {
+
+    private static final int MAX_RETRIES = 5;
+
+    private final AmountDistributionRepository distributionRepository;
+    private final AmountDistributionStateRepository stateRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionCipher transactionCipher;
+    private final CryptoEngine engine;
+    private final UserKeyService userKeyService;
+    private final CategoryCatalog categoryCatalog;
+    private final WriteGenerationService writeGenerations;
+    private final int maxMonths;
+
+    public AmountDistributionService(
+            AmountDistributionRepository distributionRepository,
+            AmountDistributionStateRepository stateRepository,
+            TransactionRepository transactionRepository,
+            TransactionCipher transactionCipher,
+            CryptoEngine engine,
+            UserKeyService userKeyService,
+            CategoryCatalog categoryCatalog,
+            WriteGenerationService writeGenerations,
+            @Value("${app.transactions.distribution.max-months:120}") int maxMonths
+    ) {
+        this.distributionRepository = distributionRepository;
+        this.stateRepository = stateRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionCipher = transactionCipher;
+        this.engine = engine;
+        this.userKeyService = userKeyService;
+        this.categoryCatalog = categoryCatalog;
+        this.writeGenerations = writeGenerations;
+        this.maxMonths = maxMonths;
+    }
+
+    // Meses "from" até "to" (yyyy-MM, inclusive), por categoria (ou só "categoryId"); type padrão EXPENSE
+    public List<DistributionDTO> distribution(String userEmail, String from, String to, String categoryId, String type) {
+        YearMonth start;
+        YearMonth end;
+        try {
+            start = YearMonth.parse(from);
+            end = YearMonth.parse(to);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Período inválido");
+        }
+
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("Período inválido");
+        }
+        if (ChronoUnit.MONTHS.between(start, end) >= maxMonths) {
+            throw new IllegalArgumentException("Período maior que o permitido (" + maxMonths + " meses)");
+        }
+
+        TransactionType transactionType = typeOf(type);
+
+        Map<String, Sketches> byCategory;
+        try {
+            Optional<SecretKey> key = userKeyService.findUserSecretKey(userEmail);
+
+            // Usuários legados sem chave: calcula direto das transações do intervalo
+            byCategory = key.isPresent()
+                    ? merged(userEmail, key.get(), start, end)
+                    : slice(compute(rowsBetween(userEmail, start, end), null), start, end);
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao processar criptografia da distribuição", e);
+        }
+
+        if (categoryId != null) {
+            Sketches sketches = byCategory.get(categoryId);
+            byCategory = sketches == null ? Map.of() : Map.of(categoryId, sketches);
+        }
+
+        Map<String, CategoryRef> categories = categoryCatalog.resolve(byCategory.keySet());
+
+        List<DistributionDTO> result = new ArrayList<>();
+        for (Map.Entry<String, Sketches> entry : byCategory.entrySet()) {
+            QuantileSketch sketch = entry.getValue().of(transactionType);
+            if (sketch.isEmpty()) {
+                continue;
+            }
+
+            CategoryRef category = categories.get(entry.getKey());
+            result.add(new DistributionDTO(
+                    entry.getKey(),
+                    category == null ? "Sem categoria" : category.name(),
+                    transactionType.name(),
+                    sketch.getCount(),
+                    sketch.quantile(0),
+                    sketch.quantile(0.5),
+                    sketch.quantile(0.9),
+                    sketch.quantile(0.99),
+                    sketch.quantile(1),
+                    QuantileSketch.RELATIVE_ERROR
+            ));
+        }
+
+        result.sort(Comparator.comparingLong(DistributionDTO::getCount).reversed());
+        return result;
+    }
+
+    // Recalcula todas as distribuições do usuário. Retorna os sketches indexados por mês e categoria
+    public Map<String, Map<String, Sketches>> rebuild(String userEmail, SecretKey key) throws Exception {
+        OptionalLong generation = writeGenerations.stable(userEmail);
+        Map<String, Map<String, Sketches>> byMonth =
+                compute(transactionRepository.findSummaryRowsByUserEmail(userEmail), key);
+
+        // Escrita em andamento: ela pode ou não estar nas linhas lidas
+        if (generation.isEmpty()) {
+            return byMonth;
+        }
+
+        try {
+            stateRepository.deleteById(userEmail);
+            distributionRepository.deleteByUserEmail(userEmail);
+
+            List<AmountDistribution> distributions = new ArrayList<>();
+            for (Map.Entry<String, Map<String, Sketches>> month : byMonth.entrySet()) {
+                for (Map.Entry<String, Sketches> category : month.getValue().entrySet()) {
+                    AmountDistribution distribution = new AmountDistribution(userEmail, month.getKey(), category.getKey());
+                    seal(distribution, category.getValue(), key);
+                    distributions.add(distribution);
+                }
+            }
+
+            distributionRepository.saveAll(distributions);
+            stateRepository.save(new AmountDistributionState(userEmail, Instant.now()));
+
+            // Uma escrita começou no meio: o ajuste dela pode ter sido apagado ou ignorado
+            if (!writeGenerations.unchanged(userEmail, generation.getAsLong())) {
+                invalidate(userEmail);
+            }
+        } catch (DataAccessException e) {
+            // Reconstrução concorrente; o valor calculado continua válido para esta resposta
+        }
+
+        return byMonth;
+    }
+
+    public void invalidate(String userEmail) {
+        stateRepository.deleteById(userEmail);
+    }
+
+    @Override
+    public void discard(String userEmail) {
+        invalidate(userEmail);
+    }
+
+    @Override
+    public void onChange(TransactionChange change) {
+        // Usuários legados sem chave continuam calculando direto das transações
+        if (change.key() == null) {
+            return;
+        }
+
+        // Ainda não construído: a próxima reconstrução gravada já inclui esta escrita
+        if (!stateRepository.existsById(change.userEmail())) {
+            return;
+        }
+
+        TransactionValues before = change.before();
+        TransactionValues after = change.after();
+
+        boolean applied = true;
+
+        if (before != null && after != null
+                && monthOf(before.date()).equals(monthOf(after.date()))
+                && Objects.equals(before.categoryId(), after.categoryId())) {
+            // Mesmo mês e categoria: um único ajuste
+            applied = apply(change.userEmail(), change.key(), monthOf(after.date()), after.categoryId(), sketches -> {
+                sketches.remove(before);
+                sketches.add(after);
+            });
+        } else {
+            if (before != null) {
+                applied = apply(change.userEmail(), change.key(), monthOf(before.date()), before.categoryId(),
+                        sketches -> sketches.remove(before));
+            }
+            if (applied && after != null) {
+                applied = apply(change.userEmail(), change.key(), monthOf(after.date()), after.categoryId(),
+                        sketches -> sketches.add(after));
+            }
+        }
+
+        if (!applied) {
+            invalidate(change.userEmail());
+        }
+    }
+
+    // Importações/lotes: um ajuste por mês/categoria afetado, não por transação
+    @Override
+    public void onBulkInsert(String userEmail, SecretKey key, List<TransactionValues> inserted) {
+        if (key == null || !stateRepository.existsById(userEmail)) {
+            return;
+        }
+
+        Map<String, Map<String, Sketches>> byMonth = new HashMap<>();
+        for (TransactionValues values : inserted) {
+            byMonth.computeIfAbsent(monthOf(values.date()), m -> new HashMap<>())
+                    .computeIfAbsent(values.categoryId(), c -> new Sketches())
+                    .add(values);
+        }
+
+        for (Map.Entry<String, Map<String, Sketches>> month : byMonth.entrySet()) {
+            for (Map.Entry<String, Sketches> category : month.getValue().entrySet()) {
+                Sketches delta = category.getValue();
+
+                if (!apply(userEmail, key, month.getKey(), category.getKey(), sketches -> sketches.merge(delta))) {
+                    invalidate(userEmail);
+                    return;
+                }
+            }
+        }
+    }
+
+    private Map<String, Sketches> merged(String userEmail, SecretKey key, YearMonth from, YearMonth to) throws Exception {
+        if (!stateRepository.existsById(userEmail)) {
+            return slice(rebuild(userEmail, key), from, to);
+        }
+
+        List<AmountDistribution> distributions = distributionRepository
+                .findByUserEmailAndMonthRange(userEmail, from.toString(), to.toString());
+
+        Map<String, Sketches> byCategory = new HashMap<>();
+        try {
+            for (AmountDistribution distribution : distributions) {
+                byCategory.computeIfAbsent(distribution.getCategoryId(), c -> new Sketches())
+                        .merge(read(distribution, key));
+            }
+        } catch (Exception e) {
+            // Alguma distribuição ilegível: recalcula tudo a partir das transações
+            return slice(rebuild(userEmail, key), from, to);
+        }
+
+        return byCategory;
+    }
+
+    private Map<String, Map<String, Sketches>> compute(List<Transaction> rows, SecretKey key) {
+        Map<String, Map<String, Sketches>> byMonth = new HashMap<>();
+
+        for (Transaction row : rows) {
+            TransactionPayload payload = transactionCipher.openOrProtected(row, key, TransactionField.AMOUNT_AND_TYPE);
+
+            // Linhas ilegíveis ficam de fora em vez de entrar como zero
+            if (payload == TransactionCipher.PROTECTED) {
+                continue;
+            }
+
+            byMonth.computeIfAbsent(monthOf(row.getDate()), m -> new HashMap<>())
+                    .computeIfAbsent(row.getCategoryId(), c -> new Sketches())
+                    .add(TransactionValues.of(row, payload));
+        }
+
+        return byMonth;
+    }
+
+    private List<Transaction> rowsBetween(String userEmail, YearMonth from, YearMonth to) {
+        return transactionRepository.findSummaryRowsByUserEmailAndDateFromInclusive(
+                userEmail,
+                from.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant(),
+                to.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant()
+        );
+    }
+
+    private boolean apply(
+            String userEmail,
+            SecretKey key,
+            String month,
+            String categoryId,
+            Consumer<Sketches> change
+    ) {
+        String id = AmountDistribution.idOf(userEmail, month, categoryId);
+
+        for (int attempt = 0; attempt < MAX_RETRIES; attempt++) {
+            Optional<AmountDistribution> current = distributionRepository.findById(id);
+
+            try {
+                AmountDistribution distribution = current
+                        .orElseGet(() -> new AmountDistribution(userEmail, month, categoryId));
+                Sketches sketches = current.isPresent() ? read(distribution, key) : new Sketches();
+
+                change.accept(sketches);
+                seal(distribution, sketches, key);
+                distributionRepository.save(distribution);
+                return true;
+            } catch (OptimisticLockingFailureException | DuplicateKeyException e) {
+                // Escrita concorrente na mesma distribuição: relê e tenta de novo
+            } catch (Exception e) {
+                return false;
+            }
+        }
+
+        return false;
+    }
+
+    // Quatro linhas: despesas (zeros, faixas) e receitas (zeros, faixas)
+    private Sketches read(AmountDistribution distribution, SecretKey key) throws Exception {
+        String plain = new String(
+                engine.open(distribution.getSketches(), key, aad(distribution.getId())),
+                StandardCharsets.UTF_8
+        );
+
+        String[] lines = plain.split("\n", -1);
+        return new Sketches(QuantileSketch.parse(lines[0], lines[1]), QuantileSketch.parse(lines[2], lines[3]));
+    }
+
+    private void seal(AmountDistribution distribution, Sketches sketches, SecretKey key) throws Exception {
+        String plain = sketches.expense.serialize() + '\n' + sketches.income.serialize();
+
+        distribution.setSketches(engine.seal(plain.getBytes(StandardCharsets.UTF_8), key, aad(distribution.getId())));
+        distribution.setUpdatedAt(Instant.now());
+    }
+
+    private static Map<String, Sketches> slice(Map<String, Map<String, Sketches>> byMonth, YearMonth from, YearMonth to) {
+        Map<String, Sketches> byCategory = new HashMap<>();
+
+        for (Map.Entry<String, Map<String, Sketches>> month : byMonth.entrySet()) {
+            YearMonth yearMonth = YearMonth.parse(month.getKey());
+            if (yearMonth.isBefore(from) || yearMonth.isAfter(to)) {
+                continue;
+            }
+            merge(byCategory, month.getValue());
+        }
+
+        return byCategory;
+    }
+
+    private static void merge(Map<String, Sketches> into, Map<String, Sketches> from) {
+        from.forEach((categoryId, sketches) -> into.computeIfAbsent(categoryId, c -> new Sketches()).merge(sketches));
+    }
+
+    private static TransactionType typeOf(String type) {
+        if (type == null || type.isBlank()) {
+            return TransactionType.EXPENSE;
+        }
+
+        try {
+            return TransactionType.valueOf(type.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Tipo inválido: use INCOME ou EXPENSE");
+        }
+    }
+
+    private static String monthOf(Instant date) {
+        return CategoryRollupService.monthOf(date);
+    }
+
+    private static byte[] aad(String distributionId) {
+        return ("amount_distribution:" + distributionId).getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Despesas e receitas de uma categoria no mês (ou no intervalo, depois da junção)
+    public static final class Sketches {
+
+        private final QuantileSketch expense;
+        private final QuantileSketch income;
+
+        Sketches() {
+            this(new QuantileSketch(), new QuantileSketch());
+        }
+
+        private Sketches(QuantileSketch expense, QuantileSketch income) {
+            this.expense = expense;
+            this.income = income;
+        }
+
+        QuantileSketch of(TransactionType type) {
+            return type == TransactionType.INCOME ? income : expense;
+        }
+
+        void add(TransactionValues values) {
+            of(values.type()).add(values.amount());
+        }
+
+        void remove(TransactionValues values) {
+            of(values.type()).remove(values.amount());
+        }
+
+        void merge(Sketches other) {
+            expense.merge(other.expense);
+            income.merge(other.income);
+        }
+    }
+}
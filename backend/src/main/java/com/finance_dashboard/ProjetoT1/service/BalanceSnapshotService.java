@@ -0,0 +1,237 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+import com.finance_dashboard.ProjetoT1.model.Transaction;
+import com.finance_dashboard.ProjetoT1.model.User;
+import com.finance_dashboard.ProjetoT1.model.UserSummary;
+import com.finance_dashboard.ProjetoT1.repository.TransactionRepository;
+import com.finance_dashboard.ProjetoT1.repository.UserRepository;
+import com.finance_dashboard.ProjetoT1.repository.UserSummaryRepository;
+import com.finance_dashboard.ProjetoT1.security.CryptoEngine;
+import com.finance_dashboard.ProjetoT1.security.TransactionCipher;
+import com.finance_dashboard.ProjetoT1.security.TransactionField;
+import com.finance_dashboard.ProjetoT1.security.TransactionPayload;
+import com.finance_dashboard.ProjetoT1.security.UserKeyService;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.UnaryOperator;
+
+// Saldo do usuário em O(1): um documento cifrado por usuário com os totais de receitas e despesas,
+// ajustado a cada escrita com (valor, tipo) antigos e novos. Se o documento não existe, estiver
+// ilegível ou uma atualização falhar, ele é descartado e reconstruído na próxima leitura.
+// A reconstrução é descartada se concorrer com uma escrita, que poderia ficar fora dos totais.
+// Se a escrita cair entre o save e o ajuste, o resumo é descartado pela recuperação de escritas
+// interrompidas (ver TransactionWritePublisher.recoverAbandoned).
+@Service
+public class BalanceSnapshotService implements TransactionWriteListener {
+
+    private static final int MAX_RETRIES = 5;
+
+    private final UserSummaryRepository summaryRepository;
+    private final TransactionRepository transactionRepository;
+    private final UserRepository userRepository;
+    private final UserKeyService userKeyService;
+    private final TransactionCipher transactionCipher;
+    private final CryptoEngine engine;
+    private final WriteGenerationService writeGenerations;
+
+    public BalanceSnapshotService(
+            UserSummaryRepository summaryRepository,
+            TransactionRepository transactionRepository,
+            UserRepository userRepository,
+            UserKeyService userKeyService,
+            TransactionCipher transactionCipher,
+            CryptoEngine engine,
+            WriteGenerationService writeGenerations
+    ) {
+        this.summaryRepository = summaryRepository;
+        this.transactionRepository = transactionRepository;
+        this.userRepository = userRepository;
+        this.userKeyService = userKeyService;
+        this.transactionCipher = transactionCipher;
+        this.engine = engine;
+        this.writeGenerations = writeGenerations;
+    }
+
+    public Totals getTotals(String userEmail, SecretKey key) throws Exception {
+        Optional<UserSummary> summary = summaryRepository.findById(userEmail);
+
+        if (summary.isPresent()) {
+            try {
+                return readTotals(summary.get(), key);
+            } catch (Exception e) {
+                // Documento ilegível: cai na reconstrução abaixo
+            }
+        }
+
+        return rebuild(userEmail, key);
+    }
+
+    // Recalcula a partir das transações (inclusive linhas legadas em texto puro ou CBC).
+    // O resultado só é gravado se nenhuma escrita concorrer com a leitura (ver WriteGenerationService)
+    public Totals rebuild(String userEmail, SecretKey key) throws Exception {
+        OptionalLong generation = writeGenerations.stable(userEmail);
+        List<Transaction> rows = transactionRepository.findSummaryRowsByUserEmail(userEmail);
+
+        AmountAggregator aggregator = new AmountAggregator(1);
+        for (Transaction row : rows) {
+            TransactionPayload payload = transactionCipher.openOrProtected(row, key, TransactionField.AMOUNT_AND_TYPE);
+            aggregator.add(null, payload.amount(), payload.type());
+        }
+
+        Totals totals = aggregator.total();
+
+        // Escrita em andamento: ela pode ou não estar nas linhas lidas
+        if (generation.isEmpty()) {
+            return totals;
+        }
+
+        UserSummary summary = summaryRepository.findById(userEmail)
+                .orElseGet(() -> new UserSummary(userEmail));
+
+        try {
+            save(summary, totals, key);
+
+            // Uma escrita começou durante a reconstrução e pode ter ajustado o resumo anterior
+            if (!writeGenerations.unchanged(userEmail, generation.getAsLong())) {
+                summaryRepository.deleteById(userEmail);
+            }
+        } catch (DataAccessException e) {
+            // Outra requisição gravou no meio tempo; o valor calculado continua válido para esta resposta
+        }
+
+        return totals;
+    }
+
+    // Rotina de reconciliação para usuários existentes (ver SummaryReconciler)
+    public void reconcileAll() {
+        for (User user : userRepository.findAll()) {
+            if (user.getEncryptedUserKey() == null) {
+                continue;
+            }
+
+            try {
+                Optional<SecretKey> key = userKeyService.findUserSecretKey(user.getEmail());
+                if (key.isPresent()) {
+                    rebuild(user.getEmail(), key.get());
+                }
+            } catch (Exception e) {
+                System.err.println("Aviso: Falha ao reconstruir o resumo de " + user.getEmail());
+            }
+        }
+    }
+
+    @Override
+    public void onChange(TransactionChange change) {
+        adjust(change.userEmail(), change.key(), totals -> totals.minus(change.before()).plus(change.after()));
+    }
+
+    // Importações/lotes: soma tudo antes e grava o resumo uma única vez
+    @Override
+    public void onBulkInsert(String userEmail, SecretKey key, List<TransactionValues> inserted) {
+        Totals added = Totals.ZERO;
+        for (TransactionValues values : inserted) {
+            added = added.plus(values);
+        }
+
+        Totals delta = added;
+        adjust(userEmail, key, totals -> totals.plus(delta));
+    }
+
+    @Override
+    public void discard(String userEmail) {
+        summaryRepository.deleteById(userEmail);
+    }
+
+    private void adjust(String userEmail, SecretKey key, UnaryOperator<Totals> change) {
+        // Usuários legados sem chave continuam somando direto das transações
+        if (key == null) {
+            return;
+        }
+
+        for (int attempt = 0; attempt < MAX_RETRIES; attempt++) {
+            Optional<UserSummary> current = summaryRepository.findById(userEmail);
+
+            // Ainda não existe: a próxima reconstrução lê esta escrita (só grava sem escritas em andamento)
+            if (current.isEmpty()) {
+                return;
+            }
+
+            try {
+                save(current.get(), change.apply(readTotals(current.get(), key)), key);
+                return;
+            } catch (OptimisticLockingFailureException e) {
+                // Escrita concorrente no mesmo resumo: relê e tenta de novo
+            } catch (Exception e) {
+                break;
+            }
+        }
+
+        summaryRepository.deleteById(userEmail);
+    }
+
+    private Totals readTotals(UserSummary summary, SecretKey key) throws Exception {
+        String plain = new String(
+                engine.open(summary.getTotals(), key, aad(summary.getUserEmail())),
+                StandardCharsets.UTF_8
+        );
+
+        int separator = plain.indexOf('\n');
+        return new Totals(
+                new BigDecimal(plain.substring(0, separator)),
+                new BigDecimal(plain.substring(separator + 1))
+        );
+    }
+
+    private void save(UserSummary summary, Totals totals, SecretKey key) throws Exception {
+        String plain = totals.income().toPlainString() + '\n' + totals.expense().toPlainString();
+
+        summary.setTotals(engine.seal(plain.getBytes(StandardCharsets.UTF_8), key, aad(summary.getUserEmail())));
+        summary.setUpdatedAt(Instant.now());
+
+        summaryRepository.save(summary);
+    }
+
+    private static byte[] aad(String userEmail) {
+        return ("user_summary:" + userEmail).getBytes(StandardCharsets.UTF_8);
+    }
+
+    public record Totals(BigDecimal income, BigDecimal expense) {
+
+        public static final Totals ZERO = new Totals(BigDecimal.ZERO, BigDecimal.ZERO);
+
+        public BigDecimal balance() {
+            return income.subtract(expense);
+        }
+
+        public Totals plus(TransactionValues values) {
+            if (values == null) {
+                return this;
+            }
+            return values.isIncome()
+                    ? new Totals(income.add(values.amount()), expense)
+                    : new Totals(income, expense.add(values.amount()));
+        }
+
+        public Totals plus(Totals other) {
+            return new Totals(income.add(other.income), expense.add(other.expense));
+        }
+
+        public Totals minus(TransactionValues values) {
+            if (values == null) {
+                return this;
+            }
+            return values.isIncome()
+                    ? new Totals(income.subtract(values.amount()), expense)
+                    : new Totals(income, expense.subtract(values.amount()));
+        }
+    }
+}
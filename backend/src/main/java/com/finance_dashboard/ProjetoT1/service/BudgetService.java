@@ -0,0 +1,439 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+import com.finance_dashboard.ProjetoT1.dto.BudgetRequestDTO;
+import com.finance_dashboard.ProjetoT1.dto.BudgetStatusDTO;
+import com.finance_dashboard.ProjetoT1.model.Budget;
+import com.finance_dashboard.ProjetoT1.model.BudgetSpend;
+import com.finance_dashboard.ProjetoT1.model.Transaction;
+import com.finance_dashboard.ProjetoT1.repository.BudgetRepository;
+import com.finance_dashboard.ProjetoT1.repository.BudgetSpendRepository;
+import com.finance_dashboard.ProjetoT1.repository.TransactionRepository;
+import com.finance_dashboard.ProjetoT1.security.TransactionCipher;
+import com.finance_dashboard.ProjetoT1.security.TransactionField;
+import com.finance_dashboard.ProjetoT1.security.TransactionPayload;
+import com.finance_dashboard.ProjetoT1.security.UserKeyService;
+import com.finance_dashboard.ProjetoT1.service.BalanceSnapshotService.Totals;
+import com.finance_dashboard.ProjetoT1.service.CategoryCatalog.CategoryRef;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Orçamentos mensais por categoria. O gasto do mês vem dos rollups por categoria, que já são
+// ajustados a cada escrita; este listener roda depois deles (ver @Order em CategoryRollupService),
+// lê o rollup do mês/categoria afetado e registra num BudgetSpend o momento em que a escrita cruzou
+// o percentual de aviso ou o limite. Sem um segundo contador de gasto não há semeadura que possa
+// perder escritas concorrentes. O status só lê rollups e BudgetSpend, sem gravar nada.
+// Nem o status nem as escritas agregam transações: sem rollups construídos, o status responde
+// PENDING e a reconstrução roda num thread próprio, que depois avalia os meses/categorias que
+// ficaram pendentes e avança a versão dos dados (o cliente relê o status).
+// Criar ou alterar o orçamento avalia o mês corrente; remover descarta os BudgetSpend da categoria.
+@Service
+public class BudgetService implements TransactionWriteListener {
+
+    private static final int MAX_RETRIES = 5;
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+    private static final String PENDING = "PENDING";
+
+    private final BudgetRepository budgetRepository;
+    private final BudgetSpendRepository spendRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionCipher transactionCipher;
+    private final CategoryRollupService categoryRollupService;
+    private final CategoryCatalog categoryCatalog;
+    private final UserKeyService userKeyService;
+    private final DataVersionService dataVersionService;
+    private final BigDecimal warningPercent;
+    private final Duration buildDelay;
+    private final ScheduledExecutorService builder;
+
+    // Usuários com reconstrução agendada e o que avaliar quando os rollups existirem
+    private final Set<String> building = ConcurrentHashMap.newKeySet();
+    private final Map<String, Set<MonthCategory>> pending = new ConcurrentHashMap<>();
+
+    public BudgetService(
+            BudgetRepository budgetRepository,
+            BudgetSpendRepository spendRepository,
+            TransactionRepository transactionRepository,
+            TransactionCipher transactionCipher,
+            CategoryRollupService categoryRollupService,
+            CategoryCatalog categoryCatalog,
+            UserKeyService userKeyService,
+            DataVersionService dataVersionService,
+            @Value("${app.budgets.warning-percent:80}") int warningPercent,
+            @Value("${app.budgets.rollup-build-delay:PT1S}") Duration buildDelay
+    ) {
+        this.budgetRepository = budgetRepository;
+        this.spendRepository = spendRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionCipher = transactionCipher;
+        this.categoryRollupService = categoryRollupService;
+        this.categoryCatalog = categoryCatalog;
+        this.userKeyService = userKeyService;
+        this.dataVersionService = dataVersionService;
+        this.warningPercent = BigDecimal.valueOf(warningPercent);
+        this.buildDelay = buildDelay;
+        this.builder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "budget-rollups");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public List<Budget> list(String userEmail) {
+        return budgetRepository.findByUserEmail(userEmail);
+    }
+
+    public Budget create(String userEmail, BudgetRequestDTO dto) {
+        categoryCatalog.find(dto.getCategoryId())
+                .filter(category -> category.availableTo(userEmail))
+                .orElseThrow(() -> new IllegalArgumentException("Categoria não encontrada"));
+
+        if (budgetRepository.findByUserEmailAndCategoryId(userEmail, dto.getCategoryId()).isPresent()) {
+            throw new IllegalArgumentException("Já existe um orçamento para esta categoria");
+        }
+
+        Budget saved;
+        try {
+            saved = budgetRepository.save(new Budget(userEmail, dto.getCategoryId(), dto.getMonthlyLimit()));
+        } catch (DuplicateKeyException e) {
+            throw new IllegalArgumentException("Já existe um orçamento para esta categoria");
+        }
+
+        // Algum BudgetSpend antigo (orçamento removido em outra instância) valia para outro limite
+        spendRepository.deleteByUserEmailAndCategoryId(userEmail, saved.getCategoryId());
+        evaluateCurrentMonth(userEmail, saved.getCategoryId());
+        dataVersionService.bump(userEmail);
+        return saved;
+    }
+
+    public Budget update(String userEmail, String id, BudgetRequestDTO dto) {
+        Budget budget = budgetRepository.findByIdAndUserEmail(id, userEmail)
+                .orElseThrow(() -> new RuntimeException("Orçamento não encontrado"));
+
+        if (!Objects.equals(budget.getCategoryId(), dto.getCategoryId())) {
+            throw new IllegalArgumentException("A categoria do orçamento não pode ser alterada");
+        }
+
+        budget.setMonthlyLimit(dto.getMonthlyLimit());
+        budget.setUpdatedAt(Instant.now());
+        Budget saved = budgetRepository.save(budget);
+
+        // Os avisos registrados valiam para o limite antigo
+        spendRepository.deleteByUserEmailAndCategoryId(userEmail, budget.getCategoryId());
+        evaluateCurrentMonth(userEmail, budget.getCategoryId());
+        dataVersionService.bump(userEmail);
+        return saved;
+    }
+
+    public void delete(String userEmail, String id) {
+        Budget budget = budgetRepository.findByIdAndUserEmail(id, userEmail)
+                .orElseThrow(() -> new RuntimeException("Orçamento não encontrado"));
+
+        budgetRepository.delete(budget);
+        spendRepository.deleteByUserEmailAndCategoryId(userEmail, budget.getCategoryId());
+        dataVersionService.bump(userEmail);
+    }
+
+    // Sem ano/mês: o mês corrente (UTC)
+    public List<BudgetStatusDTO> status(String userEmail, Integer year, Integer month) {
+        YearMonth yearMonth;
+        if (year == null && month == null) {
+            yearMonth = YearMonth.now(ZoneOffset.UTC);
+        } else if (year == null || month == null || month < 1 || month > 12) {
+            throw new IllegalArgumentException("Mês inválido");
+        } else {
+            yearMonth = YearMonth.of(year, month);
+        }
+
+        List<Budget> budgets = budgetRepository.findByUserEmail(userEmail);
+        if (budgets.isEmpty()) {
+            return List.of();
+        }
+
+        // Vazio: rollups ainda não construídos; nada de agregar as transações dentro do GET
+        Optional<Map<String, BigDecimal>> spent;
+        try {
+            Optional<SecretKey> key = userKeyService.findUserSecretKey(userEmail);
+
+            // Usuários legados sem chave não têm rollups: soma o mês direto das transações
+            spent = key.isPresent()
+                    ? categoryRollupService.storedTotalsByCategory(userEmail, key.get(), yearMonth, yearMonth).map(BudgetService::expenses)
+                    : Optional.of(expenses(legacyMonthTotals(userEmail, yearMonth)));
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao processar criptografia dos orçamentos", e);
+        }
+
+        if (spent.isEmpty()) {
+            requestBuild(userEmail, null);
+        }
+
+        Map<String, BudgetSpend> spends = new HashMap<>();
+        for (BudgetSpend spend : spendRepository.findByUserEmailAndMonth(userEmail, yearMonth.toString())) {
+            spends.put(spend.getCategoryId(), spend);
+        }
+
+        Map<String, CategoryRef> categories = categoryCatalog.resolve(
+                budgets.stream().map(Budget::getCategoryId).toList()
+        );
+
+        List<BudgetStatusDTO> result = new ArrayList<>(budgets.size());
+        for (Budget budget : budgets) {
+            BudgetSpend spend = spends.get(budget.getCategoryId());
+            CategoryRef category = categories.get(budget.getCategoryId());
+            BigDecimal value = spent.map(totals -> totals.getOrDefault(budget.getCategoryId(), BigDecimal.ZERO)).orElse(null);
+
+            result.add(new BudgetStatusDTO(
+                    budget.getId(),
+                    budget.getCategoryId(),
+                    category == null ? "Sem categoria" : category.name(),
+                    budget.getMonthlyLimit(),
+                    value,
+                    value == null ? null : budget.getMonthlyLimit().subtract(value),
+                    value == null ? null : value.multiply(HUNDRED).divide(budget.getMonthlyLimit(), 2, RoundingMode.HALF_UP),
+                    value == null ? PENDING : levelOf(value, budget.getMonthlyLimit()),
+                    spend == null ? null : spend.getWarnedAt(),
+                    spend == null ? null : spend.getExceededAt()
+            ));
+        }
+
+        return result;
+    }
+
+    @Override
+    public void onChange(TransactionChange change) {
+        // Usuários legados sem chave: o status soma direto das transações
+        if (change.key() == null) {
+            return;
+        }
+
+        TransactionValues before = expenseOnly(change.before());
+        TransactionValues after = expenseOnly(change.after());
+
+        Set<MonthCategory> affected = new LinkedHashSet<>();
+        if (before != null) {
+            affected.add(new MonthCategory(monthOf(before.date()), before.categoryId()));
+        }
+        if (after != null) {
+            affected.add(new MonthCategory(monthOf(after.date()), after.categoryId()));
+        }
+
+        affected.forEach(target -> evaluate(change.userEmail(), change.key(), target));
+    }
+
+    // Importações/lotes: uma avaliação por mês/categoria afetado, não por transação
+    @Override
+    public void onBulkInsert(String userEmail, SecretKey key, List<TransactionValues> inserted) {
+        if (key == null) {
+            return;
+        }
+
+        Set<MonthCategory> affected = new LinkedHashSet<>();
+        for (TransactionValues values : inserted) {
+            if (expenseOnly(values) != null) {
+                affected.add(new MonthCategory(monthOf(values.date()), values.categoryId()));
+            }
+        }
+
+        affected.forEach(target -> evaluate(userEmail, key, target));
+    }
+
+    // O gasto vem dos rollups (descartados pelo CategoryRollupService); os BudgetSpend só guardam
+    // quando os limiares foram cruzados e são reavaliados na próxima despesa da categoria
+    @Override
+    public void discard(String userEmail) {
+    }
+
+    private void evaluateCurrentMonth(String userEmail, String categoryId) {
+        try {
+            Optional<SecretKey> key = userKeyService.findUserSecretKey(userEmail);
+            if (key.isPresent()) {
+                evaluate(userEmail, key.get(), new MonthCategory(monthOf(Instant.now()), categoryId));
+            }
+        } catch (Exception e) {
+            // Sem avaliação agora: a próxima despesa da categoria registra o cruzamento
+        }
+    }
+
+    // Compara o gasto do mês com o orçamento e registra o cruzamento dos limiares.
+    // O rollup é lido depois do BudgetSpend: se outra escrita gravar no meio, a versão muda,
+    // a tentativa relê os dois e o último a gravar sempre viu o gasto mais recente.
+    // Sem rollups construídos, agenda a reconstrução e deixa a avaliação para depois dela
+    private void evaluate(String userEmail, SecretKey key, MonthCategory target) {
+        Optional<Budget> budget = budgetRepository.findByUserEmailAndCategoryId(userEmail, target.categoryId());
+        if (budget.isEmpty()) {
+            return;
+        }
+
+        String id = BudgetSpend.idOf(userEmail, target.month(), target.categoryId());
+        YearMonth yearMonth = YearMonth.parse(target.month());
+
+        for (int attempt = 0; attempt < MAX_RETRIES; attempt++) {
+            Optional<BudgetSpend> current = spendRepository.findById(id);
+
+            try {
+                Optional<Map<String, Totals>> totals = categoryRollupService.storedTotalsByCategory(userEmail, key, yearMonth, yearMonth);
+                if (totals.isEmpty()) {
+                    requestBuild(userEmail, target);
+                    return;
+                }
+
+                Totals categoryTotals = totals.get().get(target.categoryId());
+                BigDecimal spent = categoryTotals == null ? BigDecimal.ZERO : categoryTotals.expense();
+
+                BudgetSpend spend = current.orElseGet(() -> new BudgetSpend(userEmail, target.month(), target.categoryId()));
+                mark(spend, spent, budget.get().getMonthlyLimit());
+
+                // Grava mesmo sem mudança: a versão nova faz uma avaliação concorrente mais antiga falhar e reler
+                spend.setUpdatedAt(Instant.now());
+                spendRepository.save(spend);
+                return;
+            } catch (OptimisticLockingFailureException | DuplicateKeyException e) {
+                // Avaliação concorrente do mesmo mês/categoria: relê e tenta de novo
+            } catch (Exception e) {
+                return;
+            }
+        }
+    }
+
+    // Agenda (uma vez por usuário) a reconstrução dos rollups fora da requisição. O atraso deixa a
+    // escrita que pediu terminar: uma reconstrução concorrente com ela não seria gravada
+    private void requestBuild(String userEmail, MonthCategory target) {
+        if (target != null) {
+            pending.computeIfAbsent(userEmail, u -> ConcurrentHashMap.newKeySet()).add(target);
+        }
+
+        if (building.add(userEmail)) {
+            builder.schedule(() -> build(userEmail), buildDelay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void build(String userEmail) {
+        boolean built = false;
+        try {
+            Optional<SecretKey> key = userKeyService.findUserSecretKey(userEmail);
+            if (key.isEmpty()) {
+                return;
+            }
+
+            YearMonth now = YearMonth.now(ZoneOffset.UTC);
+            if (categoryRollupService.storedTotalsByCategory(userEmail, key.get(), now, now).isEmpty()) {
+                categoryRollupService.rebuild(userEmail, key.get());
+            }
+
+            // Não gravada (escrita concorrente): a próxima despesa ou leitura do status agenda de novo
+            built = categoryRollupService.storedTotalsByCategory(userEmail, key.get(), now, now).isPresent();
+            if (!built) {
+                return;
+            }
+
+            Set<MonthCategory> targets = new LinkedHashSet<>();
+            Set<MonthCategory> waiting = pending.remove(userEmail);
+            if (waiting != null) {
+                targets.addAll(waiting);
+            }
+            for (Budget budget : budgetRepository.findByUserEmail(userEmail)) {
+                targets.add(new MonthCategory(now.toString(), budget.getCategoryId()));
+            }
+
+            targets.forEach(target -> evaluate(userEmail, key.get(), target));
+        } catch (Exception e) {
+            System.err.println("Aviso: Falha ao reconstruir os rollups de " + userEmail + " para os orçamentos");
+        } finally {
+            building.remove(userEmail);
+            if (built) {
+                dataVersionService.bump(userEmail);
+            }
+        }
+    }
+
+    // Só usuários legados sem chave (dados em texto puro, sem rollups)
+    private Map<String, Totals> legacyMonthTotals(String userEmail, YearMonth yearMonth) {
+        List<Transaction> rows = transactionRepository.findSummaryRowsByUserEmailAndDateFromInclusive(
+                userEmail,
+                yearMonth.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant(),
+                yearMonth.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant()
+        );
+
+        AmountAggregator aggregator = new AmountAggregator();
+        for (Transaction row : rows) {
+            TransactionPayload payload = transactionCipher.openOrProtected(row, null, TransactionField.AMOUNT_AND_TYPE);
+            aggregator.add(row.getCategoryId(), payload.amount(), payload.type());
+        }
+
+        return aggregator.toTotals();
+    }
+
+    private static Map<String, BigDecimal> expenses(Map<String, Totals> totals) {
+        Map<String, BigDecimal> spent = new HashMap<>();
+        totals.forEach((categoryId, value) -> spent.put(categoryId, value.expense()));
+        return spent;
+    }
+
+    // Registra o cruzamento quando acontece e limpa quando o gasto volta para baixo do limiar
+    void mark(BudgetSpend spend, BigDecimal spent, BigDecimal limit) {
+        Instant now = Instant.now();
+
+        boolean warned = spent.multiply(HUNDRED).compareTo(limit.multiply(warningPercent)) >= 0;
+        boolean exceeded = spent.compareTo(limit) >= 0;
+
+        if (!warned) {
+            spend.setWarnedAt(null);
+        } else if (spend.getWarnedAt() == null) {
+            spend.setWarnedAt(now);
+        }
+
+        if (!exceeded) {
+            spend.setExceededAt(null);
+        } else if (spend.getExceededAt() == null) {
+            spend.setExceededAt(now);
+        }
+    }
+
+    private String levelOf(BigDecimal spent, BigDecimal limit) {
+        if (spent.compareTo(limit) >= 0) {
+            return "EXCEEDED";
+        }
+        if (spent.multiply(HUNDRED).compareTo(limit.multiply(warningPercent)) >= 0) {
+            return "WARNING";
+        }
+        return "OK";
+    }
+
+    @PreDestroy
+    void shutdown() {
+        builder.shutdownNow();
+    }
+
+    private static TransactionValues expenseOnly(TransactionValues values) {
+        return values == null || values.isIncome() ? null : values;
+    }
+
+    private static String monthOf(Instant date) {
+        return CategoryRollupService.monthOf(date);
+    }
+
+    private record MonthCategory(String month, String categoryId) {
+    }
+}
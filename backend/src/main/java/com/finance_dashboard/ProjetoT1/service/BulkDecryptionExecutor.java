@@ -0,0 +1,123 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+// Executa a descriptografia de listas grandes em pedaços, num pool próprio e limitado,
+// para não prender um único núcleo (nem o pool comum da JVM) em usuários com muito histórico.
+// Abaixo do limite configurado tudo roda na própria thread da requisição.
+// Os contadores (fila x processamento) são publicados por JMX.
+@Component
+@ManagedResource(objectName = "ProjetoT1:type=BulkDecryption")
+public class BulkDecryptionExecutor {
+
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+    private final int chunkSize;
+
+    private final LongAdder sequentialBatches = new LongAdder();
+    private final LongAdder parallelBatches = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder queueNanos = new LongAdder();
+    private final LongAdder decryptNanos = new LongAdder();
+
+    public BulkDecryptionExecutor(
+            @Value("${app.crypto.bulk.parallelism:0}") int parallelism,
+            @Value("${app.crypto.bulk.parallel-threshold:512}") int parallelThreshold,
+            @Value("${app.crypto.bulk.chunk-size:256}") int chunkSize
+    ) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+
+        this.pool = new ForkJoinPool(threads, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, false);
+        this.parallelThreshold = parallelThreshold;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    // A ação deve tratar as falhas de cada item (ex.: marcar como "[Conteúdo Protegido]")
+    public <T> void forEach(List<T> items, Consumer<T> action) {
+        if (items.isEmpty()) {
+            return;
+        }
+
+        if (items.size() < parallelThreshold) {
+            rows.add(items.size());
+            sequentialBatches.increment();
+            long start = System.nanoTime();
+            items.forEach(action);
+            decryptNanos.add(System.nanoTime() - start);
+            return;
+        }
+
+        forEachParallel(items, action);
+    }
+
+    // Sempre em pedaços no pool, sem o limite mínimo. Para quem já agrupa em lotes menores que o
+    // limite, como a criptografia das linhas de importação
+    public <T> void forEachParallel(List<T> items, Consumer<T> action) {
+        if (items.isEmpty()) {
+            return;
+        }
+
+        rows.add(items.size());
+        parallelBatches.increment();
+
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            List<T> chunk = items.subList(from, Math.min(from + chunkSize, items.size()));
+            long submittedAt = System.nanoTime();
+
+            tasks.add(pool.submit(() -> {
+                long startedAt = System.nanoTime();
+                queueNanos.add(startedAt - submittedAt);
+
+                chunk.forEach(action);
+
+                decryptNanos.add(System.nanoTime() - startedAt);
+            }));
+        }
+
+        tasks.forEach(ForkJoinTask::join);
+    }
+
+    @ManagedAttribute(description = "Listas processadas na thread da requisição (abaixo do limite)")
+    public long getSequentialBatches() {
+        return sequentialBatches.sum();
+    }
+
+    @ManagedAttribute(description = "Listas divididas em pedaços no pool")
+    public long getParallelBatches() {
+        return parallelBatches.sum();
+    }
+
+    @ManagedAttribute(description = "Itens processados")
+    public long getRows() {
+        return rows.sum();
+    }
+
+    // Tempo em fila (submissão até início do pedaço) versus tempo efetivamente processando
+    @ManagedAttribute(description = "Tempo total dos pedaços esperando no pool (ms)")
+    public long getQueueMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(queueNanos.sum());
+    }
+
+    @ManagedAttribute(description = "Tempo total descriptografando/cifrando (ms)")
+    public long getDecryptMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(decryptNanos.sum());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+}
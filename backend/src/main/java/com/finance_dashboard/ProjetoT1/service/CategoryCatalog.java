@@ -0,0 +1,125 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+import com.finance_dashboard.ProjetoT1.model.Category;
+import com.finance_dashboard.ProjetoT1.repository.CategoryRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Cache em memória de id → nome/dono/ativa das categorias.
+// As globais (semeadas pelo CategoryDataInitializer) ficam num snapshot imutável; as do usuário
+// são carregadas sob demanda, em lote (findAllById), e invalidadas pelo CategoryService.
+@Component
+public class CategoryCatalog {
+
+    private static final int MAX_ENTRIES = 10_000;
+
+    private final CategoryRepository categoryRepository;
+
+    private volatile Map<String, CategoryRef> globals = Map.of();
+    private volatile List<Category> globalCategories = List.of();
+    private final ConcurrentHashMap<String, CategoryRef> userCategories = new ConcurrentHashMap<>();
+
+    public CategoryCatalog(CategoryRepository categoryRepository) {
+        this.categoryRepository = categoryRepository;
+    }
+
+    // Uma única ida ao banco para todos os ids que ainda não estão em memória
+    public Map<String, CategoryRef> resolve(Collection<String> ids) {
+        Map<String, CategoryRef> found = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+
+        for (String id : ids) {
+            if (id == null) {
+                continue;
+            }
+
+            CategoryRef ref = globals.get(id);
+            if (ref == null) {
+                ref = userCategories.get(id);
+            }
+
+            if (ref != null) {
+                found.put(id, ref);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            if (userCategories.size() >= MAX_ENTRIES) {
+                userCategories.clear();
+            }
+
+            for (Category category : categoryRepository.findAllById(missing)) {
+                CategoryRef ref = CategoryRef.of(category);
+                userCategories.put(ref.id(), ref);
+                found.put(ref.id(), ref);
+            }
+        }
+
+        return found;
+    }
+
+    // Categorias que o usuário pode usar (globais + próprias ativas), numa única consulta
+    public List<CategoryRef> availableTo(String userEmail) {
+        List<CategoryRef> available = new ArrayList<>(globals.values());
+
+        for (Category category : categoryRepository.findByUserEmailAndActiveTrue(userEmail)) {
+            CategoryRef ref = CategoryRef.of(category);
+            userCategories.put(ref.id(), ref);
+            available.add(ref);
+        }
+
+        return available;
+    }
+
+    // Mesma lista do GET /categories ("global"), sem ir ao banco
+    public List<Category> globalCategories() {
+        return globalCategories;
+    }
+
+    public Optional<CategoryRef> find(String id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(resolve(List.of(id)).get(id));
+    }
+
+    public void invalidate(String id) {
+        if (id != null) {
+            userCategories.remove(id);
+        }
+    }
+
+    // Chamado depois da semeadura; as categorias padrão não podem ser renomeadas nem removidas
+    public void publishGlobals(List<Category> categories) {
+        Map<String, CategoryRef> snapshot = new HashMap<>();
+        for (Category category : categories) {
+            snapshot.put(category.getId(), CategoryRef.of(category));
+        }
+
+        globals = Map.copyOf(snapshot);
+        globalCategories = List.copyOf(categories);
+        snapshot.keySet().forEach(userCategories::remove);
+    }
+
+    public record CategoryRef(String id, String name, String userEmail, boolean active) {
+
+        static CategoryRef of(Category category) {
+            return new CategoryRef(category.getId(), category.getName(), category.getUserEmail(), category.isActive());
+        }
+
+        // Categoria ativa e global ou do próprio usuário
+        public boolean availableTo(String email) {
+            return active && (userEmail == null || Objects.equals(userEmail, email));
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+import com.finance_dashboard.ProjetoT1.model.CategoryRollup;
+import com.finance_dashboard.ProjetoT1.model.CategoryRollupState;
+import com.finance_dashboard.ProjetoT1.model.Transaction;
+import com.finance_dashboard.ProjetoT1.repository.CategoryRollupRepository;
+import com.finance_dashboard.ProjetoT1.repository.CategoryRollupStateRepository;
+import com.finance_dashboard.ProjetoT1.repository.TransactionRepository;
+import com.finance_dashboard.ProjetoT1.security.CryptoEngine;
+import com.finance_dashboard.ProjetoT1.security.TransactionCipher;
+import com.finance_dashboard.ProjetoT1.security.TransactionField;
+import com.finance_dashboard.ProjetoT1.security.TransactionPayload;
+import com.finance_dashboard.ProjetoT1.service.BalanceSnapshotService.Totals;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.UnaryOperator;
+
+// Totais de receitas e despesas por mês (UTC) e categoria, um documento cifrado por combinação.
+// Cada escrita ajusta o mês/categoria antigo e o novo; se um ajuste falhar, o marcador do usuário
+// é removido e todos os rollups dele são reconstruídos a partir das transações na próxima leitura.
+// Uma reconstrução que concorre com escritas não é gravada (ver WriteGenerationService).
+// Roda antes dos demais listeners: o BudgetService lê os rollups já ajustados pela escrita.
+@Service
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CategoryRollupService implements TransactionWriteListener {
+
+    private static final int MAX_RETRIES = 5;
+
+    private final CategoryRollupRepository rollupRepository;
+    private final CategoryRollupStateRepository stateRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionCipher transactionCipher;
+    private final CryptoEngine engine;
+    private final WriteGenerationService writeGenerations;
+
+    public CategoryRollupService(
+            CategoryRollupRepository rollupRepository,
+            CategoryRollupStateRepository stateRepository,
+            TransactionRepository transactionRepository,
+            TransactionCipher transactionCipher,
+            CryptoEngine engine,
+            WriteGenerationService writeGenerations
+    ) {
+        this.rollupRepository = rollupRepository;
+        this.stateRepository = stateRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionCipher = transactionCipher;
+        this.engine = engine;
+        this.writeGenerations = writeGenerations;
+    }
+
+    // Totais por categoria somando os meses inteiros de "from" até "to" (inclusive)
+    public Map<String, Totals> totalsByCategory(String userEmail, SecretKey key, YearMonth from, YearMonth to) throws Exception {
+        Optional<Map<String, Totals>> stored = storedTotalsByCategory(userEmail, key, from, to);
+        if (stored.isPresent()) {
+            return stored.get();
+        }
+
+        return slice(rebuild(userEmail, key), from, to);
+    }
+
+    // Mesmos totais, só dos rollups gravados: vazio se ainda não construídos ou ilegíveis (aí o
+    // marcador é removido). Para quem não pode reconstruir o histórico na hora (ver BudgetService)
+    public Optional<Map<String, Totals>> storedTotalsByCategory(String userEmail, SecretKey key, YearMonth from, YearMonth to) {
+        if (!stateRepository.existsById(userEmail)) {
+            return Optional.empty();
+        }
+
+        List<CategoryRollup> rollups = rollupRepository
+                .findByUserEmailAndMonthRange(userEmail, from.toString(), to.toString());
+
+        Map<String, Totals> totals = new HashMap<>();
+        try {
+            for (CategoryRollup rollup : rollups) {
+                totals.merge(rollup.getCategoryId(), readTotals(rollup, key), Totals::plus);
+            }
+        } catch (Exception e) {
+            // Algum rollup ilegível: a próxima reconstrução recalcula tudo a partir das transações
+            invalidate(userEmail);
+            return Optional.empty();
+        }
+
+        return Optional.of(totals);
+    }
+
+    // Recalcula todos os rollups do usuário. Retorna os totais indexados por mês e categoria
+    public Map<String, Map<String, Totals>> rebuild(String userEmail, SecretKey key) throws Exception {
+        OptionalLong generation = writeGenerations.stable(userEmail);
+        List<Transaction> rows = transactionRepository.findSummaryRowsByUserEmail(userEmail);
+
+        Map<String, AmountAggregator> aggregators = new HashMap<>();
+        for (Transaction row : rows) {
+            TransactionPayload payload = transactionCipher.openOrProtected(row, key, TransactionField.AMOUNT_AND_TYPE);
+
+            aggregators.computeIfAbsent(monthOf(row.getDate()), m -> new AmountAggregator())
+                    .add(row.getCategoryId(), payload.amount(), payload.type());
+        }
+
+        Map<String, Map<String, Totals>> byMonth = new HashMap<>();
+        aggregators.forEach((month, aggregator) -> byMonth.put(month, aggregator.toTotals()));
+
+        // Escrita em andamento: ela pode ou não estar nas linhas lidas
+        if (generation.isEmpty()) {
+            return byMonth;
+        }
+
+        try {
+            stateRepository.deleteById(userEmail);
+            rollupRepository.deleteByUserEmail(userEmail);
+
+            List<CategoryRollup> rollups = new ArrayList<>();
+            for (Map.Entry<String, Map<String, Totals>> month : byMonth.entrySet()) {
+                for (Map.Entry<String, Totals> category : month.getValue().entrySet()) {
+                    CategoryRollup rollup = new CategoryRollup(userEmail, month.getKey(), category.getKey());
+                    seal(rollup, category.getValue(), key);
+                    rollups.add(rollup);
+                }
+            }
+
+            rollupRepository.saveAll(rollups);
+            stateRepository.save(new CategoryRollupState(userEmail, Instant.now()));
+
+            // Uma escrita começou no meio: o ajuste dela pode ter sido apagado ou ignorado
+            if (!writeGenerations.unchanged(userEmail, generation.getAsLong())) {
+                invalidate(userEmail);
+            }
+        } catch (DataAccessException e) {
+            // Reconstrução concorrente; o valor calculado continua válido para esta resposta
+        }
+
+        return byMonth;
+    }
+
+    public void invalidate(String userEmail) {
+        stateRepository.deleteById(userEmail);
+    }
+
+    @Override
+    public void discard(String userEmail) {
+        invalidate(userEmail);
+    }
+
+    @Override
+    public void onChange(TransactionChange change) {
+        // Usuários legados sem chave continuam somando direto das transações
+        if (change.key() == null) {
+            return;
+        }
+
+        // Ainda não construído: a próxima reconstrução gravada já inclui esta escrita
+        if (!stateRepository.existsById(change.userEmail())) {
+            return;
+        }
+
+        TransactionValues before = change.before();
+        TransactionValues after = change.after();
+
+        boolean applied = true;
+
+        if (before != null && after != null
+                && monthOf(before.date()).equals(monthOf(after.date()))
+                && Objects.equals(before.categoryId(), after.categoryId())) {
+            // Mesmo mês e categoria: um único ajuste
+            applied = apply(change.userEmail(), change.key(), monthOf(after.date()), after.categoryId(),
+                    totals -> totals.minus(before).plus(after));
+        } else {
+            if (before != null) {
+                applied = apply(change.userEmail(), change.key(), monthOf(before.date()), before.categoryId(),
+                        totals -> totals.minus(before));
+            }
+            if (applied && after != null) {
+                applied = apply(change.userEmail(), change.key(), monthOf(after.date()), after.categoryId(),
+                        totals -> totals.plus(after));
+            }
+        }
+
+        if (!applied) {
+            invalidate(change.userEmail());
+        }
+    }
+
+    // Importações/lotes: um ajuste por mês/categoria afetado, não por transação
+    @Override
+    public void onBulkInsert(String userEmail, SecretKey key, List<TransactionValues> inserted) {
+        if (key == null || !stateRepository.existsById(userEmail)) {
+            return;
+        }
+
+        Map<String, Map<String, Totals>> byMonth = new HashMap<>();
+        for (TransactionValues values : inserted) {
+            byMonth.computeIfAbsent(monthOf(values.date()), m -> new HashMap<>())
+                    .merge(values.categoryId(), Totals.ZERO.plus(values), Totals::plus);
+        }
+
+        for (Map.Entry<String, Map<String, Totals>> month : byMonth.entrySet()) {
+            for (Map.Entry<String, Totals> category : month.getValue().entrySet()) {
+                Totals delta = category.getValue();
+
+                if (!apply(userEmail, key, month.getKey(), category.getKey(), totals -> totals.plus(delta))) {
+                    invalidate(userEmail);
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean apply(
+            String userEmail,
+            SecretKey key,
+            String month,
+            String categoryId,
+            UnaryOperator<Totals> change
+    ) {
+        String id = CategoryRollup.idOf(userEmail, month, categoryId);
+
+        for (int attempt = 0; attempt < MAX_RETRIES; attempt++) {
+            Optional<CategoryRollup> current = rollupRepository.findById(id);
+
+            try {
+                CategoryRollup rollup = current.orElseGet(() -> new CategoryRollup(userEmail, month, categoryId));
+                Totals totals = current.isPresent() ? readTotals(rollup, key) : Totals.ZERO;
+
+                seal(rollup, change.apply(totals), key);
+                rollupRepository.save(rollup);
+                return true;
+            } catch (OptimisticLockingFailureException | DuplicateKeyException e) {
+                // Escrita concorrente no mesmo rollup: relê e tenta de novo
+            } catch (Exception e) {
+                return false;
+            }
+        }
+
+        return false;
+    }
+
+    private Totals readTotals(CategoryRollup rollup, SecretKey key) throws Exception {
+        String plain = new String(
+                engine.open(rollup.getTotals(), key, aad(rollup.getId())),
+                StandardCharsets.UTF_8
+        );
+
+        int separator = plain.indexOf('\n');
+        return new Totals(
+                new BigDecimal(plain.substring(0, separator)),
+                new BigDecimal(plain.substring(separator + 1))
+        );
+    }
+
+    private void seal(CategoryRollup rollup, Totals totals, SecretKey key) throws Exception {
+        String plain = totals.income().toPlainString() + '\n' + totals.expense().toPlainString();
+
+        rollup.setTotals(engine.seal(plain.getBytes(StandardCharsets.UTF_8), key, aad(rollup.getId())));
+        rollup.setUpdatedAt(Instant.now());
+    }
+
+    private static Map<String, Totals> slice(Map<String, Map<String, Totals>> byMonth, YearMonth from, YearMonth to) {
+        Map<String, Totals> totals = new HashMap<>();
+
+        for (Map.Entry<String, Map<String, Totals>> month : byMonth.entrySet()) {
+            YearMonth yearMonth = YearMonth.parse(month.getKey());
+            if (yearMonth.isBefore(from) || yearMonth.isAfter(to)) {
+                continue;
+            }
+            month.getValue().forEach((categoryId, value) -> totals.merge(categoryId, value, Totals::plus));
+        }
+
+        return totals;
+    }
+
+    static String monthOf(Instant date) {
+        return YearMonth.from(date.atZone(ZoneOffset.UTC)).toString();
+    }
+
+    private static byte[] aad(String rollupId) {
+        return ("category_rollup:" + rollupId).getBytes(StandardCharsets.UTF_8);
+    }
+}
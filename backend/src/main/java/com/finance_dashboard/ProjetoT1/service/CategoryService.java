@@ -14,13 +14,19 @@ public class CategoryService {
 
     private final CategoryRepository repository;
     private final TransactionRepository transactionRepository;
+    private final CategoryCatalog categoryCatalog;
+    private final DataVersionService dataVersionService;
 
     public CategoryService(
             CategoryRepository repository,
-            TransactionRepository transactionRepository
+            TransactionRepository transactionRepository,
+            CategoryCatalog categoryCatalog,
+            DataVersionService dataVersionService
     ) {
         this.repository = repository;
         this.transactionRepository = transactionRepository;
+        this.categoryCatalog = categoryCatalog;
+        this.dataVersionService = dataVersionService;
     }
 
     public List<Category> listActiveByUser(String userEmail) {
@@ -55,7 +61,11 @@ public class CategoryService {
         category.setActive(true);
         category.setCreatedAt(Instant.now());
 
-        return repository.save(category);
+        Category saved = repository.save(category);
+        categoryCatalog.invalidate(saved.getId());
+        dataVersionService.bump(userEmail);
+
+        return saved;
     }
 
     public Category rename(String userEmail, String id, String newName) {
@@ -73,7 +83,11 @@ public class CategoryService {
         category.setNormalizedName(normalize(newName));
         category.setUpdatedAt(Instant.now());
 
-        return repository.save(category);
+        Category saved = repository.save(category);
+        categoryCatalog.invalidate(saved.getId());
+        dataVersionService.bump(userEmail);
+
+        return saved;
     }
 
     public void softDelete(String userEmail, String id) {
@@ -104,10 +118,13 @@ public class CategoryService {
         category.setActive(false);
         category.setUpdatedAt(Instant.now());
         repository.save(category);
+        categoryCatalog.invalidate(id);
+        dataVersionService.bump(userEmail);
     }
 
 
-    private String normalize(String value) {
+    // Também usado na importação de extratos para casar a coluna de categoria pelo nome
+    static String normalize(String value) {
         if (value == null) return "";
         return value.toLowerCase()
                 .trim()
@@ -0,0 +1,270 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+// Leitor preguiçoso de CSV (RFC 4180, separador "," ou ";"): um registro por vez, sem carregar o arquivo.
+// Aceita o layout da exportação (id,date,categoryId,category,type,amount,description)
+// e cabeçalhos em português (data, descricao/historico, valor, tipo, categoria).
+public class CsvStatementParser implements Iterator<StatementLine> {
+
+    private static final Map<String, String> HEADER_ALIASES = Map.ofEntries(
+            Map.entry("date", "date"),
+            Map.entry("data", "date"),
+            Map.entry("description", "description"),
+            Map.entry("descricao", "description"),
+            Map.entry("historico", "description"),
+            Map.entry("memo", "description"),
+            Map.entry("amount", "amount"),
+            Map.entry("valor", "amount"),
+            Map.entry("type", "type"),
+            Map.entry("tipo", "type"),
+            Map.entry("category", "category"),
+            Map.entry("categoria", "category"),
+            Map.entry("categoryid", "categoryId")
+    );
+
+    private final Reader reader;
+    private final char delimiter;
+
+    private int lineNumber = 1;
+    private int peeked = -2;
+
+    private int dateColumn = -1;
+    private int descriptionColumn = -1;
+    private int amountColumn = -1;
+    private int typeColumn = -1;
+    private int categoryColumn = -1;
+    private int categoryIdColumn = -1;
+
+    private StatementLine next;
+
+    public CsvStatementParser(Reader reader) {
+        this.reader = reader;
+
+        String headerLine = readHeaderLine();
+        this.delimiter = count(headerLine, ';') > count(headerLine, ',') ? ';' : ',';
+
+        List<String> header = split(headerLine);
+        for (int i = 0; i < header.size(); i++) {
+            String column = HEADER_ALIASES.get(normalizeHeader(header.get(i)));
+            if (column == null) {
+                continue;
+            }
+            switch (column) {
+                case "date" -> dateColumn = i;
+                case "description" -> descriptionColumn = i;
+                case "amount" -> amountColumn = i;
+                case "type" -> typeColumn = i;
+                case "category" -> categoryColumn = i;
+                case "categoryId" -> categoryIdColumn = i;
+                default -> {
+                }
+            }
+        }
+
+        if (dateColumn < 0 || descriptionColumn < 0 || amountColumn < 0) {
+            throw new IllegalArgumentException("CSV deve ter as colunas data, descrição e valor");
+        }
+
+        advance();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    @Override
+    public StatementLine next() {
+        if (next == null) {
+            throw new NoSuchElementException();
+        }
+        StatementLine current = next;
+        advance();
+        return current;
+    }
+
+    private void advance() {
+        next = null;
+
+        while (next == null) {
+            int startLine = lineNumber;
+            List<String> record = readRecord();
+            if (record == null) {
+                return;
+            }
+
+            // Linhas em branco são ignoradas
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+
+            // categoryId (exportação) tem precedência sobre o nome da categoria
+            String category = cell(record, categoryIdColumn);
+            if (category == null || category.isBlank()) {
+                category = cell(record, categoryColumn);
+            }
+
+            next = new StatementLine(
+                    startLine,
+                    cell(record, dateColumn),
+                    unescapeFormula(cell(record, descriptionColumn)),
+                    cell(record, amountColumn),
+                    cell(record, typeColumn),
+                    unescapeFormula(category),
+                    null
+            );
+        }
+    }
+
+    private String readHeaderLine() {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = read()) != -1 && c != '\n') {
+            if (c != '\r') {
+                line.append((char) c);
+            }
+        }
+        lineNumber++;
+
+        // BOM do Excel
+        if (!line.isEmpty() && line.charAt(0) == '\uFEFF') {
+            line.deleteCharAt(0);
+        }
+        if (line.toString().isBlank()) {
+            throw new IllegalArgumentException("Arquivo vazio");
+        }
+        return line.toString();
+    }
+
+    // Um registro completo; campos entre aspas podem conter separador e quebras de linha
+    private List<String> readRecord() {
+        if (peek() == -1) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        while (true) {
+            int c = read();
+
+            if (c == -1) {
+                fields.add(field.toString());
+                return fields;
+            }
+
+            if (quoted) {
+                if (c == '"') {
+                    if (peek() == '"') {
+                        read();
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                lineNumber++;
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+    }
+
+    private List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == delimiter && !quoted) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private int read() {
+        if (peeked != -2) {
+            int c = peeked;
+            peeked = -2;
+            return c;
+        }
+        try {
+            return reader.read();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int peek() {
+        if (peeked == -2) {
+            try {
+                peeked = reader.read();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return peeked;
+    }
+
+    private static String cell(List<String> record, int column) {
+        if (column < 0 || column >= record.size()) {
+            return null;
+        }
+        return record.get(column).trim();
+    }
+
+    // Desfaz a proteção contra fórmulas aplicada pela exportação em CSV
+    private static String unescapeFormula(String value) {
+        if (value != null && value.length() > 1 && value.charAt(0) == '\''
+                && "=+-@".indexOf(value.charAt(1)) >= 0) {
+            return value.substring(1);
+        }
+        return value;
+    }
+
+    private static String normalizeHeader(String value) {
+        return Normalizer.normalize(value.trim().toLowerCase(), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .replaceAll("[^a-z]", "");
+    }
+
+    private static int count(String value, char c) {
+        int total = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == c) {
+                total++;
+            }
+        }
+        return total;
+    }
+}
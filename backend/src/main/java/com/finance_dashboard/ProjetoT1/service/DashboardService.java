@@ -0,0 +1,105 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+import com.finance_dashboard.ProjetoT1.config.AuthenticatedUser;
+import com.finance_dashboard.ProjetoT1.dto.CategoriesResponseDTO;
+import com.finance_dashboard.ProjetoT1.dto.CategorySummaryDTO;
+import com.finance_dashboard.ProjetoT1.dto.DashboardDTO;
+import com.finance_dashboard.ProjetoT1.dto.SummaryResponseDTO;
+import com.finance_dashboard.ProjetoT1.model.Category;
+import com.finance_dashboard.ProjetoT1.model.Transaction;
+import com.finance_dashboard.ProjetoT1.service.BalanceSnapshotService.Totals;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Tudo o que o painel mostra ao abrir, a partir de uma única leitura (e descriptografia) das
+// transações do mês: totais, resumo por categoria e últimas transações. As categorias globais
+// vêm do catálogo em memória e as do usuário de uma única consulta.
+@Service
+public class DashboardService {
+
+    private final TransactionService transactionService;
+    private final CategoryService categoryService;
+    private final CategoryCatalog categoryCatalog;
+    private final int recentSize;
+
+    public DashboardService(
+            TransactionService transactionService,
+            CategoryService categoryService,
+            CategoryCatalog categoryCatalog,
+            @Value("${app.dashboard.recent-size:10}") int recentSize
+    ) {
+        this.transactionService = transactionService;
+        this.categoryService = categoryService;
+        this.categoryCatalog = categoryCatalog;
+        this.recentSize = recentSize;
+    }
+
+    public DashboardDTO getDashboard(int year, int month) {
+        String userEmail = AuthenticatedUser.getEmail();
+
+        // Única passada de descriptografia: o mês inteiro, com todos os campos
+        List<Transaction> transactions = transactionService.findByMonth(year, month);
+
+        AmountAggregator aggregator = new AmountAggregator();
+        for (Transaction t : transactions) {
+            aggregator.add(t.getCategoryId(), t.getAmount(), t.getType());
+        }
+
+        List<Category> global = categoryCatalog.globalCategories();
+        List<Category> custom = categoryService.listActiveByUser(userEmail);
+
+        Totals totals = aggregator.total();
+
+        return new DashboardDTO(
+                year,
+                month,
+                new SummaryResponseDTO(totals.income(), totals.expense(), totals.balance()),
+                // Lido do resumo incremental, sem descriptografar transações
+                transactionService.getSummary(),
+                toCategorySummaries(aggregator.toTotals(), global, custom),
+                recent(transactions),
+                new CategoriesResponseDTO(global, custom)
+        );
+    }
+
+    private List<CategorySummaryDTO> toCategorySummaries(
+            Map<String, Totals> totals,
+            List<Category> global,
+            List<Category> custom
+    ) {
+        Map<String, String> names = new HashMap<>();
+        global.forEach(c -> names.put(c.getId(), c.getName()));
+        custom.forEach(c -> names.put(c.getId(), c.getName()));
+
+        // Categorias já removidas que ainda têm transações no mês
+        List<String> missing = totals.keySet().stream().filter(id -> !names.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            categoryCatalog.resolve(missing).forEach((id, ref) -> names.put(id, ref.name()));
+        }
+
+        List<CategorySummaryDTO> summaries = new ArrayList<>(totals.size());
+        totals.forEach((categoryId, value) -> summaries.add(new CategorySummaryDTO(
+                categoryId,
+                names.getOrDefault(categoryId, "Sem categoria"),
+                value.income(),
+                value.expense()
+        )));
+
+        return summaries;
+    }
+
+    private List<Transaction> recent(List<Transaction> transactions) {
+        return transactions.stream()
+                .sorted(Comparator.comparing(Transaction::getDate, Comparator.nullsLast(Comparator.<Instant>reverseOrder()))
+                        .thenComparing(Transaction::getId, Comparator.nullsLast(Comparator.<String>reverseOrder())))
+                .limit(recentSize)
+                .toList();
+    }
+}
@@ -0,0 +1,48 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+import com.finance_dashboard.ProjetoT1.model.DataVersion;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+// Versão dos dados de cada usuário, base dos ETags das leituras.
+// Avança a cada escrita de transação (no TransactionWritePublisher.end, depois dos listeners),
+// de categoria (nomes aparecem nos resumos) e de orçamento.
+// Fica no Mongo ($inc atômico) e não em memória: com várias instâncias, uma escrita atendida por uma
+// delas invalida os ETags de todas. Custa uma leitura por _id no GET condicional, sem descriptografia.
+@Component
+public class DataVersionService {
+
+    private final MongoTemplate mongoTemplate;
+
+    public DataVersionService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public void bump(String userEmail) {
+        if (userEmail != null) {
+            mongoTemplate.upsert(
+                    Query.query(Criteria.where("_id").is(userEmail)),
+                    new Update().inc("version", 1),
+                    DataVersion.class
+            );
+        }
+    }
+
+    // ETag forte (já entre aspas). Inclui um hash do e-mail para que um navegador compartilhado
+    // não reaproveite a resposta de outro usuário com o mesmo contador, e o mês corrente (UTC),
+    // porque leituras sem mês explícito (ex.: /budgets/status) mudam na virada do mês sem escrita
+    public String etag(String userEmail) {
+        DataVersion version = mongoTemplate.findById(userEmail, DataVersion.class);
+
+        return "\"" + Integer.toHexString(userEmail.hashCode())
+                + "-" + (version == null ? 0 : version.getVersion())
+                + "-" + YearMonth.now(ZoneOffset.UTC)
+                + "\"";
+    }
+}
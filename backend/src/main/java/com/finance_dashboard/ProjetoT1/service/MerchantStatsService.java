@@ -0,0 +1,443 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+import com.finance_dashboard.ProjetoT1.dto.MerchantStatDTO;
+import com.finance_dashboard.ProjetoT1.dto.TopMerchantsDTO;
+import com.finance_dashboard.ProjetoT1.model.MerchantSketch;
+import com.finance_dashboard.ProjetoT1.model.MerchantSketchState;
+import com.finance_dashboard.ProjetoT1.model.Transaction;
+import com.finance_dashboard.ProjetoT1.repository.MerchantSketchRepository;
+import com.finance_dashboard.ProjetoT1.repository.MerchantSketchStateRepository;
+import com.finance_dashboard.ProjetoT1.repository.TransactionRepository;
+import com.finance_dashboard.ProjetoT1.security.CryptoEngine;
+import com.finance_dashboard.ProjetoT1.security.SearchTokenizer;
+import com.finance_dashboard.ProjetoT1.security.TransactionCipher;
+import com.finance_dashboard.ProjetoT1.security.TransactionField;
+import com.finance_dashboard.ProjetoT1.security.TransactionPayload;
+import com.finance_dashboard.ProjetoT1.security.UserKeyService;
+import com.finance_dashboard.ProjetoT1.service.CategoryCatalog.CategoryRef;
+import com.finance_dashboard.ProjetoT1.service.SpaceSavingSketch.Counter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+// "Para onde vai meu dinheiro": descrições de despesa mais frequentes e de maior gasto por mês
+// (UTC) e categoria, sem descriptografar o histórico a cada leitura. Cada combinação guarda dois
+// Space-Saving de "capacity" contadores (quantidade e soma dos valores) num documento cifrado,
+// ajustado a cada escrita. Memória e leitura são limitadas pela capacidade, não pelo número de
+// transações; cada item responde com o erro máximo da estimativa (ver SpaceSavingSketch).
+// Um mês é construído na primeira leitura; se um ajuste falhar, o marcador do mês é removido.
+// Uma reconstrução que concorre com escritas do usuário não é gravada (ver WriteGenerationService).
+@Service
+public class MerchantStatsService implements TransactionWriteListener {
+
+    private static final int MAX_RETRIES = 5;
+    private static final int MAX_LABEL = 80;
+    private static final int MAX_KEY = 64;
+    private static final String NO_DESCRIPTION = "Sem descrição";
+
+    private final MerchantSketchRepository sketchRepository;
+    private final MerchantSketchStateRepository stateRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionCipher transactionCipher;
+    private final CryptoEngine engine;
+    private final UserKeyService userKeyService;
+    private final CategoryCatalog categoryCatalog;
+    private final WriteGenerationService writeGenerations;
+    private final int capacity;
+    private final int defaultLimit;
+
+    public MerchantStatsService(
+            MerchantSketchRepository sketchRepository,
+            MerchantSketchStateRepository stateRepository,
+            TransactionRepository transactionRepository,
+            TransactionCipher transactionCipher,
+            CryptoEngine engine,
+            UserKeyService userKeyService,
+            CategoryCatalog categoryCatalog,
+            WriteGenerationService writeGenerations,
+            @Value("${app.transactions.merchant-stats.capacity:32}") int capacity,
+            @Value("${app.transactions.merchant-stats.default-limit:5}") int defaultLimit
+    ) {
+        this.sketchRepository = sketchRepository;
+        this.stateRepository = stateRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionCipher = transactionCipher;
+        this.engine = engine;
+        this.userKeyService = userKeyService;
+        this.categoryCatalog = categoryCatalog;
+        this.writeGenerations = writeGenerations;
+        this.capacity = Math.max(1, capacity);
+        this.defaultLimit = defaultLimit;
+    }
+
+    // Categorias do mês (ou só "categoryId"), maiores gastos primeiro
+    public List<TopMerchantsDTO> topMerchants(String userEmail, int year, int month, String categoryId, Integer limit) {
+        if (month < 1 || month > 12) {
+            throw new IllegalArgumentException("Mês inválido");
+        }
+
+        int size = limit == null ? defaultLimit : limit;
+        if (size < 1) {
+            throw new IllegalArgumentException("Limite inválido");
+        }
+        size = Math.min(size, capacity);
+
+        String yearMonth = YearMonth.of(year, month).toString();
+
+        Map<String, MerchantCounters> byCategory;
+        try {
+            Optional<SecretKey> key = userKeyService.findUserSecretKey(userEmail);
+
+            // Usuários legados sem chave: nada a cifrar nem descriptografar, calcula direto do mês
+            byCategory = key.isPresent()
+                    ? load(userEmail, key.get(), yearMonth)
+                    : compute(userEmail, null, yearMonth);
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao processar criptografia das estatísticas", e);
+        }
+
+        if (categoryId != null) {
+            MerchantCounters counters = byCategory.get(categoryId);
+            byCategory = counters == null ? Map.of() : Map.of(categoryId, counters);
+        }
+
+        Map<String, CategoryRef> categories = categoryCatalog.resolve(byCategory.keySet());
+
+        List<TopMerchantsDTO> result = new ArrayList<>(byCategory.size());
+        for (Map.Entry<String, MerchantCounters> entry : byCategory.entrySet()) {
+            MerchantCounters counters = entry.getValue();
+            CategoryRef category = categories.get(entry.getKey());
+
+            result.add(new TopMerchantsDTO(
+                    entry.getKey(),
+                    category == null ? "Sem categoria" : category.name(),
+                    counters.frequent.getTotal().longValue(),
+                    counters.expensive.getTotal(),
+                    toStats(counters.frequent, size),
+                    toStats(counters.expensive, size)
+            ));
+        }
+
+        result.sort(Comparator.comparing(TopMerchantsDTO::getExpenseTotal).reversed());
+        return result;
+    }
+
+    // Recalcula os sketches de um mês do usuário a partir das transações dele
+    public Map<String, MerchantCounters> rebuild(String userEmail, SecretKey key, String month) throws Exception {
+        OptionalLong generation = writeGenerations.stable(userEmail);
+        Map<String, MerchantCounters> byCategory = compute(userEmail, key, month);
+        String stateId = MerchantSketchState.idOf(userEmail, month);
+
+        // Escrita em andamento: ela pode ou não estar nas linhas lidas
+        if (generation.isEmpty()) {
+            return byCategory;
+        }
+
+        try {
+            stateRepository.deleteById(stateId);
+            sketchRepository.deleteByUserEmailAndMonth(userEmail, month);
+
+            List<MerchantSketch> sketches = new ArrayList<>();
+            for (Map.Entry<String, MerchantCounters> category : byCategory.entrySet()) {
+                MerchantSketch sketch = new MerchantSketch(userEmail, month, category.getKey());
+                seal(sketch, category.getValue(), key);
+                sketches.add(sketch);
+            }
+
+            sketchRepository.saveAll(sketches);
+            stateRepository.save(new MerchantSketchState(userEmail, month, Instant.now()));
+
+            // Uma escrita começou no meio: o ajuste dela pode ter sido apagado ou ignorado
+            if (!writeGenerations.unchanged(userEmail, generation.getAsLong())) {
+                invalidate(userEmail, month);
+            }
+        } catch (DataAccessException e) {
+            // Reconstrução concorrente; o valor calculado continua válido para esta resposta
+        }
+
+        return byCategory;
+    }
+
+    public void invalidate(String userEmail, String month) {
+        stateRepository.deleteById(MerchantSketchState.idOf(userEmail, month));
+    }
+
+    // Todos os meses do usuário: os _id "userEmail|yyyy-MM" ficam entre "userEmail|" e "userEmail}"
+    @Override
+    public void discard(String userEmail) {
+        stateRepository.deleteByIdBetween(userEmail + "|", userEmail + "}");
+    }
+
+    @Override
+    public void onChange(TransactionChange change) {
+        // Usuários legados sem chave são calculados direto das transações
+        if (change.key() == null) {
+            return;
+        }
+
+        TransactionValues before = expenseOnly(change.before());
+        TransactionValues after = expenseOnly(change.after());
+
+        if (before != null && after != null
+                && monthOf(before.date()).equals(monthOf(after.date()))
+                && Objects.equals(before.categoryId(), after.categoryId())) {
+            // Mesmo mês e categoria: um único ajuste
+            apply(change.userEmail(), change.key(), monthOf(after.date()), after.categoryId(), counters -> {
+                counters.remove(before);
+                counters.add(after);
+            });
+            return;
+        }
+
+        if (before != null) {
+            apply(change.userEmail(), change.key(), monthOf(before.date()), before.categoryId(),
+                    counters -> counters.remove(before));
+        }
+        if (after != null) {
+            apply(change.userEmail(), change.key(), monthOf(after.date()), after.categoryId(),
+                    counters -> counters.add(after));
+        }
+    }
+
+    // Importações/lotes: um ajuste por mês/categoria afetado, não por transação
+    @Override
+    public void onBulkInsert(String userEmail, SecretKey key, List<TransactionValues> inserted) {
+        if (key == null) {
+            return;
+        }
+
+        Map<String, Map<String, List<TransactionValues>>> byMonth = inserted.stream()
+                .filter(values -> expenseOnly(values) != null)
+                .collect(Collectors.groupingBy(
+                        values -> monthOf(values.date()),
+                        Collectors.groupingBy(values -> String.valueOf(values.categoryId()))
+                ));
+
+        for (Map.Entry<String, Map<String, List<TransactionValues>>> month : byMonth.entrySet()) {
+            for (List<TransactionValues> values : month.getValue().values()) {
+                apply(userEmail, key, month.getKey(), values.get(0).categoryId(),
+                        counters -> values.forEach(counters::add));
+            }
+        }
+    }
+
+    private Map<String, MerchantCounters> load(String userEmail, SecretKey key, String month) throws Exception {
+        if (!stateRepository.existsById(MerchantSketchState.idOf(userEmail, month))) {
+            return rebuild(userEmail, key, month);
+        }
+
+        Map<String, MerchantCounters> byCategory = new HashMap<>();
+        try {
+            for (MerchantSketch sketch : sketchRepository.findByUserEmailAndMonth(userEmail, month)) {
+                byCategory.put(sketch.getCategoryId(), read(sketch, key));
+            }
+        } catch (Exception e) {
+            // Algum sketch ilegível: recalcula o mês a partir das transações
+            return rebuild(userEmail, key, month);
+        }
+
+        return byCategory;
+    }
+
+    private Map<String, MerchantCounters> compute(String userEmail, SecretKey key, String month) {
+        YearMonth yearMonth = YearMonth.parse(month);
+
+        List<Transaction> rows = transactionRepository.findByUserEmailAndDateFromInclusive(
+                userEmail,
+                yearMonth.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant(),
+                yearMonth.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant()
+        );
+
+        Map<String, MerchantCounters> byCategory = new HashMap<>();
+        for (Transaction row : rows) {
+            TransactionPayload payload = transactionCipher.openOrProtected(row, key, TransactionField.ALL);
+
+            // Linhas ilegíveis ficam de fora: "[Conteúdo Protegido]" não é uma descrição
+            if (payload == TransactionCipher.PROTECTED) {
+                continue;
+            }
+
+            TransactionValues values = expenseOnly(TransactionValues.of(row, payload));
+            if (values != null) {
+                byCategory.computeIfAbsent(row.getCategoryId(), c -> new MerchantCounters(capacity)).add(values);
+            }
+        }
+
+        return byCategory;
+    }
+
+    private void apply(
+            String userEmail,
+            SecretKey key,
+            String month,
+            String categoryId,
+            Consumer<MerchantCounters> change
+    ) {
+        // Mês ainda não construído: a próxima reconstrução gravada já inclui esta escrita
+        if (!stateRepository.existsById(MerchantSketchState.idOf(userEmail, month))) {
+            return;
+        }
+
+        String id = MerchantSketch.idOf(userEmail, month, categoryId);
+
+        for (int attempt = 0; attempt < MAX_RETRIES; attempt++) {
+            Optional<MerchantSketch> current = sketchRepository.findById(id);
+
+            try {
+                MerchantSketch sketch = current.orElseGet(() -> new MerchantSketch(userEmail, month, categoryId));
+                MerchantCounters counters = current.isPresent() ? read(sketch, key) : new MerchantCounters(capacity);
+
+                change.accept(counters);
+                seal(sketch, counters, key);
+                sketchRepository.save(sketch);
+                return;
+            } catch (OptimisticLockingFailureException | DuplicateKeyException e) {
+                // Escrita concorrente no mesmo sketch: relê e tenta de novo
+            } catch (Exception e) {
+                break;
+            }
+        }
+
+        invalidate(userEmail, month);
+    }
+
+    private MerchantCounters read(MerchantSketch sketch, SecretKey key) throws Exception {
+        String plain = new String(
+                engine.open(sketch.getCounters(), key, aad(sketch.getId())),
+                StandardCharsets.UTF_8
+        );
+
+        String[] lines = plain.split("\n", -1);
+        int[] cursor = {0};
+
+        return new MerchantCounters(parse(lines, cursor), parse(lines, cursor));
+    }
+
+    private void seal(MerchantSketch sketch, MerchantCounters counters, SecretKey key) throws Exception {
+        StringBuilder plain = new StringBuilder();
+        write(plain, counters.frequent);
+        write(plain, counters.expensive);
+
+        sketch.setCounters(engine.seal(plain.toString().getBytes(StandardCharsets.UTF_8), key, aad(sketch.getId())));
+        sketch.setUpdatedAt(Instant.now());
+    }
+
+    // Cabeçalho "capacidade\ttotal\tpiso\tn" seguido de n linhas "estimativa\terro\tchave\tdescrição"
+    private static void write(StringBuilder out, SpaceSavingSketch sketch) {
+        List<Counter> counters = sketch.counters();
+
+        out.append(sketch.getCapacity()).append('\t')
+                .append(sketch.getTotal().toPlainString()).append('\t')
+                .append(sketch.getFloor().toPlainString()).append('\t')
+                .append(counters.size()).append('\n');
+
+        for (Counter counter : counters) {
+            out.append(counter.getEstimate().toPlainString()).append('\t')
+                    .append(counter.getError().toPlainString()).append('\t')
+                    .append(counter.getKey()).append('\t')
+                    .append(counter.getLabel()).append('\n');
+        }
+    }
+
+    private static SpaceSavingSketch parse(String[] lines, int[] cursor) {
+        String[] header = lines[cursor[0]++].split("\t");
+        SpaceSavingSketch sketch = new SpaceSavingSketch(Integer.parseInt(header[0]));
+
+        int count = Integer.parseInt(header[3]);
+        List<Counter> counters = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String[] fields = lines[cursor[0]++].split("\t", 4);
+            counters.add(new Counter(fields[2], fields[3], new BigDecimal(fields[0]), new BigDecimal(fields[1])));
+        }
+
+        sketch.restore(new BigDecimal(header[1]), new BigDecimal(header[2]), counters);
+        return sketch;
+    }
+
+    private static List<MerchantStatDTO> toStats(SpaceSavingSketch sketch, int limit) {
+        return sketch.top(limit).stream()
+                .map(counter -> new MerchantStatDTO(counter.getLabel(), counter.getEstimate(), counter.getError()))
+                .toList();
+    }
+
+    private static TransactionValues expenseOnly(TransactionValues values) {
+        return values == null || values.isIncome() ? null : values;
+    }
+
+    private static String monthOf(Instant date) {
+        return CategoryRollupService.monthOf(date);
+    }
+
+    private static byte[] aad(String sketchId) {
+        return ("merchant_sketch:" + sketchId).getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Os dois rankings de uma categoria no mês: por quantidade e por soma dos valores
+    public static final class MerchantCounters {
+
+        private final SpaceSavingSketch frequent;
+        private final SpaceSavingSketch expensive;
+
+        MerchantCounters(int capacity) {
+            this(new SpaceSavingSketch(capacity), new SpaceSavingSketch(capacity));
+        }
+
+        private MerchantCounters(SpaceSavingSketch frequent, SpaceSavingSketch expensive) {
+            this.frequent = frequent;
+            this.expensive = expensive;
+        }
+
+        void add(TransactionValues values) {
+            String key = keyOf(values.description());
+            String label = labelOf(values.description());
+
+            frequent.add(key, label, BigDecimal.ONE);
+            expensive.add(key, label, values.amount());
+        }
+
+        void remove(TransactionValues values) {
+            String key = keyOf(values.description());
+
+            frequent.remove(key, BigDecimal.ONE);
+            expensive.remove(key, values.amount());
+        }
+
+        // Palavras normalizadas sem os números (parcelas, datas, códigos de autorização), para que
+        // "UBER *TRIP 1234" e "Uber trip 5678" caiam no mesmo contador
+        private static String keyOf(String description) {
+            String key = SearchTokenizer.words(description).stream()
+                    .filter(word -> !word.chars().allMatch(Character::isDigit))
+                    .collect(Collectors.joining(" "));
+
+            return key.length() > MAX_KEY ? key.substring(0, MAX_KEY) : key;
+        }
+
+        private static String labelOf(String description) {
+            if (description == null || description.isBlank()) {
+                return NO_DESCRIPTION;
+            }
+
+            String label = description.strip().replaceAll("\\s+", " ");
+            return label.length() > MAX_LABEL ? label.substring(0, MAX_LABEL) : label;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+import com.finance_dashboard.ProjetoT1.model.Transaction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Cache LRU (por usuário e mês UTC) das transações do mês já descriptografadas, para quem alterna
+// entre meses e abas do painel. Limitado por um orçamento global de bytes (estimado) e por
+// tempo ocioso, e desligado por padrão (app.transactions.month-cache.enabled).
+// As fatias são somente leitura: são devolvidas como estão a todos os leitores.
+// Acertos, ocupação e evicções são publicados por JMX.
+@Component
+@ManagedResource(objectName = "ProjetoT1:type=MonthSliceCache")
+public class MonthSliceCache implements TransactionWriteListener {
+
+    // Cabeçalho + campos da entidade, os três Instant e a entrada na lista
+    private static final long TRANSACTION_OVERHEAD = 160;
+    private static final long STRING_OVERHEAD = 48;
+    private static final long ENTRY_OVERHEAD = 128;
+
+    // Acima disso o mapa de gerações é esvaziado (ver bump)
+    private static final int MAX_TRACKED_USERS = 10_000;
+
+    private final Map<SliceKey, Slice> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // Geração de invalidação por usuário, tirada de um contador global: uma carga que começou antes
+    // de uma invalidação do mesmo usuário não é guardada; escritas de outros usuários não interferem.
+    // Usuários fora do mapa valem "floor". Protegidos pelo lock do cache
+    private final Map<String, Long> generations = new HashMap<>();
+    private long sequence;
+    private long floor;
+
+    private final boolean enabled;
+    private final long maxBytes;
+    private final long idleTtlNanos;
+
+    private long bytes;
+
+    public MonthSliceCache(
+            @Value("${app.transactions.month-cache.enabled:false}") boolean enabled,
+            @Value("${app.transactions.month-cache.max-bytes:67108864}") long maxBytes,
+            @Value("${app.transactions.month-cache.idle-ttl:PT10M}") Duration idleTtl
+    ) {
+        this.enabled = enabled;
+        this.maxBytes = maxBytes;
+        this.idleTtlNanos = idleTtl.toNanos();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<Transaction> get(String userEmail, YearMonth month) {
+        long now = System.nanoTime();
+
+        synchronized (cache) {
+            Slice slice = cache.get(new SliceKey(userEmail, month));
+
+            if (slice == null || now - slice.lastAccess > idleTtlNanos) {
+                if (slice != null) {
+                    remove(new SliceKey(userEmail, month));
+                }
+                misses.increment();
+                return null;
+            }
+
+            slice.lastAccess = now;
+            hits.increment();
+            return slice.transactions;
+        }
+    }
+
+    // Valor a passar para put, lido antes de consultar o banco
+    public long stamp(String userEmail) {
+        synchronized (cache) {
+            return generations.getOrDefault(userEmail, floor);
+        }
+    }
+
+    // Devolve a fatia como ficou guardada (imutável); não guarda se houve escrita desde o stamp
+    public List<Transaction> put(String userEmail, YearMonth month, List<Transaction> transactions, long stamp) {
+        List<Transaction> slice = List.copyOf(transactions);
+        long size = estimate(slice);
+
+        // Uma fatia maior que o orçamento inteiro só esvaziaria o cache
+        if (!enabled || size > maxBytes) {
+            return slice;
+        }
+
+        long now = System.nanoTime();
+
+        synchronized (cache) {
+            if (generations.getOrDefault(userEmail, floor) != stamp) {
+                return slice;
+            }
+
+            SliceKey key = new SliceKey(userEmail, month);
+            remove(key);
+            cache.put(key, new Slice(slice, size, now));
+            bytes += size;
+
+            evictExpiredAndOverflow(now);
+        }
+
+        return slice;
+    }
+
+    public void invalidate(String userEmail, YearMonth month) {
+        synchronized (cache) {
+            bump(userEmail);
+            remove(new SliceKey(userEmail, month));
+        }
+    }
+
+    @Override
+    public void onChange(TransactionChange change) {
+        if (!enabled) {
+            return;
+        }
+
+        // Uma edição que troca a data mexe em dois meses
+        if (change.before() != null) {
+            invalidate(change.userEmail(), change.before().date());
+        }
+        if (change.after() != null) {
+            invalidate(change.userEmail(), change.after().date());
+        }
+    }
+
+    @Override
+    public void onBulkInsert(String userEmail, SecretKey key, List<TransactionValues> inserted) {
+        if (!enabled) {
+            return;
+        }
+
+        inserted.stream()
+                .map(TransactionValues::date)
+                .map(MonthSliceCache::monthOf)
+                .distinct()
+                .forEach(month -> invalidate(userEmail, month));
+    }
+
+    @Override
+    public void discard(String userEmail) {
+        synchronized (cache) {
+            bump(userEmail);
+            cache.keySet().stream()
+                    .filter(key -> key.userEmail().equals(userEmail))
+                    .toList()
+                    .forEach(this::remove);
+        }
+    }
+
+    @ManagedAttribute(description = "Leituras servidas do cache")
+    public long getHits() {
+        return hits.sum();
+    }
+
+    @ManagedAttribute(description = "Leituras que descriptografaram o mês")
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @ManagedAttribute(description = "Acertos / (acertos + faltas)")
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    @ManagedAttribute(description = "Fatias removidas por orçamento de bytes ou tempo ocioso")
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @ManagedAttribute(description = "Bytes estimados em cache")
+    public long getBytes() {
+        synchronized (cache) {
+            return bytes;
+        }
+    }
+
+    @ManagedAttribute(description = "Fatias em cache")
+    public int getSize() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private void invalidate(String userEmail, Instant date) {
+        invalidate(userEmail, monthOf(date));
+    }
+
+    private static YearMonth monthOf(Instant date) {
+        return date == null ? null : YearMonth.from(date.atZone(ZoneOffset.UTC));
+    }
+
+    // Chamado com o lock do cache. Esvaziar o mapa só pode recusar cargas a mais, nunca aceitar uma
+    // velha: "floor" passa a ser o maior valor já entregue, diferente de qualquer stamp anterior a
+    // uma invalidação
+    private void bump(String userEmail) {
+        generations.put(userEmail, ++sequence);
+
+        if (generations.size() > MAX_TRACKED_USERS) {
+            generations.clear();
+            floor = sequence;
+        }
+    }
+
+    // Chamado com o lock do cache
+    private void remove(SliceKey key) {
+        Slice removed = cache.remove(key);
+        if (removed != null) {
+            bytes -= removed.bytes;
+        }
+    }
+
+    // Chamado com o lock do cache: remove entradas ociosas e, depois, as menos usadas
+    private void evictExpiredAndOverflow(long now) {
+        Iterator<Slice> it = cache.values().iterator();
+
+        while (it.hasNext()) {
+            Slice slice = it.next();
+            if (bytes > maxBytes || now - slice.lastAccess > idleTtlNanos) {
+                it.remove();
+                bytes -= slice.bytes;
+                evictions.increment();
+            } else {
+                // Ordem de acesso: a partir daqui todas as entradas são mais recentes
+                break;
+            }
+        }
+    }
+
+    // Estimativa do heap retido: objetos fixos + 2 bytes por caractere de cada String
+    private static long estimate(List<Transaction> transactions) {
+        long size = ENTRY_OVERHEAD;
+        for (Transaction t : transactions) {
+            size += TRANSACTION_OVERHEAD
+                    + sizeOf(t.getId())
+                    + sizeOf(t.getDescription())
+                    + sizeOf(t.getAmount())
+                    + sizeOf(t.getType())
+                    + sizeOf(t.getCategoryId())
+                    + sizeOf(t.getUserEmail());
+        }
+        return size;
+    }
+
+    private static long sizeOf(String value) {
+        return value == null ? 0 : STRING_OVERHEAD + 2L * value.length();
+    }
+
+    private record SliceKey(String userEmail, YearMonth month) {
+    }
+
+    private static final class Slice {
+        private final List<Transaction> transactions;
+        private final long bytes;
+        private long lastAccess;
+
+        private Slice(List<Transaction> transactions, long bytes, long lastAccess) {
+            this.transactions = transactions;
+            this.bytes = bytes;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
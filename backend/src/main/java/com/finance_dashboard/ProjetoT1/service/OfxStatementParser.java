@@ -0,0 +1,139 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+// Leitor preguiçoso de OFX (1.x SGML e 2.x XML): percorre as tags em streaming e entrega
+// um <STMTTRN> por vez. Tags de fechamento dos campos são opcionais, como no SGML dos bancos.
+public class OfxStatementParser implements Iterator<StatementLine> {
+
+    private final Reader reader;
+    private int peeked = -2;
+    private int position = 0;
+
+    private StatementLine next;
+
+    public OfxStatementParser(Reader reader) {
+        this.reader = reader;
+        advance();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    @Override
+    public StatementLine next() {
+        if (next == null) {
+            throw new NoSuchElementException();
+        }
+        StatementLine current = next;
+        advance();
+        return current;
+    }
+
+    private void advance() {
+        next = null;
+
+        String tag;
+        while ((tag = nextTag()) != null) {
+            if (tag.equals("STMTTRN")) {
+                next = readTransaction();
+                return;
+            }
+        }
+    }
+
+    private StatementLine readTransaction() {
+        Map<String, String> fields = new HashMap<>();
+
+        String tag;
+        while ((tag = nextTag()) != null && !tag.equals("/STMTTRN")) {
+            if (!tag.startsWith("/")) {
+                fields.put(tag, readText());
+            }
+        }
+
+        position++;
+
+        String memo = fields.get("MEMO");
+        String description = memo == null || memo.isBlank() ? fields.get("NAME") : memo;
+
+        return new StatementLine(
+                position,
+                date(fields.get("DTPOSTED")),
+                description,
+                fields.get("TRNAMT"),
+                null,
+                null,
+                fields.get("FITID")
+        );
+    }
+
+    // DTPOSTED: AAAAMMDD[HHMMSS[.XXX]][[-3:BRT]]; só o dia interessa
+    private static String date(String value) {
+        if (value == null || value.length() < 8) {
+            return value;
+        }
+        return value.substring(0, 4) + "-" + value.substring(4, 6) + "-" + value.substring(6, 8);
+    }
+
+    private String nextTag() {
+        int c;
+        while ((c = read()) != -1 && c != '<') {
+            // ignora texto fora de tags (cabeçalho OFX 1.x, quebras de linha)
+        }
+        if (c == -1) {
+            return null;
+        }
+
+        StringBuilder tag = new StringBuilder();
+        while ((c = read()) != -1 && c != '>') {
+            tag.append((char) c);
+        }
+        return tag.toString().trim().toUpperCase(Locale.ROOT);
+    }
+
+    private String readText() {
+        StringBuilder text = new StringBuilder();
+        int c;
+        while ((c = peek()) != -1 && c != '<') {
+            text.append((char) read());
+        }
+        return text.toString().trim()
+                .replace("&lt;", "<")
+                .replace("&gt;", ">")
+                .replace("&amp;", "&");
+    }
+
+    private int read() {
+        if (peeked != -2) {
+            int c = peeked;
+            peeked = -2;
+            return c;
+        }
+        try {
+            return reader.read();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int peek() {
+        if (peeked == -2) {
+            try {
+                peeked = reader.read();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return peeked;
+    }
+}
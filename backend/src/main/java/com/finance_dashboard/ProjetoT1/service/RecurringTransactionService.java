@@ -0,0 +1,489 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+import com.finance_dashboard.ProjetoT1.dto.RecurringRuleDTO;
+import com.finance_dashboard.ProjetoT1.dto.RecurringRuleRequestDTO;
+import com.finance_dashboard.ProjetoT1.model.RecurrenceFrequency;
+import com.finance_dashboard.ProjetoT1.model.RecurringRule;
+import com.finance_dashboard.ProjetoT1.model.Transaction;
+import com.finance_dashboard.ProjetoT1.repository.RecurringRuleRepository;
+import com.finance_dashboard.ProjetoT1.repository.TransactionRepository;
+import com.finance_dashboard.ProjetoT1.security.CryptoEngine;
+import com.finance_dashboard.ProjetoT1.security.TransactionCipher;
+import com.finance_dashboard.ProjetoT1.security.TransactionPayload;
+import com.finance_dashboard.ProjetoT1.security.UserKeyService;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.jsoup.Jsoup;
+import org.jsoup.safety.Safelist;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+// Regras recorrentes (semanal, mensal ou cron) e o agendador que materializa as ocorrências vencidas.
+// A varredura lê as regras vencidas em lotes ordenados por usuário; cada usuário do lote vira uma
+// tarefa num pool próprio e limitado (não disputa as threads das requisições), a chave dele é aberta
+// uma única vez por execução e as ocorrências entram num insert não ordenado por lote.
+// Cada ocorrência leva occurrenceKey "regra|data" sob índice único: se a execução cair entre o
+// insert e o avanço da regra, a próxima gera as mesmas chaves e as duplicatas são descartadas.
+@Service
+public class RecurringTransactionService {
+
+    private static final int DUPLICATE_KEY = 11000;
+    private static final char SEPARATOR = '\n';
+
+    private final RecurringRuleRepository ruleRepository;
+    private final TransactionRepository transactionRepository;
+    private final MongoTemplate mongoTemplate;
+    private final UserKeyService userKeyService;
+    private final TransactionCipher transactionCipher;
+    private final CryptoEngine engine;
+    private final CategoryCatalog categoryCatalog;
+    private final TransactionWritePublisher writePublisher;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxCatchUp;
+    private final ExecutorService workers;
+
+    public RecurringTransactionService(
+            RecurringRuleRepository ruleRepository,
+            TransactionRepository transactionRepository,
+            MongoTemplate mongoTemplate,
+            UserKeyService userKeyService,
+            TransactionCipher transactionCipher,
+            CryptoEngine engine,
+            CategoryCatalog categoryCatalog,
+            TransactionWritePublisher writePublisher,
+            @Value("${app.transactions.recurring.enabled:true}") boolean enabled,
+            @Value("${app.transactions.recurring.batch-size:500}") int batchSize,
+            @Value("${app.transactions.recurring.workers:2}") int workers,
+            @Value("${app.transactions.recurring.max-catch-up:60}") int maxCatchUp
+    ) {
+        this.ruleRepository = ruleRepository;
+        this.transactionRepository = transactionRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.userKeyService = userKeyService;
+        this.transactionCipher = transactionCipher;
+        this.engine = engine;
+        this.categoryCatalog = categoryCatalog;
+        this.writePublisher = writePublisher;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxCatchUp = Math.max(1, maxCatchUp);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(1, workers), runnable -> {
+            Thread thread = new Thread(runnable, "recurring-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public List<RecurringRuleDTO> list(String userEmail) {
+        List<RecurringRule> rules = ruleRepository.findByUserEmailOrderByCreatedAtDesc(userEmail);
+        if (rules.isEmpty()) {
+            return List.of();
+        }
+
+        SecretKey key;
+        try {
+            key = userKeyService.findUserSecretKey(userEmail).orElse(null);
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao processar criptografia das regras recorrentes", e);
+        }
+
+        return rules.stream().map(rule -> toDTO(rule, openOrProtected(rule, key))).toList();
+    }
+
+    public RecurringRuleDTO create(String userEmail, RecurringRuleRequestDTO dto) {
+        categoryCatalog.find(dto.getCategoryId())
+                .filter(category -> category.availableTo(userEmail))
+                .orElseThrow(() -> new IllegalArgumentException("Categoria não encontrada"));
+
+        if (dto.getEndDate() != null && dto.getEndDate().isBefore(dto.getStartDate())) {
+            throw new IllegalArgumentException("A data final deve ser posterior à data de início");
+        }
+
+        RecurringRule rule = new RecurringRule();
+        rule.setId(new ObjectId().toHexString());
+        rule.setUserEmail(userEmail);
+        rule.setCategoryId(dto.getCategoryId());
+        rule.setFrequency(dto.getFrequency());
+        rule.setStartDate(dto.getStartDate());
+        rule.setEndDate(dto.getEndDate());
+
+        if (dto.getFrequency() == RecurrenceFrequency.CRON) {
+            rule.setCron(dto.getCron() == null ? null : dto.getCron().trim());
+            cronOf(rule);
+        }
+
+        LocalDate first = firstOccurrence(rule);
+        if (first == null || (rule.getEndDate() != null && first.isAfter(rule.getEndDate()))) {
+            throw new IllegalArgumentException("A regra não gera nenhuma ocorrência");
+        }
+        rule.setNextOccurrence(first);
+        rule.setActive(true);
+
+        Instant now = Instant.now();
+        rule.setCreatedAt(now);
+        rule.setUpdatedAt(now);
+
+        // Mesma sanitização do cadastro manual
+        TransactionPayload payload = new TransactionPayload(
+                Jsoup.clean(dto.getDescription(), Safelist.none()),
+                dto.getAmount().toPlainString(),
+                dto.getType().name()
+        );
+
+        SecretKey key;
+        try {
+            key = userKeyService.findUserSecretKey(userEmail)
+                    .orElseThrow(() -> new IllegalStateException("Usuário não possui chave de criptografia configurada."));
+            seal(rule, payload, key);
+        } catch (IllegalStateException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao processar criptografia da regra recorrente", e);
+        }
+
+        RecurringRule saved = ruleRepository.save(rule);
+
+        // Ocorrências que já venceram (ex.: início hoje ou no passado) não esperam o agendador, mas são
+        // geradas no pool limitado, fora da requisição (até maxCatchUp linhas e todos os listeners).
+        // Se o agendador pegar a mesma regra ao mesmo tempo, o índice do occurrenceKey descarta as repetidas
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        if (!first.isAfter(today)) {
+            workers.execute(() -> {
+                try {
+                    materializeUser(userEmail, key, List.of(saved), today);
+                } catch (Exception e) {
+                    System.err.println("Aviso: Falha ao gerar as ocorrências da regra " + saved.getId() + ": " + e.getMessage());
+                }
+            });
+        }
+
+        return toDTO(saved, payload);
+    }
+
+    public void delete(String userEmail, String id) {
+        RecurringRule rule = ruleRepository.findByIdAndUserEmail(id, userEmail)
+                .orElseThrow(() -> new RuntimeException("Regra recorrente não encontrada"));
+
+        // Transações já geradas permanecem; só deixam de surgir novas
+        ruleRepository.delete(rule);
+    }
+
+    @Scheduled(cron = "${app.transactions.recurring.cron:0 0 * * * *}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            materializeDue();
+        } catch (Exception e) {
+            System.err.println("Aviso: Falha ao gerar transações recorrentes: " + e.getMessage());
+        }
+    }
+
+    // Todas as ocorrências vencidas até hoje (UTC), de todos os usuários
+    public synchronized int materializeDue() throws InterruptedException {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+
+        // Uma abertura de chave por usuário na execução inteira, mesmo que as regras dele caiam em lotes diferentes
+        Map<String, Optional<SecretKey>> keys = new ConcurrentHashMap<>();
+
+        String lastUser = null;
+        String lastId = null;
+        int total = 0;
+
+        while (true) {
+            List<RecurringRule> batch = mongoTemplate.find(dueQuery(today, lastUser, lastId), RecurringRule.class);
+
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            Map<String, List<RecurringRule>> byUser = batch.stream().collect(Collectors.groupingBy(
+                    RecurringRule::getUserEmail,
+                    LinkedHashMap::new,
+                    Collectors.toList()
+            ));
+
+            List<Callable<Integer>> tasks = new ArrayList<>(byUser.size());
+            byUser.forEach((userEmail, rules) -> tasks.add(() -> {
+                Optional<SecretKey> key = keys.computeIfAbsent(userEmail, this::findKey);
+                return key.map(k -> materializeUser(userEmail, k, rules, today)).orElse(0);
+            }));
+
+            for (Future<Integer> result : workers.invokeAll(tasks)) {
+                try {
+                    total += result.get();
+                } catch (ExecutionException e) {
+                    System.err.println("Aviso: Falha ao gerar transações recorrentes de um usuário: "
+                            + e.getCause().getMessage());
+                }
+            }
+
+            RecurringRule last = batch.get(batch.size() - 1);
+            lastUser = last.getUserEmail();
+            lastId = last.getId();
+
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+
+        return total;
+    }
+
+    // Gera as ocorrências vencidas das regras de um usuário, grava em lotes e só então avança as regras
+    private int materializeUser(String userEmail, SecretKey key, List<RecurringRule> rules, LocalDate today) {
+        List<Transaction> pending = new ArrayList<>();
+        List<TransactionValues> values = new ArrayList<>();
+        List<RecurringRule> advanced = new ArrayList<>();
+
+        for (RecurringRule rule : rules) {
+            TransactionPayload payload;
+            try {
+                payload = open(rule, key);
+            } catch (Exception e) {
+                // Regra ilegível: fica como está, sem gerar nada
+                continue;
+            }
+
+            // Categoria removida depois da criação: a regra é encerrada
+            if (categoryCatalog.find(rule.getCategoryId()).filter(c -> c.availableTo(userEmail)).isEmpty()) {
+                rule.setActive(false);
+                advanced.add(rule);
+                continue;
+            }
+
+            LocalDate next = rule.getNextOccurrence();
+            int generated = 0;
+
+            try {
+                while (next != null && !next.isAfter(today) && !pastEnd(rule, next) && generated < maxCatchUp) {
+                    Transaction transaction = occurrence(rule, next);
+                    transactionCipher.seal(transaction, payload, key);
+
+                    pending.add(transaction);
+                    values.add(TransactionValues.of(transaction, payload));
+                    generated++;
+
+                    next = nextOccurrence(rule, next);
+                }
+            } catch (Exception e) {
+                continue;
+            }
+
+            if (next != null && pastEnd(rule, next)) {
+                next = null;
+            }
+
+            rule.setNextOccurrence(next);
+            rule.setActive(next != null);
+            advanced.add(rule);
+        }
+
+        List<TransactionValues> inserted = new ArrayList<>(pending.size());
+        boolean failed = false;
+
+        writePublisher.begin(userEmail);
+        try {
+            for (int from = 0; from < pending.size(); from += batchSize) {
+                int to = Math.min(from + batchSize, pending.size());
+                Map<Integer, Integer> rejected = transactionRepository.insertUnordered(pending.subList(from, to));
+
+                for (int i = from; i < to; i++) {
+                    Integer code = rejected.get(i - from);
+                    if (code == null) {
+                        inserted.add(values.get(i));
+                    } else if (code != DUPLICATE_KEY) {
+                        // Duplicata = já gerada numa execução interrompida; outro erro: tenta de novo na próxima
+                        failed = true;
+                    }
+                }
+            }
+
+            // Agregados ajustados uma vez por usuário
+            writePublisher.publishInserted(userEmail, key, inserted);
+        } finally {
+            writePublisher.end(userEmail);
+        }
+
+        if (!failed) {
+            Instant now = Instant.now();
+            for (RecurringRule rule : advanced) {
+                rule.setUpdatedAt(now);
+                try {
+                    ruleRepository.save(rule);
+                } catch (OptimisticLockingFailureException e) {
+                    // Regra removida durante a execução; as ocorrências já gravadas ficam
+                }
+            }
+        }
+
+        return inserted.size();
+    }
+
+    // Ativas com ocorrência até hoje, depois de (lastUser, lastId), na ordem do índice active_user_id_next_idx
+    private Query dueQuery(LocalDate today, String lastUser, String lastId) {
+        Criteria criteria = Criteria.where("active").is(true).and("nextOccurrence").lte(today);
+
+        if (lastUser != null) {
+            criteria = new Criteria().andOperator(
+                    criteria,
+                    new Criteria().orOperator(
+                            Criteria.where("userEmail").gt(lastUser),
+                            Criteria.where("userEmail").is(lastUser).and("_id").gt(new ObjectId(lastId))
+                    )
+            );
+        }
+
+        return new Query(criteria)
+                .with(Sort.by(Sort.Order.asc("userEmail"), Sort.Order.asc("_id")))
+                .limit(batchSize);
+    }
+
+    private Transaction occurrence(RecurringRule rule, LocalDate date) {
+        Transaction transaction = new Transaction();
+        transaction.setId(new ObjectId().toHexString());
+        transaction.setCategoryId(rule.getCategoryId());
+        transaction.setDate(date.atStartOfDay(ZoneOffset.UTC).toInstant());
+        transaction.setUserEmail(rule.getUserEmail());
+        transaction.setOccurrenceKey(rule.getId() + "|" + date);
+
+        Instant now = Instant.now();
+        transaction.setCreatedAt(now);
+        transaction.setUpdatedAt(now);
+        return transaction;
+    }
+
+    private Optional<SecretKey> findKey(String userEmail) {
+        try {
+            return userKeyService.findUserSecretKey(userEmail);
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
+
+    static LocalDate firstOccurrence(RecurringRule rule) {
+        if (rule.getFrequency() == RecurrenceFrequency.CRON) {
+            return dateOf(cronOf(rule).next(rule.getStartDate().atStartOfDay().minusNanos(1)));
+        }
+        return rule.getStartDate();
+    }
+
+    // Próxima ocorrência estritamente depois de "after" (que é uma ocorrência da regra)
+    static LocalDate nextOccurrence(RecurringRule rule, LocalDate after) {
+        return switch (rule.getFrequency()) {
+            case WEEKLY -> after.plusWeeks(1);
+            case MONTHLY -> {
+                YearMonth month = YearMonth.from(after).plusMonths(1);
+                yield month.atDay(Math.min(rule.getStartDate().getDayOfMonth(), month.lengthOfMonth()));
+            }
+            case CRON -> dateOf(cronOf(rule).next(after.atTime(LocalTime.MAX)));
+        };
+    }
+
+    private static CronExpression cronOf(RecurringRule rule) {
+        if (rule.getCron() == null || rule.getCron().isBlank()) {
+            throw new IllegalArgumentException("Expressão cron é obrigatória para a frequência CRON");
+        }
+
+        try {
+            return CronExpression.parse(rule.getCron());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Expressão cron inválida");
+        }
+    }
+
+    private static LocalDate dateOf(LocalDateTime dateTime) {
+        return dateTime == null ? null : dateTime.toLocalDate();
+    }
+
+    private static boolean pastEnd(RecurringRule rule, LocalDate date) {
+        return rule.getEndDate() != null && date.isAfter(rule.getEndDate());
+    }
+
+    private RecurringRuleDTO toDTO(RecurringRule rule, TransactionPayload payload) {
+        return new RecurringRuleDTO(
+                rule.getId(),
+                payload.description(),
+                new BigDecimal(payload.amount()),
+                payload.type(),
+                rule.getCategoryId(),
+                rule.getFrequency(),
+                rule.getCron(),
+                rule.getStartDate(),
+                rule.getEndDate(),
+                rule.getNextOccurrence(),
+                rule.isActive()
+        );
+    }
+
+    // Mesmo layout do envelope das transações: "type\namount\ndescription"
+    private void seal(RecurringRule rule, TransactionPayload payload, SecretKey key) throws Exception {
+        String plain = payload.type() + SEPARATOR + payload.amount() + SEPARATOR + payload.description();
+        rule.setPayload(engine.seal(plain.getBytes(StandardCharsets.UTF_8), key, aad(rule.getId())));
+    }
+
+    private TransactionPayload open(RecurringRule rule, SecretKey key) throws Exception {
+        String plain = new String(engine.open(rule.getPayload(), key, aad(rule.getId())), StandardCharsets.UTF_8);
+
+        int first = plain.indexOf(SEPARATOR);
+        int second = plain.indexOf(SEPARATOR, first + 1);
+
+        return new TransactionPayload(plain.substring(second + 1), plain.substring(first + 1, second), plain.substring(0, first));
+    }
+
+    private TransactionPayload openOrProtected(RecurringRule rule, SecretKey key) {
+        if (key == null) {
+            return TransactionCipher.PROTECTED;
+        }
+
+        try {
+            return open(rule, key);
+        } catch (Exception e) {
+            return TransactionCipher.PROTECTED;
+        }
+    }
+
+    private static byte[] aad(String ruleId) {
+        return ("recurring_rule:" + ruleId).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdown();
+    }
+}
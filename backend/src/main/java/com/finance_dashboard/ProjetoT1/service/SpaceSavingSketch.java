@@ -0,0 +1,144 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Space-Saving ponderado (Metwally et al.) com no máximo "capacity" contadores.
+// Cada contador guarda uma estimativa e o erro máximo dela: o peso real do item está sempre em
+// [estimate - error, estimate]. Só com inserções, error <= total / capacity.
+// Exclusões descontam do contador quando o item está sendo rastreado; um item que entra no lugar de
+// outro herda o maior peso já descartado ("floor"), o que mantém a estimativa como limite superior
+// mesmo depois de exclusões (aí o erro pode passar de total / capacity, mas o erro reportado vale).
+public final class SpaceSavingSketch {
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    private BigDecimal total = BigDecimal.ZERO;
+    private BigDecimal floor = BigDecimal.ZERO;
+
+    public SpaceSavingSketch(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacidade inválida");
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    public void add(String key, String label, BigDecimal weight) {
+        if (weight.signum() <= 0) {
+            return;
+        }
+
+        total = total.add(weight);
+
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            counter.estimate = counter.estimate.add(weight);
+            counter.label = label;
+            return;
+        }
+
+        if (counters.size() >= capacity) {
+            // Substitui o menor contador (capacidade pequena: a busca linear é suficiente)
+            Counter smallest = counters.values().stream()
+                    .min(Comparator.comparing((Counter c) -> c.estimate))
+                    .orElseThrow();
+            counters.remove(smallest.key);
+            floor = floor.max(smallest.estimate);
+        }
+
+        counters.put(key, new Counter(key, label, floor.add(weight), floor));
+    }
+
+    public void remove(String key, BigDecimal weight) {
+        if (weight.signum() <= 0) {
+            return;
+        }
+
+        total = total.subtract(weight).max(BigDecimal.ZERO);
+
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            // Não rastreado: o peso real dele já está coberto por "floor"
+            return;
+        }
+
+        counter.estimate = counter.estimate.subtract(weight);
+        if (counter.estimate.signum() <= 0) {
+            counters.remove(key);
+        } else if (counter.error.compareTo(counter.estimate) > 0) {
+            counter.error = counter.estimate;
+        }
+    }
+
+    // Maiores estimativas primeiro; no empate, o maior valor garantido (estimate - error)
+    public List<Counter> top(int limit) {
+        return counters.values().stream()
+                .sorted(Comparator.comparing((Counter c) -> c.estimate).reversed()
+                        .thenComparing(Comparator.comparing((Counter c) -> c.estimate.subtract(c.error)).reversed())
+                        .thenComparing(c -> c.key))
+                .limit(limit)
+                .toList();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public BigDecimal getFloor() {
+        return floor;
+    }
+
+    public List<Counter> counters() {
+        return new ArrayList<>(counters.values());
+    }
+
+    // Usado na leitura do formato serializado
+    void restore(BigDecimal total, BigDecimal floor, List<Counter> restored) {
+        this.total = total;
+        this.floor = floor;
+        counters.clear();
+        for (Counter counter : restored) {
+            counters.put(counter.key, counter);
+        }
+    }
+
+    public static final class Counter {
+
+        private final String key;
+        private String label;
+        private BigDecimal estimate;
+        private BigDecimal error;
+
+        Counter(String key, String label, BigDecimal estimate, BigDecimal error) {
+            this.key = key;
+            this.label = label;
+            this.estimate = estimate;
+            this.error = error;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public BigDecimal getEstimate() {
+            return estimate;
+        }
+
+        public BigDecimal getError() {
+            return error;
+        }
+    }
+}
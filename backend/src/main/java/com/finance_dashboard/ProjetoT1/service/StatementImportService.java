@@ -0,0 +1,473 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+import com.finance_dashboard.ProjetoT1.config.AuthenticatedUser;
+import com.finance_dashboard.ProjetoT1.dto.ImportResultDTO;
+import com.finance_dashboard.ProjetoT1.dto.ImportRowErrorDTO;
+import com.finance_dashboard.ProjetoT1.dto.TransactionRequestDTO;
+import com.finance_dashboard.ProjetoT1.model.Transaction;
+import com.finance_dashboard.ProjetoT1.model.TransactionType;
+import com.finance_dashboard.ProjetoT1.repository.TransactionRepository;
+import com.finance_dashboard.ProjetoT1.security.CryptoEngine;
+import com.finance_dashboard.ProjetoT1.security.TransactionCipher;
+import com.finance_dashboard.ProjetoT1.security.TransactionPayload;
+import com.finance_dashboard.ProjetoT1.security.UserKeyService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.bson.types.ObjectId;
+import org.jsoup.Jsoup;
+import org.jsoup.safety.Safelist;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.crypto.SecretKey;
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Importação de extratos CSV/OFX em lotes: o arquivo é lido sob demanda, cada lote é validado e
+// sanitizado, criptografado em paralelo e gravado com um único insert não ordenado.
+// Chave do usuário e categorias são resolvidas uma vez por arquivo. Cada linha leva um importHash
+// (HMAC com chave derivada da do usuário) sob índice único, então reimportar o mesmo extrato
+// não duplica lançamentos.
+@Service
+public class StatementImportService {
+
+    private static final String IMPORT_HASH_PURPOSE = "transaction-import-hash";
+    private static final String DEFAULT_CATEGORY = "outros";
+    private static final int DUPLICATE_KEY = 11000;
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("dd/MM/yyyy"),
+            DateTimeFormatter.ofPattern("yyyyMMdd")
+    );
+
+    private final TransactionRepository transactionRepository;
+    private final UserKeyService userKeyService;
+    private final TransactionCipher transactionCipher;
+    private final CryptoEngine engine;
+    private final CategoryCatalog categoryCatalog;
+    private final BulkDecryptionExecutor bulkExecutor;
+    private final TransactionWritePublisher writePublisher;
+    private final Validator validator;
+    private final int batchSize;
+
+    public StatementImportService(
+            TransactionRepository transactionRepository,
+            UserKeyService userKeyService,
+            TransactionCipher transactionCipher,
+            CryptoEngine engine,
+            CategoryCatalog categoryCatalog,
+            BulkDecryptionExecutor bulkExecutor,
+            TransactionWritePublisher writePublisher,
+            Validator validator,
+            @Value("${app.transactions.import.batch-size:500}") int batchSize
+    ) {
+        this.transactionRepository = transactionRepository;
+        this.userKeyService = userKeyService;
+        this.transactionCipher = transactionCipher;
+        this.engine = engine;
+        this.categoryCatalog = categoryCatalog;
+        this.bulkExecutor = bulkExecutor;
+        this.writePublisher = writePublisher;
+        this.validator = validator;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public ImportResultDTO importStatement(MultipartFile file, String format, String defaultCategoryId) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Arquivo vazio");
+        }
+
+        StatementFormat statementFormat = StatementFormat.detect(format, file.getOriginalFilename());
+        String userEmail = AuthenticatedUser.getEmail();
+
+        SecretKey userKey;
+        SecretKey hashKey;
+        try {
+            userKey = userKeyService.findUserSecretKey(userEmail)
+                    .orElseThrow(() -> new IllegalStateException("Usuário não possui chave de criptografia configurada."));
+            hashKey = engine.deriveKey(userKey, IMPORT_HASH_PURPOSE);
+        } catch (IllegalStateException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao processar criptografia da importação", e);
+        }
+
+        ImportRun run = new ImportRun(
+                userEmail,
+                userKey,
+                hashKey,
+                new CategoryIndex(categoryCatalog.availableTo(userEmail), defaultCategoryId)
+        );
+
+        try (Reader reader = statementFormat.open(file.getInputStream())) {
+            Iterator<StatementLine> lines = statementFormat.parser(reader);
+
+            List<StatementLine> batch = new ArrayList<>(batchSize);
+            while (lines.hasNext()) {
+                batch.add(lines.next());
+
+                if (batch.size() == batchSize) {
+                    importBatch(run, batch);
+                    batch.clear();
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                importBatch(run, batch);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new RuntimeException("Erro ao ler o arquivo de importação", e);
+        }
+
+        return new ImportResultDTO(run.total, run.imported, run.duplicates, run.failed, run.errors);
+    }
+
+    private void importBatch(ImportRun run, List<StatementLine> batch) {
+        run.total += batch.size();
+
+        // 1. Validação e sanitização (sequencial: o contador de ocorrências do hash depende da ordem)
+        List<PreparedRow> rows = new ArrayList<>(batch.size());
+        for (StatementLine line : batch) {
+            try {
+                rows.add(prepare(run, line));
+            } catch (IllegalArgumentException e) {
+                run.fail(line.line(), e.getMessage());
+            }
+        }
+
+        // 2. Criptografia em paralelo (mesmo pool limitado da descriptografia em massa). O lote de
+        // importação é menor que o limite de paralelismo das leituras, então o caminho paralelo é explícito
+        bulkExecutor.forEachParallel(rows, row -> {
+            try {
+                transactionCipher.seal(row.transaction, row.payload, run.userKey);
+            } catch (Exception e) {
+                row.error = "Erro ao processar criptografia";
+            }
+        });
+
+        List<PreparedRow> sealed = new ArrayList<>(rows.size());
+        for (PreparedRow row : rows) {
+            if (row.error != null) {
+                run.fail(row.line, row.error);
+            } else {
+                sealed.add(row);
+            }
+        }
+
+        if (sealed.isEmpty()) {
+            return;
+        }
+
+        writePublisher.begin(run.userEmail);
+        try {
+            // 3. Um insert não ordenado por lote: duplicatas (índice único do importHash) não param as demais
+            Map<Integer, Integer> rejected = transactionRepository.insertUnordered(
+                    sealed.stream().map(row -> row.transaction).toList()
+            );
+
+            rejected.forEach((index, code) -> {
+                if (code == DUPLICATE_KEY) {
+                    run.duplicates++;
+                } else {
+                    run.fail(sealed.get(index).line, "Erro ao gravar a transação");
+                }
+            });
+
+            List<TransactionValues> inserted = new ArrayList<>(sealed.size());
+            for (int i = 0; i < sealed.size(); i++) {
+                if (!rejected.containsKey(i)) {
+                    inserted.add(sealed.get(i).values);
+                }
+            }
+            run.imported += inserted.size();
+
+            // 4. Agregados ajustados uma vez por lote
+            writePublisher.publishInserted(run.userEmail, run.userKey, inserted);
+        } finally {
+            writePublisher.end(run.userEmail);
+        }
+    }
+
+    private PreparedRow prepare(ImportRun run, StatementLine line) {
+        LocalDate date = parseDate(line.date());
+
+        // Mesmas regras do TransactionRequestDTO (tamanho da descrição, data não futura)
+        validate("date", date);
+        validate("description", line.description());
+
+        // Mesma sanitização do cadastro manual
+        String description = line.description() == null ? "" : Jsoup.clean(line.description(), Safelist.none()).trim();
+        if (description.isBlank()) {
+            throw new IllegalArgumentException("Descrição é obrigatória");
+        }
+
+        BigDecimal signedAmount = parseAmount(line.amount());
+        TransactionType type = parseType(line.type(), signedAmount);
+        BigDecimal amount = signedAmount.abs();
+
+        if (amount.signum() == 0) {
+            throw new IllegalArgumentException("Valor deve ser maior que zero");
+        }
+
+        String categoryId = run.categories.resolve(line.category());
+
+        Transaction transaction = new Transaction();
+        transaction.setId(new ObjectId().toHexString());
+        transaction.setCategoryId(categoryId);
+        transaction.setDate(date.atStartOfDay(ZoneOffset.UTC).toInstant());
+        transaction.setUserEmail(run.userEmail);
+        transaction.setImportHash(importHash(run, line, date, amount, type, description));
+
+        Instant now = Instant.now();
+        transaction.setCreatedAt(now);
+        transaction.setUpdatedAt(now);
+
+        TransactionPayload payload = new TransactionPayload(description, amount.toPlainString(), type.name());
+
+        return new PreparedRow(line.line(), transaction, payload, TransactionValues.of(transaction, payload));
+    }
+
+    private void validate(String property, Object value) {
+        validator.validateValue(TransactionRequestDTO.class, property, value).stream()
+                .map(ConstraintViolation::getMessage)
+                .findFirst()
+                .ifPresent(message -> {
+                    throw new IllegalArgumentException(message);
+                });
+    }
+
+    // Linhas idênticas no mesmo arquivo são lançamentos distintos: o número da ocorrência entra no hash
+    private String importHash(
+            ImportRun run,
+            StatementLine line,
+            LocalDate date,
+            BigDecimal amount,
+            TransactionType type,
+            String description
+    ) {
+        String canonical = line.externalId() != null && !line.externalId().isBlank()
+                ? "id:" + line.externalId()
+                : date + "|" + amount.stripTrailingZeros().toPlainString() + "|" + type.name() + "|" + description;
+
+        int occurrence = run.occurrences.merge(canonical, 1, Integer::sum);
+
+        try {
+            byte[] mac = engine.hmac(run.hashKey, (canonical + "#" + occurrence).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(mac);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Erro ao processar criptografia");
+        }
+    }
+
+    private static LocalDate parseDate(String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Data é obrigatória");
+        }
+
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(value.trim(), format);
+            } catch (DateTimeParseException e) {
+                // tenta o próximo formato
+            }
+        }
+
+        throw new IllegalArgumentException("Data inválida: " + value);
+    }
+
+    // Aceita "1234.56", "-1234.56", "1.234,56" e "R$ 1.234,56"
+    private static BigDecimal parseAmount(String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Valor é obrigatório");
+        }
+
+        String normalized = value.replace("R$", "").replace(" ", "").trim();
+
+        int comma = normalized.lastIndexOf(',');
+        int dot = normalized.lastIndexOf('.');
+        if (comma > dot) {
+            normalized = normalized.replace(".", "").replace(',', '.');
+        } else if (comma >= 0) {
+            normalized = normalized.replace(",", "");
+        }
+
+        try {
+            return new BigDecimal(normalized);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido: " + value);
+        }
+    }
+
+    // Sem coluna de tipo, o sinal do valor decide (negativo = despesa)
+    private static TransactionType parseType(String value, BigDecimal signedAmount) {
+        if (value == null || value.isBlank()) {
+            return signedAmount.signum() < 0 ? TransactionType.EXPENSE : TransactionType.INCOME;
+        }
+
+        return switch (value.trim().toUpperCase(Locale.ROOT)) {
+            case "INCOME", "RECEITA", "CREDIT", "CREDITO", "C" -> TransactionType.INCOME;
+            case "EXPENSE", "DESPESA", "DEBIT", "DEBITO", "D" -> TransactionType.EXPENSE;
+            default -> throw new IllegalArgumentException("Tipo inválido: " + value);
+        };
+    }
+
+    // Categorias do usuário por id e por nome normalizado, carregadas uma vez por importação
+    private static final class CategoryIndex {
+
+        private final Map<String, String> byId = new HashMap<>();
+        private final Map<String, String> byName = new HashMap<>();
+        private final String defaultCategoryId;
+
+        CategoryIndex(List<CategoryCatalog.CategoryRef> categories, String requestedDefault) {
+            for (CategoryCatalog.CategoryRef category : categories) {
+                byId.put(category.id(), category.id());
+                // Categoria própria com o mesmo nome de uma global tem precedência
+                if (category.userEmail() != null || !byName.containsKey(CategoryService.normalize(category.name()))) {
+                    byName.put(CategoryService.normalize(category.name()), category.id());
+                }
+            }
+
+            if (requestedDefault != null && !requestedDefault.isBlank()) {
+                if (!byId.containsKey(requestedDefault)) {
+                    throw new IllegalArgumentException("Categoria não encontrada");
+                }
+                this.defaultCategoryId = requestedDefault;
+            } else {
+                this.defaultCategoryId = byName.get(DEFAULT_CATEGORY);
+            }
+        }
+
+        String resolve(String category) {
+            if (category == null || category.isBlank()) {
+                if (defaultCategoryId == null) {
+                    throw new IllegalArgumentException("Categoria é obrigatória");
+                }
+                return defaultCategoryId;
+            }
+
+            String id = byId.get(category);
+            if (id == null) {
+                id = byName.get(CategoryService.normalize(category));
+            }
+            if (id == null) {
+                throw new IllegalArgumentException("Categoria não encontrada: " + category);
+            }
+            return id;
+        }
+    }
+
+    private static final class ImportRun {
+
+        final String userEmail;
+        final SecretKey userKey;
+        final SecretKey hashKey;
+        final CategoryIndex categories;
+        final Map<String, Integer> occurrences = new HashMap<>();
+        final List<ImportRowErrorDTO> errors = new ArrayList<>();
+
+        int total;
+        int imported;
+        int duplicates;
+        int failed;
+
+        ImportRun(String userEmail, SecretKey userKey, SecretKey hashKey, CategoryIndex categories) {
+            this.userEmail = userEmail;
+            this.userKey = userKey;
+            this.hashKey = hashKey;
+            this.categories = categories;
+        }
+
+        void fail(int line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportRowErrorDTO(line, message));
+            }
+        }
+    }
+
+    private static final class PreparedRow {
+
+        final int line;
+        final Transaction transaction;
+        final TransactionPayload payload;
+        final TransactionValues values;
+
+        // Preenchido pela thread de criptografia; lido depois do join do lote
+        String error;
+
+        PreparedRow(int line, Transaction transaction, TransactionPayload payload, TransactionValues values) {
+            this.line = line;
+            this.transaction = transaction;
+            this.payload = payload;
+            this.values = values;
+        }
+    }
+
+    public enum StatementFormat {
+        CSV,
+        OFX;
+
+        // Formato explícito ou, na falta dele, pela extensão do arquivo
+        public static StatementFormat detect(String format, String filename) {
+            String value = format;
+            if ((value == null || value.isBlank()) && filename != null && filename.contains(".")) {
+                value = filename.substring(filename.lastIndexOf('.') + 1);
+            }
+
+            if (value == null || value.isBlank()) {
+                throw new IllegalArgumentException("Formato de importação não informado");
+            }
+
+            try {
+                return StatementFormat.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Formato de importação inválido");
+            }
+        }
+
+        Reader open(InputStream input) throws IOException {
+            if (this == CSV) {
+                return new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            }
+
+            // OFX 1.x de bancos brasileiros costuma vir em CHARSET:1252; o cabeçalho diz qual usar
+            BufferedInputStream buffered = new BufferedInputStream(input);
+            buffered.mark(1024);
+            String header = new String(buffered.readNBytes(1024), StandardCharsets.ISO_8859_1).toUpperCase(Locale.ROOT);
+            buffered.reset();
+
+            Charset charset = header.contains("CHARSET:1252") || header.contains("CHARSET:ISO-8859-1")
+                    ? Charset.forName("windows-1252")
+                    : StandardCharsets.UTF_8;
+
+            return new BufferedReader(new InputStreamReader(buffered, charset));
+        }
+
+        Iterator<StatementLine> parser(Reader reader) {
+            return this == CSV ? new CsvStatementParser(reader) : new OfxStatementParser(reader);
+        }
+    }
+}
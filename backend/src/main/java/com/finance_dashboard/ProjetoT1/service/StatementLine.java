@@ -0,0 +1,15 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+// Uma linha de extrato como veio do arquivo, ainda sem validação.
+// line: linha do CSV ou posição do lançamento no OFX, usada nos erros devolvidos ao usuário.
+// externalId: identificador do banco (FITID no OFX), quando existe.
+public record StatementLine(
+        int line,
+        String date,
+        String description,
+        String amount,
+        String type,
+        String category,
+        String externalId
+) {
+}
@@ -0,0 +1,147 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+import com.finance_dashboard.ProjetoT1.model.ArchiveCheckpoint;
+import com.finance_dashboard.ProjetoT1.model.Transaction;
+import com.finance_dashboard.ProjetoT1.repository.ArchiveCheckpointRepository;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+// Compactação: move para transactions_archive, em lotes, as transações removidas (soft delete)
+// há mais tempo que a retenção, para que a coleção viva e seus índices guardem só dados em uso.
+// Cada lote é copiado (cópia repetida é ignorada), removido da coleção viva e só então registrado
+// no checkpoint; uma execução interrompida recomeça do último lote concluído.
+@Service
+public class TransactionArchiveService {
+
+    public static final String ARCHIVE_COLLECTION = "transactions_archive";
+
+    private static final String CHECKPOINT = "transactions";
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final ArchiveCheckpointRepository checkpointRepository;
+    private final boolean enabled;
+    private final Duration retention;
+    private final int batchSize;
+
+    public TransactionArchiveService(
+            MongoTemplate mongoTemplate,
+            ArchiveCheckpointRepository checkpointRepository,
+            @Value("${app.transactions.archive.enabled:true}") boolean enabled,
+            @Value("${app.transactions.archive.retention:P90D}") Duration retention,
+            @Value("${app.transactions.archive.batch-size:500}") int batchSize
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.checkpointRepository = checkpointRepository;
+        this.enabled = enabled;
+        this.retention = retention;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Scheduled(cron = "${app.transactions.archive.cron:0 30 3 * * *}")
+    public void scheduledArchive() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            archiveDeleted();
+        } catch (Exception e) {
+            System.err.println("Aviso: Falha ao arquivar transações removidas: " + e.getMessage());
+        }
+    }
+
+    public synchronized int archiveDeleted() {
+        Instant cutoff = Instant.now().minus(retention);
+        String collection = mongoTemplate.getCollectionName(Transaction.class);
+
+        ArchiveCheckpoint checkpoint = checkpointRepository.findById(CHECKPOINT)
+                .orElseGet(() -> new ArchiveCheckpoint(CHECKPOINT));
+
+        int total = 0;
+
+        while (true) {
+            // Documentos crus: o arquivo guarda exatamente o que estava na coleção (payload cifrado incluso)
+            List<Document> batch = mongoTemplate.find(batchQuery(checkpoint, cutoff), Document.class, collection);
+
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            copyToArchive(batch);
+
+            List<Object> ids = batch.stream().map(document -> document.get("_id")).toList();
+            mongoTemplate.remove(
+                    new Query(Criteria.where("_id").in(ids).and("deletedAt").lte(cutoff)),
+                    collection
+            );
+
+            Document last = batch.get(batch.size() - 1);
+            checkpoint.advance(last.getDate("deletedAt").toInstant(), idOf(last.get("_id")), batch.size());
+            checkpointRepository.save(checkpoint);
+
+            total += batch.size();
+
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+
+        return total;
+    }
+
+    // Removidas até o corte, depois da posição do checkpoint, na ordem (deletedAt, _id) do índice deleted_at_id_idx
+    private Query batchQuery(ArchiveCheckpoint checkpoint, Instant cutoff) {
+        Criteria criteria = Criteria.where("deletedAt").exists(true).lte(cutoff);
+
+        if (checkpoint.getLastDeletedAt() != null) {
+            criteria = new Criteria().andOperator(
+                    criteria,
+                    new Criteria().orOperator(
+                            Criteria.where("deletedAt").gt(checkpoint.getLastDeletedAt()),
+                            Criteria.where("deletedAt").is(checkpoint.getLastDeletedAt())
+                                    .and("_id").gt(toId(checkpoint.getLastId()))
+                    )
+            );
+        }
+
+        return new Query(criteria)
+                .with(Sort.by(Sort.Order.asc("deletedAt"), Sort.Order.asc("_id")))
+                .limit(batchSize);
+    }
+
+    private void copyToArchive(List<Document> batch) {
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ARCHIVE_COLLECTION)
+                    .insert(batch)
+                    .execute();
+        } catch (BulkOperationException e) {
+            // Já arquivadas numa execução interrompida antes da remoção
+            boolean onlyDuplicates = e.getErrors().stream().allMatch(error -> error.getCode() == DUPLICATE_KEY);
+            if (!onlyDuplicates) {
+                throw e;
+            }
+        }
+    }
+
+    private static String idOf(Object id) {
+        return id instanceof ObjectId objectId ? objectId.toHexString() : String.valueOf(id);
+    }
+
+    private static Object toId(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+}
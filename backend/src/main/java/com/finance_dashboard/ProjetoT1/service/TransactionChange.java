@@ -0,0 +1,13 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+import javax.crypto.SecretKey;
+
+// Uma escrita em transactions: before == null em criações, after == null em exclusões.
+// key é null para usuários legados sem chave de criptografia.
+public record TransactionChange(
+        String userEmail,
+        SecretKey key,
+        TransactionValues before,
+        TransactionValues after
+) {
+}
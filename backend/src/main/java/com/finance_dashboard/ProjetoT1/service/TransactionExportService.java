@@ -0,0 +1,220 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finance_dashboard.ProjetoT1.model.Transaction;
+import com.finance_dashboard.ProjetoT1.security.TransactionCipher;
+import com.finance_dashboard.ProjetoT1.security.TransactionField;
+import com.finance_dashboard.ProjetoT1.security.TransactionPayload;
+import com.finance_dashboard.ProjetoT1.security.UserKeyService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.crypto.SecretKey;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Exportação do histórico completo direto de um cursor do Mongo para a resposta:
+// cada documento é descriptografado, escrito e descartado, então o heap não cresce com o histórico.
+@Service
+public class TransactionExportService {
+
+    private final MongoTemplate mongoTemplate;
+    private final UserKeyService userKeyService;
+    private final TransactionCipher transactionCipher;
+    private final CategoryCatalog categoryCatalog;
+    private final ObjectMapper objectMapper;
+    private final int cursorBatchSize;
+    private final int flushEvery;
+
+    public TransactionExportService(
+            MongoTemplate mongoTemplate,
+            UserKeyService userKeyService,
+            TransactionCipher transactionCipher,
+            CategoryCatalog categoryCatalog,
+            ObjectMapper objectMapper,
+            @Value("${app.transactions.export.cursor-batch-size:500}") int cursorBatchSize,
+            @Value("${app.transactions.export.flush-every:500}") int flushEvery
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.userKeyService = userKeyService;
+        this.transactionCipher = transactionCipher;
+        this.categoryCatalog = categoryCatalog;
+        this.objectMapper = objectMapper;
+        this.cursorBatchSize = cursorBatchSize;
+        this.flushEvery = Math.max(1, flushEvery);
+    }
+
+    // O e-mail e a chave são resolvidos aqui, na thread da requisição: o corpo roda depois,
+    // numa thread assíncrona do Spring MVC, sem o SecurityContext
+    public StreamingResponseBody export(String userEmail, ExportFormat format) {
+        SecretKey key;
+        try {
+            key = userKeyService.findUserSecretKey(userEmail).orElse(null);
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao processar criptografia da exportação", e);
+        }
+
+        return out -> {
+            try (Stream<Transaction> transactions = mongoTemplate.stream(query(userEmail), Transaction.class)) {
+                if (format == ExportFormat.CSV) {
+                    writeCsv(transactions, key, out);
+                } else {
+                    writeNdjson(transactions, key, out);
+                }
+            }
+        };
+    }
+
+    private Query query(String userEmail) {
+        Query query = new Query(Criteria.where("userEmail").is(userEmail).and("deletedAt").is(null))
+                .with(Sort.by(Sort.Order.desc("date"), Sort.Order.desc("_id")));
+        query.cursorBatchSize(cursorBatchSize);
+        return query;
+    }
+
+    private void writeNdjson(Stream<Transaction> transactions, SecretKey key, OutputStream out) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Um objeto por linha, sem o espaço que o Jackson põe entre valores de raiz
+        json.setRootValueSeparator(null);
+        Map<String, String> categoryNames = new HashMap<>();
+
+        int written = 0;
+        for (Transaction t : (Iterable<Transaction>) transactions::iterator) {
+            ExportRow row = toRow(t, key, categoryNames);
+
+            json.writeStartObject();
+            json.writeStringField("id", row.id());
+            json.writeStringField("date", row.date());
+            json.writeStringField("categoryId", row.categoryId());
+            json.writeStringField("category", row.category());
+            json.writeStringField("type", row.type());
+            json.writeNumberField("amount", row.amount());
+            json.writeStringField("description", row.description());
+            json.writeEndObject();
+            json.writeRaw('\n');
+
+            if (++written % flushEvery == 0) {
+                json.flush();
+            }
+        }
+
+        json.flush();
+    }
+
+    private void writeCsv(Stream<Transaction> transactions, SecretKey key, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write("id,date,categoryId,category,type,amount,description\r\n");
+        Map<String, String> categoryNames = new HashMap<>();
+
+        int written = 0;
+        for (Transaction t : (Iterable<Transaction>) transactions::iterator) {
+            ExportRow row = toRow(t, key, categoryNames);
+
+            writer.write(csv(row.id()));
+            writer.write(',');
+            writer.write(row.date());
+            writer.write(',');
+            writer.write(csv(row.categoryId()));
+            writer.write(',');
+            writer.write(csv(row.category()));
+            writer.write(',');
+            writer.write(row.type());
+            writer.write(',');
+            writer.write(row.amount().toPlainString());
+            writer.write(',');
+            writer.write(csv(row.description()));
+            writer.write("\r\n");
+
+            if (++written % flushEvery == 0) {
+                writer.flush();
+            }
+        }
+
+        writer.flush();
+    }
+
+    // categoryNames evita consultar o catálogo (ou o banco, para categorias inexistentes) a cada linha
+    private ExportRow toRow(Transaction t, SecretKey key, Map<String, String> categoryNames) {
+        // Linhas que não puderem ser descriptografadas saem como "[Conteúdo Protegido]"
+        TransactionPayload payload = transactionCipher.openOrProtected(t, key, TransactionField.ALL);
+        TransactionValues values = TransactionValues.of(t, payload);
+
+        String category = categoryNames.computeIfAbsent(
+                String.valueOf(t.getCategoryId()),
+                id -> categoryCatalog.find(t.getCategoryId())
+                        .map(CategoryCatalog.CategoryRef::name)
+                        .orElse("Sem categoria")
+        );
+
+        return new ExportRow(
+                t.getId(),
+                t.getDate() == null ? "" : t.getDate().atZone(ZoneOffset.UTC).toLocalDate().toString(),
+                t.getCategoryId(),
+                category,
+                values.type().name(),
+                values.amount(),
+                payload.description()
+        );
+    }
+
+    // RFC 4180, e células iniciadas por = + - @ viram texto para não serem executadas como fórmula
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+
+        if (!value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+
+        return value;
+    }
+
+    private record ExportRow(
+            String id,
+            String date,
+            String categoryId,
+            String category,
+            String type,
+            BigDecimal amount,
+            String description
+    ) {
+    }
+
+    public enum ExportFormat {
+        NDJSON,
+        CSV;
+
+        public static ExportFormat from(String value) {
+            if (value == null || value.isBlank()) {
+                return NDJSON;
+            }
+
+            try {
+                return ExportFormat.valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Formato de exportação inválido");
+            }
+        }
+    }
+}
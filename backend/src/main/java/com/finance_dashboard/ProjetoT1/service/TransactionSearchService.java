@@ -0,0 +1,172 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+import com.finance_dashboard.ProjetoT1.model.SearchIndexState;
+import com.finance_dashboard.ProjetoT1.model.Transaction;
+import com.finance_dashboard.ProjetoT1.repository.SearchIndexStateRepository;
+import com.finance_dashboard.ProjetoT1.repository.TransactionRepository;
+import com.finance_dashboard.ProjetoT1.security.SearchTokenizer;
+import com.finance_dashboard.ProjetoT1.security.TransactionCipher;
+import com.finance_dashboard.ProjetoT1.security.TransactionField;
+import com.finance_dashboard.ProjetoT1.security.UserKeyService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Busca por descrição sem descriptografar o histórico: os tokens da busca são casados pelo índice
+// user_search_tokens_date_id_idx e só as transações encontradas são descriptografadas.
+// Transações gravadas antes do índice cego recebem os tokens na primeira busca do usuário.
+@Service
+public class TransactionSearchService {
+
+    private static final int MAX_QUERY_LENGTH = 200;
+
+    private final TransactionRepository transactionRepository;
+    private final SearchIndexStateRepository stateRepository;
+    private final MongoTemplate mongoTemplate;
+    private final UserKeyService userKeyService;
+    private final TransactionCipher transactionCipher;
+    private final SearchTokenizer searchTokenizer;
+    private final BulkDecryptionExecutor bulkDecryptionExecutor;
+    private final int defaultLimit;
+    private final int maxLimit;
+    private final int backfillBatchSize;
+
+    public TransactionSearchService(
+            TransactionRepository transactionRepository,
+            SearchIndexStateRepository stateRepository,
+            MongoTemplate mongoTemplate,
+            UserKeyService userKeyService,
+            TransactionCipher transactionCipher,
+            SearchTokenizer searchTokenizer,
+            BulkDecryptionExecutor bulkDecryptionExecutor,
+            @Value("${app.transactions.page.default-size:50}") int defaultLimit,
+            @Value("${app.transactions.page.max-size:200}") int maxLimit,
+            @Value("${app.transactions.search.backfill-batch-size:500}") int backfillBatchSize
+    ) {
+        this.transactionRepository = transactionRepository;
+        this.stateRepository = stateRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.userKeyService = userKeyService;
+        this.transactionCipher = transactionCipher;
+        this.searchTokenizer = searchTokenizer;
+        this.bulkDecryptionExecutor = bulkDecryptionExecutor;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+        this.backfillBatchSize = Math.max(1, backfillBatchSize);
+    }
+
+    public List<Transaction> search(String userEmail, String query, Integer limit) {
+        if (query == null || query.length() > MAX_QUERY_LENGTH || SearchTokenizer.words(query).isEmpty()) {
+            throw new IllegalArgumentException("Busca inválida");
+        }
+
+        int size = limit == null ? defaultLimit : limit;
+        if (size < 1) {
+            throw new IllegalArgumentException("Tamanho de página inválido");
+        }
+        size = Math.min(size, maxLimit);
+
+        Optional<SecretKey> key;
+        try {
+            key = userKeyService.findUserSecretKey(userEmail);
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao processar criptografia da busca", e);
+        }
+
+        // Usuários legados sem chave: as descrições já estão em texto puro
+        if (key.isEmpty()) {
+            return transactionRepository.findByUserEmailAndDeletedAtIsNull(userEmail).stream()
+                    .filter(t -> SearchTokenizer.matches(t.getDescription(), query))
+                    .sorted((a, b) -> b.getDate().compareTo(a.getDate()))
+                    .limit(size)
+                    .toList();
+        }
+
+        SecretKey userKey = key.get();
+        List<Transaction> hits;
+
+        try {
+            ensureIndexed(userEmail, userKey);
+            hits = transactionRepository.findBySearchTokens(
+                    userEmail,
+                    searchTokenizer.queryTokens(userKey, query),
+                    Limit.of(size)
+            );
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao processar criptografia da busca", e);
+        }
+
+        bulkDecryptionExecutor.forEach(hits, t -> {
+            try {
+                transactionCipher.decryptInPlace(t, userKey);
+            } catch (Exception e) {
+                transactionCipher.reveal(t, TransactionCipher.PROTECTED);
+            }
+        });
+
+        return hits;
+    }
+
+    // Preenche os tokens das transações gravadas antes do índice cego, em lotes
+    private void ensureIndexed(String userEmail, SecretKey userKey) {
+        if (stateRepository.existsById(userEmail)) {
+            return;
+        }
+
+        Query pending = new Query(Criteria.where("userEmail").is(userEmail)
+                .and("deletedAt").is(null)
+                .and("searchTokens").exists(false));
+        pending.fields().include("description", "formatVersion", "payload");
+        pending.cursorBatchSize(backfillBatchSize);
+
+        BulkOperations updates = null;
+        int queued = 0;
+
+        try (Stream<Transaction> transactions = mongoTemplate.stream(pending, Transaction.class)) {
+            for (Transaction t : (Iterable<Transaction>) transactions::iterator) {
+                List<String> tokens;
+                try {
+                    String description = transactionCipher.open(t, userKey, EnumSet.of(TransactionField.DESCRIPTION))
+                            .description();
+                    tokens = searchTokenizer.tokens(userKey, description);
+                } catch (Exception e) {
+                    // Linha ilegível: fica marcada sem tokens (não aparece em buscas)
+                    tokens = List.of();
+                }
+
+                if (updates == null) {
+                    updates = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Transaction.class);
+                }
+                // Só se ainda sem tokens: uma atualização concorrente já gravou os da descrição nova
+                updates.updateOne(
+                        new Query(Criteria.where("_id").is(t.getId()).and("searchTokens").exists(false)),
+                        new Update().set("searchTokens", tokens)
+                );
+
+                if (++queued == backfillBatchSize) {
+                    updates.execute();
+                    updates = null;
+                    queued = 0;
+                }
+            }
+        }
+
+        if (updates != null) {
+            updates.execute();
+        }
+
+        stateRepository.save(new SearchIndexState(userEmail, Instant.now()));
+    }
+}
@@ -0,0 +1,224 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+import com.finance_dashboard.ProjetoT1.dto.SeriesDTO;
+import com.finance_dashboard.ProjetoT1.dto.SeriesLineDTO;
+import com.finance_dashboard.ProjetoT1.model.Transaction;
+import com.finance_dashboard.ProjetoT1.model.TransactionType;
+import com.finance_dashboard.ProjetoT1.security.TransactionCipher;
+import com.finance_dashboard.ProjetoT1.security.TransactionField;
+import com.finance_dashboard.ProjetoT1.security.TransactionPayload;
+import com.finance_dashboard.ProjetoT1.security.UserKeyService;
+import com.finance_dashboard.ProjetoT1.service.BalanceSnapshotService.Totals;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+// Série temporal para os gráficos: todos os buckets do período são somados numa única passada
+// pelo cursor, em arrays primitivos pré-dimensionados (um slot por bucket). A resposta é densa
+// (buckets vazios saem com zero) e seu tamanho depende só do número de buckets e de categorias.
+@Service
+public class TransactionSeriesService {
+
+    private final MongoTemplate mongoTemplate;
+    private final UserKeyService userKeyService;
+    private final TransactionCipher transactionCipher;
+    private final CategoryCatalog categoryCatalog;
+    private final int maxBuckets;
+    private final int cursorBatchSize;
+
+    public TransactionSeriesService(
+            MongoTemplate mongoTemplate,
+            UserKeyService userKeyService,
+            TransactionCipher transactionCipher,
+            CategoryCatalog categoryCatalog,
+            @Value("${app.transactions.series.max-buckets:400}") int maxBuckets,
+            @Value("${app.transactions.export.cursor-batch-size:500}") int cursorBatchSize
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.userKeyService = userKeyService;
+        this.transactionCipher = transactionCipher;
+        this.categoryCatalog = categoryCatalog;
+        this.maxBuckets = maxBuckets;
+        this.cursorBatchSize = cursorBatchSize;
+    }
+
+    // Intervalo semiaberto [start, end); o primeiro bucket começa no dia/semana (segunda)/mês de start, em UTC
+    public SeriesDTO series(String userEmail, Instant start, Instant end, Granularity granularity, GroupBy groupBy) {
+        if (start == null || end == null) {
+            throw new IllegalArgumentException("Intervalo inválido");
+        }
+
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("Data inicial maior que final");
+        }
+
+        List<LocalDate> bucketStarts = bucketStarts(start, end, granularity);
+        int bucketCount = bucketStarts.size() - 1;
+
+        // Limites em epoch millis: o bucket de uma linha é achado por busca binária, sem alocar
+        long[] bounds = new long[bucketStarts.size()];
+        for (int i = 0; i < bounds.length; i++) {
+            bounds[i] = bucketStarts.get(i).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        }
+
+        SecretKey key;
+        try {
+            key = userKeyService.findUserSecretKey(userEmail).orElse(null);
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao processar criptografia da série", e);
+        }
+
+        // Por tipo: um único agregador com um slot por bucket. Por categoria: um agregador por categoria.
+        AmountAggregator byType = AmountAggregator.dense(bucketCount);
+        Map<String, AmountAggregator> byCategory = new HashMap<>();
+        Function<String, AmountAggregator> newCategory = categoryId -> AmountAggregator.dense(bucketCount);
+
+        try (Stream<Transaction> transactions = mongoTemplate.stream(query(userEmail, start, end), Transaction.class)) {
+            for (Transaction t : (Iterable<Transaction>) transactions::iterator) {
+                int bucket = bucketOf(bounds, t.getDate().toEpochMilli());
+                TransactionPayload payload = transactionCipher.openOrProtected(t, key, TransactionField.AMOUNT_AND_TYPE);
+
+                AmountAggregator target = groupBy == GroupBy.CATEGORY
+                        ? byCategory.computeIfAbsent(String.valueOf(t.getCategoryId()), newCategory)
+                        : byType;
+
+                target.addToSlot(bucket, payload.amount(), AmountAggregator.typeOf(payload.type()));
+            }
+        }
+
+        List<String> labels = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            labels.add(bucketStarts.get(i).toString());
+        }
+
+        List<SeriesLineDTO> lines = new ArrayList<>();
+
+        if (groupBy == GroupBy.CATEGORY) {
+            Map<String, CategoryCatalog.CategoryRef> categories = categoryCatalog.resolve(byCategory.keySet());
+
+            byCategory.forEach((categoryId, aggregator) -> {
+                CategoryCatalog.CategoryRef category = categories.get(categoryId);
+                String name = category != null ? category.name() : "Sem categoria";
+
+                // Só os tipos com movimento na categoria viram linha
+                for (TransactionType type : TransactionType.values()) {
+                    List<BigDecimal> values = values(aggregator, bucketCount, type);
+                    if (values.stream().anyMatch(v -> v.signum() != 0)) {
+                        lines.add(new SeriesLineDTO(categoryId, name, type.name(), values));
+                    }
+                }
+            });
+        } else {
+            for (TransactionType type : TransactionType.values()) {
+                lines.add(new SeriesLineDTO(type.name(), type.name(), type.name(), values(byType, bucketCount, type)));
+            }
+        }
+
+        return new SeriesDTO(granularity.name(), groupBy.name(), labels, lines);
+    }
+
+    private Query query(String userEmail, Instant start, Instant end) {
+        Query query = new Query(Criteria.where("userEmail").is(userEmail)
+                .and("date").gte(start).lt(end)
+                .and("deletedAt").is(null));
+        query.fields().include("amount", "type", "categoryId", "date", "formatVersion", "payload");
+        query.cursorBatchSize(cursorBatchSize);
+        return query;
+    }
+
+    // Início de cada bucket mais o fim do último (bucketCount + 1 datas)
+    private List<LocalDate> bucketStarts(Instant start, Instant end, Granularity granularity) {
+        LocalDate first = start.atZone(ZoneOffset.UTC).toLocalDate();
+        first = switch (granularity) {
+            case DAY -> first;
+            case WEEK -> first.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> first.withDayOfMonth(1);
+        };
+
+        List<LocalDate> starts = new ArrayList<>();
+        LocalDate current = first;
+        starts.add(current);
+
+        while (current.atStartOfDay(ZoneOffset.UTC).toInstant().isBefore(end)) {
+            if (starts.size() > maxBuckets) {
+                throw new IllegalArgumentException("Período longo demais para a granularidade (máximo de "
+                        + maxBuckets + " pontos)");
+            }
+
+            current = switch (granularity) {
+                case DAY -> current.plusDays(1);
+                case WEEK -> current.plusWeeks(1);
+                case MONTH -> current.plusMonths(1);
+            };
+            starts.add(current);
+        }
+
+        return starts;
+    }
+
+    private static int bucketOf(long[] bounds, long millis) {
+        int found = Arrays.binarySearch(bounds, millis);
+        return found >= 0 ? found : -found - 2;
+    }
+
+    private static List<BigDecimal> values(AmountAggregator aggregator, int bucketCount, TransactionType type) {
+        List<BigDecimal> values = new ArrayList<>(bucketCount);
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            Totals totals = aggregator.totalsOf(bucket);
+            values.add(type == TransactionType.INCOME ? totals.income() : totals.expense());
+        }
+        return values;
+    }
+
+    public enum Granularity {
+        DAY,
+        WEEK,
+        MONTH;
+
+        public static Granularity from(String value) {
+            if (value == null || value.isBlank()) {
+                return MONTH;
+            }
+
+            try {
+                return Granularity.valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Granularidade inválida");
+            }
+        }
+    }
+
+    public enum GroupBy {
+        TYPE,
+        CATEGORY;
+
+        public static GroupBy from(String value) {
+            if (value == null || value.isBlank()) {
+                return TYPE;
+            }
+
+            try {
+                return GroupBy.valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Agrupamento inválido");
+            }
+        }
+    }
+}
@@ -1,30 +1,42 @@
 package com.finance_dashboard.ProjetoT1.service;
 
 import com.finance_dashboard.ProjetoT1.config.AuthenticatedUser;
+import com.finance_dashboard.ProjetoT1.dto.BatchItemResultDTO;
 import com.finance_dashboard.ProjetoT1.dto.CategorySummaryDTO;
 import com.finance_dashboard.ProjetoT1.dto.SummaryResponseDTO;
+import com.finance_dashboard.ProjetoT1.dto.TransactionPageDTO;
 import com.finance_dashboard.ProjetoT1.dto.TransactionRequestDTO;
-import com.finance_dashboard.ProjetoT1.model.Category;
 import com.finance_dashboard.ProjetoT1.model.Transaction;
-import com.finance_dashboard.ProjetoT1.model.TransactionType;
-import com.finance_dashboard.ProjetoT1.model.User;
-import com.finance_dashboard.ProjetoT1.repository.CategoryRepository;
+import com.finance_dashboard.ProjetoT1.repository.TransactionFilter;
 import com.finance_dashboard.ProjetoT1.repository.TransactionRepository;
-import com.finance_dashboard.ProjetoT1.repository.UserRepository;
-import com.finance_dashboard.ProjetoT1.security.DataCrypto;
+import com.finance_dashboard.ProjetoT1.security.TransactionCipher;
+import com.finance_dashboard.ProjetoT1.security.TransactionField;
+import com.finance_dashboard.ProjetoT1.security.TransactionPayload;
 import com.finance_dashboard.ProjetoT1.security.UserKeyService;
+import com.finance_dashboard.ProjetoT1.service.BalanceSnapshotService.Totals;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.bson.types.ObjectId;
 import org.jsoup.Jsoup;
 import org.jsoup.safety.Safelist;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.SecretKey;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.YearMonth;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class TransactionService {
@@ -32,64 +44,76 @@ public class TransactionService {
     @Autowired
     private UserKeyService userKeyService;
     @Autowired
-    private UserRepository userRepository;
+    private TransactionCipher transactionCipher;
+    @Autowired
+    private BulkDecryptionExecutor bulkDecryptionExecutor;
+    @Autowired
+    private BalanceSnapshotService balanceSnapshotService;
+    @Autowired
+    private CategoryRollupService categoryRollupService;
+    @Autowired
+    private CategoryCatalog categoryCatalog;
+    @Autowired
+    private TransactionWritePublisher writePublisher;
+    @Autowired
+    private MonthSliceCache monthSliceCache;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${app.transactions.batch.max-size:50}")
+    private int maxBatchSize;
+    @Value("${app.transactions.page.default-size:50}")
+    private int defaultPageSize;
+    @Value("${app.transactions.page.max-size:200}")
+    private int maxPageSize;
 
     private final TransactionRepository transactionRepository;
-    private final CategoryRepository categoryRepository;
 
-    public TransactionService(
-            TransactionRepository transactionRepository,
-            CategoryRepository categoryRepository
-    ) {
+    public TransactionService(TransactionRepository transactionRepository) {
         this.transactionRepository = transactionRepository;
-        this.categoryRepository = categoryRepository;
     }
 
     public Transaction create(TransactionRequestDTO dto) {
         validateTransaction(dto);
         String userEmail = AuthenticatedUser.getEmail();
 
-        // 1. Buscar o usuário completo para ter acesso à encryptedUserKey
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
-
         try {
-            // 2. Recuperar a chave do usuário (descriptografada pela Master Key)
-            String userKey = userKeyService.getUserKey(user);
+            // 1-2. Recuperar a chave do usuário (cache; só desembrulha pela Master Key no primeiro acesso)
+            SecretKey userKey = requireUserKey(userEmail);
 
             // --- NOVO: SANITIZAÇÃO COM JSOUP ---
             // Remove qualquer tag HTML ou scripts maliciosos da descrição enviada pelo usuário
             String cleanDescription = Jsoup.clean(dto.getDescription(), Safelist.none());
 
-            // 3. Criptografar description (agora limpa), amount e type antes de salvar
-            String encryptedDescription = DataCrypto.encryptWithUserKey(cleanDescription, userKey);
-            String encryptedAmount      = DataCrypto.encryptWithUserKey(dto.getAmount().toPlainString(), userKey);
-            String encryptedType        = DataCrypto.encryptWithUserKey(dto.getType().name(), userKey);
-
-            Category category = categoryRepository.findById(dto.getCategoryId())
-                    .filter(c -> c.isActive() && (c.getUserEmail() == null || c.getUserEmail().equals(userEmail)))
+            categoryCatalog.find(dto.getCategoryId())
+                    .filter(c -> c.availableTo(userEmail))
                     .orElseThrow(() -> new IllegalArgumentException("Categoria não encontrada"));
 
-            Transaction transaction = new Transaction(
-                    encryptedDescription,
-                    encryptedAmount,
-                    encryptedType,
-                    dto.getCategoryId(),
-                    dto.getDate().atStartOfDay(ZoneOffset.UTC).toInstant()
+            Transaction transaction = newTransaction(dto, userEmail);
+
+            // 3. Criptografar description (agora limpa), amount e type num único envelope
+            TransactionPayload payload = new TransactionPayload(
+                    cleanDescription,
+                    dto.getAmount().toPlainString(),
+                    dto.getType().name()
             );
+            transactionCipher.seal(transaction, payload, userKey);
 
-            Instant now = Instant.now();
-            transaction.setUserEmail(userEmail);
-            transaction.setCreatedAt(now);
-            transaction.setUpdatedAt(now);
+            writePublisher.begin(userEmail);
+            try {
+                Transaction saved = transactionRepository.save(transaction);
 
-            Transaction saved = transactionRepository.save(transaction);
+                // Devolver em texto puro ao controller (o Jackson não aceita
+                // campos criptografados onde espera valores numéricos/enum)
+                transactionCipher.reveal(saved, payload);
 
-            // Descriptografar antes de retornar ao controller (o Jackson não aceita
-            // campos criptografados onde espera valores numéricos/enum)
-            decryptTransactions(List.of(saved), userEmail);
+                writePublisher.publish(new TransactionChange(userEmail, userKey, null, TransactionValues.of(saved, payload)));
 
-            return saved;
+                return saved;
+            } finally {
+                writePublisher.end(userEmail);
+            }
         } catch (Exception e) {
             // Log detalhado para te ajudar a identificar se o erro é na chave ou no banco
             e.printStackTrace();
@@ -97,6 +121,98 @@ public class TransactionService {
         }
     }
 
+    // Vários itens numa requisição: todos validados antes de gravar, uma única resolução de chave
+    // e de categorias e um único insert em lote. Itens inválidos não impedem os demais.
+    public List<BatchItemResultDTO> createBatch(List<TransactionRequestDTO> dtos) {
+        validateBatchSize(dtos);
+
+        String userEmail = AuthenticatedUser.getEmail();
+
+        SecretKey userKey;
+        try {
+            userKey = requireUserKey(userEmail);
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao processar criptografia do lote", e);
+        }
+
+        // Um único findAllById para as categorias que não estão no cache
+        Map<String, CategoryCatalog.CategoryRef> categories = categoryCatalog.resolve(dtos.stream()
+                .filter(Objects::nonNull)
+                .map(TransactionRequestDTO::getCategoryId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+
+        BatchItemResultDTO[] results = new BatchItemResultDTO[dtos.size()];
+        List<Integer> positions = new ArrayList<>();
+        List<Transaction> pending = new ArrayList<>();
+        List<TransactionPayload> payloads = new ArrayList<>();
+
+        for (int i = 0; i < dtos.size(); i++) {
+            TransactionRequestDTO dto = dtos.get(i);
+
+            String error = batchItemError(dto, categories, userEmail);
+            if (error != null) {
+                results[i] = new BatchItemResultDTO(i, BatchItemResultDTO.INVALID, null, error);
+                continue;
+            }
+
+            TransactionPayload payload = new TransactionPayload(
+                    Jsoup.clean(dto.getDescription(), Safelist.none()),
+                    dto.getAmount().toPlainString(),
+                    dto.getType().name()
+            );
+            Transaction transaction = newTransaction(dto, userEmail);
+
+            try {
+                transactionCipher.seal(transaction, payload, userKey);
+            } catch (Exception e) {
+                results[i] = new BatchItemResultDTO(i, BatchItemResultDTO.FAILED, null, "Erro ao processar criptografia da transação");
+                continue;
+            }
+
+            positions.add(i);
+            pending.add(transaction);
+            payloads.add(payload);
+        }
+
+        writePublisher.begin(userEmail);
+        try {
+            Map<Integer, Integer> rejected = transactionRepository.insertUnordered(pending);
+
+            List<TransactionValues> inserted = new ArrayList<>(pending.size());
+            for (int j = 0; j < pending.size(); j++) {
+                int i = positions.get(j);
+
+                if (rejected.containsKey(j)) {
+                    results[i] = new BatchItemResultDTO(i, BatchItemResultDTO.FAILED, null, "Erro ao gravar a transação");
+                    continue;
+                }
+
+                Transaction saved = pending.get(j);
+                transactionCipher.reveal(saved, payloads.get(j));
+                inserted.add(TransactionValues.of(saved, payloads.get(j)));
+
+                results[i] = new BatchItemResultDTO(i, BatchItemResultDTO.CREATED, saved, null);
+            }
+
+            writePublisher.publishInserted(userEmail, userKey, inserted);
+        } finally {
+            writePublisher.end(userEmail);
+        }
+
+        return List.of(results);
+    }
+
+    public void validateBatchSize(List<TransactionRequestDTO> dtos) {
+        if (dtos == null || dtos.isEmpty()) {
+            throw new IllegalArgumentException("Lote vazio");
+        }
+
+        if (dtos.size() > maxBatchSize) {
+            throw new IllegalArgumentException("O lote deve ter no máximo " + maxBatchSize + " transações");
+        }
+    }
+
     public List<Transaction> findAll() {
         String userEmail = AuthenticatedUser.getEmail();
         List<Transaction> transactions = transactionRepository.findByUserEmailAndDeletedAtIsNull(userEmail);
@@ -108,26 +224,78 @@ public class TransactionService {
     public SummaryResponseDTO getSummary() {
         String userEmail = AuthenticatedUser.getEmail();
 
-        List<Transaction> transactions =
-                transactionRepository.findByUserEmailAndDeletedAtIsNull(userEmail);
+        // Usuários com chave leem o resumo mantido incrementalmente (O(1))
+        try {
+            Optional<SecretKey> key = userKeyService.findUserSecretKey(userEmail);
 
-        // Descriptografar antes de usar amount e type
-        decryptTransactions(transactions, userEmail);
+            if (key.isPresent()) {
+                Totals totals = balanceSnapshotService.getTotals(userEmail, key.get());
+                return new SummaryResponseDTO(totals.income(), totals.expense(), totals.balance());
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao processar criptografia do resumo", e);
+        }
+
+        // Usuários legados sem chave: soma direta. Só os campos usados na soma vêm do banco, e só amount/type são descriptografados
+        List<Transaction> transactions =
+                transactionRepository.findSummaryRowsByUserEmail(userEmail);
 
-        BigDecimal totalIncome  = BigDecimal.ZERO;
-        BigDecimal totalExpense = BigDecimal.ZERO;
+        decryptTransactions(transactions, userEmail, TransactionField.AMOUNT_AND_TYPE);
 
+        AmountAggregator aggregator = new AmountAggregator(1);
         for (Transaction transaction : transactions) {
-            if (TransactionType.INCOME.name().equals(transaction.getType())) {
-                totalIncome = totalIncome.add(transaction.getAmountAsDecimal());
-            } else {
-                totalExpense = totalExpense.add(transaction.getAmountAsDecimal());
-            }
+            aggregator.add(null, transaction.getAmount(), transaction.getType());
+        }
+
+        Totals totals = aggregator.total();
+        return new SummaryResponseDTO(totals.income(), totals.expense(), totals.balance());
+    }
+
+    // Mesmas regras do cadastro individual (anotações do DTO + validateTransaction + categoria)
+    private String batchItemError(
+            TransactionRequestDTO dto,
+            Map<String, CategoryCatalog.CategoryRef> categories,
+            String userEmail
+    ) {
+        if (dto == null) {
+            return "Transação inválida";
+        }
+
+        Optional<String> violation = validator.validate(dto).stream()
+                .sorted(Comparator.comparing(v -> v.getPropertyPath().toString()))
+                .map(ConstraintViolation::getMessage)
+                .findFirst();
+        if (violation.isPresent()) {
+            return violation.get();
         }
 
-        BigDecimal balance = totalIncome.subtract(totalExpense);
+        try {
+            validateTransaction(dto);
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
 
-        return new SummaryResponseDTO(totalIncome, totalExpense, balance);
+        CategoryCatalog.CategoryRef category = categories.get(dto.getCategoryId());
+        if (category == null || !category.availableTo(userEmail)) {
+            return "Categoria não encontrada";
+        }
+
+        return null;
+    }
+
+    // O id é gerado antes de salvar porque entra como AAD do envelope criptografado
+    private static Transaction newTransaction(TransactionRequestDTO dto, String userEmail) {
+        Transaction transaction = new Transaction();
+        transaction.setId(new ObjectId().toHexString());
+        transaction.setCategoryId(dto.getCategoryId());
+        transaction.setDate(dto.getDate().atStartOfDay(ZoneOffset.UTC).toInstant());
+
+        Instant now = Instant.now();
+        transaction.setUserEmail(userEmail);
+        transaction.setCreatedAt(now);
+        transaction.setUpdatedAt(now);
+
+        return transaction;
     }
 
     private void validateTransaction(TransactionRequestDTO transaction) {
@@ -156,25 +324,64 @@ public class TransactionService {
 
         YearMonth yearMonth = YearMonth.of(year, month);
 
-        Instant start = yearMonth
-                .atDay(1)
-                .atStartOfDay(ZoneOffset.UTC)
-                .toInstant();
+        String userEmail = AuthenticatedUser.getEmail();
 
-        Instant end = yearMonth
-                .atEndOfMonth()
-                .atTime(23, 59, 59)
-                .atZone(ZoneOffset.UTC)
-                .toInstant();
+        // Só usuários com chave usam o cache: para os legados não há descriptografia a economizar
+        boolean cacheable = monthSliceCache.isEnabled() && hasUserKey(userEmail);
+
+        if (cacheable) {
+            List<Transaction> cached = monthSliceCache.get(userEmail, yearMonth);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        long stamp = monthSliceCache.stamp(userEmail);
 
-        String userEmail = AuthenticatedUser.getEmail();
         List<Transaction> transactions = transactionRepository
-                .findByUserEmailAndDateBetweenAndDeletedAtIsNull(userEmail, start, end);
+                .findByUserEmailAndDateFromInclusive(userEmail, monthStart(yearMonth), monthStart(yearMonth.plusMonths(1)));
 
         decryptTransactions(transactions, userEmail);
+
+        if (cacheable) {
+            return monthSliceCache.put(userEmail, yearMonth, transactions, stamp);
+        }
         return transactions;
     }
 
+    public TransactionPageDTO findAllPage(String cursor, Integer limit) {
+        return findPage(TransactionFilter.all(), cursor, limit);
+    }
+
+    public TransactionPageDTO findByMonthPage(int year, int month, String cursor, Integer limit) {
+
+        if (month < 1 || month > 12) {
+            throw new IllegalArgumentException("Mês inválido");
+        }
+
+        YearMonth yearMonth = YearMonth.of(year, month);
+
+        return findPage(
+                TransactionFilter.halfOpen(monthStart(yearMonth), monthStart(yearMonth.plusMonths(1))),
+                cursor,
+                limit
+        );
+    }
+
+    public TransactionPageDTO findByCategoryPage(String categoryId, String cursor, Integer limit) {
+        if (categoryId == null) {
+            throw new IllegalArgumentException("Categoria é obrigatória");
+        }
+
+        return findPage(TransactionFilter.category(categoryId), cursor, limit);
+    }
+
+    public TransactionPageDTO findByDateRangePage(Instant start, Instant end, String cursor, Integer limit) {
+        validateDateRange(start, end);
+
+        return findPage(TransactionFilter.between(start, end), cursor, limit);
+    }
+
     public List<Transaction> findByCategory(String categoryId) {
         if (categoryId == null) {
             throw new IllegalArgumentException("Categoria é obrigatória");
@@ -196,95 +403,15 @@ public class TransactionService {
             throw new IllegalArgumentException("Mês inválido");
         }
 
-        YearMonth yearMonth = YearMonth.of(year, month);
-
-        Instant start = yearMonth
-                .atDay(1)
-                .atStartOfDay(ZoneOffset.UTC)
-                .toInstant();
-
-        Instant end = yearMonth
-                .atEndOfMonth()
-                .atTime(23, 59, 59)
-                .atZone(ZoneOffset.UTC)
-                .toInstant();
-
         String userEmail = AuthenticatedUser.getEmail();
 
-        List<Transaction> transactions =
-                transactionRepository
-                        .findByUserEmailAndDateBetweenAndDeletedAtIsNull(
-                                userEmail,
-                                start,
-                                end
-                        );
-
-        // Descriptografar antes de usar amount e type
-        decryptTransactions(transactions, userEmail);
-
-        Map<String, BigDecimal[]> totals = new HashMap<>();
-        for (Transaction transaction : transactions) {
-            totals.putIfAbsent(transaction.getCategoryId(), new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
-            BigDecimal[] values = totals.get(transaction.getCategoryId());
-            if (TransactionType.INCOME.name().equals(transaction.getType())) {
-                values[0] = values[0].add(transaction.getAmountAsDecimal());
-            } else {
-                values[1] = values[1].add(transaction.getAmountAsDecimal());
-            }
-        }
-
-        return totals.entrySet().stream()
-                .map(e -> {
-                    String categoryName = categoryRepository.findById(e.getKey())
-                            .map(Category::getName)
-                            .orElse("Sem categoria");
-
-                    return new CategorySummaryDTO(
-                            e.getKey(),
-                            categoryName,
-                            e.getValue()[0],
-                            e.getValue()[1]
-                    );
-                })
-                .toList();
+        return toCategorySummaries(categoryTotalsForMonth(userEmail, YearMonth.of(year, month)));
     }
 
     public List<CategorySummaryDTO> getCategorySummaryByUser(int year, int month) {
-        YearMonth yearMonth = YearMonth.of(year, month);
-        Instant start = yearMonth.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
-        Instant end = yearMonth.atEndOfMonth().atTime(23, 59, 59).atZone(ZoneOffset.UTC).toInstant();
         String userEmail = AuthenticatedUser.getEmail();
 
-        List<Transaction> transactions = transactionRepository.findByUserEmailAndDateBetweenAndDeletedAtIsNull(userEmail, start, end);
-
-        // Descriptografar antes de usar amount e type
-        decryptTransactions(transactions, userEmail);
-
-        Map<String, BigDecimal[]> totals = new HashMap<>();
-        for (Transaction t : transactions) {
-            totals.putIfAbsent(t.getCategoryId(), new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
-            BigDecimal[] values = totals.get(t.getCategoryId());
-            if (TransactionType.INCOME.name().equals(t.getType())) {
-                values[0] = values[0].add(t.getAmountAsDecimal());
-            } else {
-                values[1] = values[1].add(t.getAmountAsDecimal());
-            }
-        }
-
-        return totals.entrySet().stream()
-                .map(e -> {
-                    String categoryName = categoryRepository.findById(e.getKey())
-                            .map(Category::getName)
-                            .orElse("Sem categoria");
-
-                    return new CategorySummaryDTO(
-                            e.getKey(),
-                            categoryName,
-                            e.getValue()[0],
-                            e.getValue()[1]
-                    );
-                })
-                .toList();
+        return toCategorySummaries(categoryTotalsForMonth(userEmail, YearMonth.of(year, month)));
     }
 
     public Transaction update(String id, TransactionRequestDTO dto) {
@@ -296,33 +423,45 @@ public class TransactionService {
 
         validateTransaction(dto);
 
-        categoryRepository.findById(dto.getCategoryId())
-                .filter(c -> c.isActive() && (c.getUserEmail() == null || c.getUserEmail().equals(userEmail)))
+        categoryCatalog.find(dto.getCategoryId())
+                .filter(c -> c.availableTo(userEmail))
                 .orElseThrow(() -> new IllegalArgumentException("Categoria não encontrada"));
 
         try {
             // Buscar a chave do usuário para re-criptografar os campos
-            User user = userRepository.findByEmail(userEmail)
-                    .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
-            String userKey = userKeyService.getUserKey(user);
+            SecretKey userKey = requireUserKey(userEmail);
+
+            // Valores anteriores, para ajustar os agregados mantidos incrementalmente
+            TransactionValues before = TransactionValues.of(
+                    transaction,
+                    transactionCipher.openOrProtected(transaction, userKey, TransactionField.ALL)
+            );
 
-            String encryptedDescription = DataCrypto.encryptWithUserKey(dto.getDescription(), userKey);
-            String encryptedAmount      = DataCrypto.encryptWithUserKey(dto.getAmount().toPlainString(), userKey);
-            String encryptedType        = DataCrypto.encryptWithUserKey(dto.getType().name(), userKey);
+            TransactionPayload payload = new TransactionPayload(
+                    dto.getDescription(),
+                    dto.getAmount().toPlainString(),
+                    dto.getType().name()
+            );
 
-            transaction.setDescription(encryptedDescription);
-            transaction.setAmount(encryptedAmount);
-            transaction.setType(encryptedType);
+            // Toda atualização regrava no formato de envelope, mesmo que o documento fosse legado
+            transactionCipher.seal(transaction, payload, userKey);
             transaction.setCategoryId(dto.getCategoryId());
             transaction.setDate(Instant.parse(dto.getDate() + "T00:00:00Z"));
             transaction.setUpdatedAt(Instant.now());
 
-            Transaction saved = transactionRepository.save(transaction);
+            writePublisher.begin(userEmail);
+            try {
+                Transaction saved = transactionRepository.save(transaction);
 
-            // Descriptografar antes de retornar ao controller
-            decryptTransactions(List.of(saved), userEmail);
+                // Devolver em texto puro ao controller
+                transactionCipher.reveal(saved, payload);
 
-            return saved;
+                writePublisher.publish(new TransactionChange(userEmail, userKey, before, TransactionValues.of(saved, payload)));
+
+                return saved;
+            } finally {
+                writePublisher.end(userEmail);
+            }
         } catch (Exception e) {
             throw new RuntimeException("Erro ao processar criptografia na atualização da transação", e);
         }
@@ -338,19 +477,38 @@ public class TransactionService {
                         new RuntimeException("Transação não encontrada")
                 );
 
+        // Usuários legados sem chave não têm agregados cifrados; a chave fica null
+        SecretKey userKey;
+        try {
+            userKey = userKeyService.findUserSecretKey(userEmail).orElse(null);
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao processar criptografia na exclusão da transação", e);
+        }
+
+        TransactionValues before = TransactionValues.of(
+                transaction,
+                transactionCipher.openOrProtected(transaction, userKey, TransactionField.ALL)
+        );
+
         transaction.setDeletedAt(Instant.now());
         transaction.setUpdatedAt(Instant.now());
-        transactionRepository.save(transaction);
-    }
+        // Libera o hash de importação: reimportar o extrato traz a linha de volta
+        transaction.setImportHash(null);
+        // A linha sai da busca (e o arquivo não guarda os tokens)
+        transaction.setSearchTokens(null);
 
-    public List<Transaction> findByDateRange(Instant start, Instant end) {
-        if (start == null || end == null) {
-            throw new IllegalArgumentException("Intervalo inválido");
-        }
+        writePublisher.begin(userEmail);
+        try {
+            transactionRepository.save(transaction);
 
-        if (start.isAfter(end)) {
-            throw new IllegalArgumentException("Data inicial maior que final");
+            writePublisher.publish(new TransactionChange(userEmail, userKey, before, null));
+        } finally {
+            writePublisher.end(userEmail);
         }
+    }
+
+    public List<Transaction> findByDateRange(Instant start, Instant end) {
+        validateDateRange(start, end);
 
         String userEmail = AuthenticatedUser.getEmail();
 
@@ -367,91 +525,206 @@ public class TransactionService {
     }
 
     public SummaryResponseDTO getSummaryByDateRange(Instant start, Instant end) {
+        validateDateRange(start, end);
+
+        Totals totals = Totals.ZERO;
+        for (Totals category : categoryTotalsBetween(AuthenticatedUser.getEmail(), start, end).values()) {
+            totals = totals.plus(category);
+        }
 
-        // findByDateRange já chama decryptTransactions internamente
-        List<Transaction> transactions = findByDateRange(start, end);
+        return new SummaryResponseDTO(totals.income(), totals.expense(), totals.balance());
+    }
 
-        BigDecimal totalIncome  = BigDecimal.ZERO;
-        BigDecimal totalExpense = BigDecimal.ZERO;
+    public List<CategorySummaryDTO> getCategorySummaryByDateRange(Instant start, Instant end) {
+        validateDateRange(start, end);
 
-        for (Transaction t : transactions) {
-            if (TransactionType.INCOME.name().equals(t.getType())) {
-                totalIncome = totalIncome.add(t.getAmountAsDecimal());
-            } else {
-                totalExpense = totalExpense.add(t.getAmountAsDecimal());
+        return toCategorySummaries(categoryTotalsBetween(AuthenticatedUser.getEmail(), start, end));
+    }
+
+    // Mês inteiro em UTC: direto dos rollups; usuários legados sem chave somam as transações
+    private Map<String, Totals> categoryTotalsForMonth(String userEmail, YearMonth yearMonth) {
+        try {
+            Optional<SecretKey> key = userKeyService.findUserSecretKey(userEmail);
+
+            if (key.isPresent()) {
+                return categoryRollupService.totalsByCategory(userEmail, key.get(), yearMonth, yearMonth);
             }
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao processar criptografia do resumo", e);
         }
 
-        BigDecimal balance = totalIncome.subtract(totalExpense);
+        return sumByCategory(transactionRepository.findSummaryRowsByUserEmailAndDateFromInclusive(
+                userEmail, monthStart(yearMonth), monthStart(yearMonth.plusMonths(1))), userEmail);
+    }
+
+    // Período (start, end), limites exclusivos como no "DateBetween": os meses inteiros vêm dos
+    // rollups e só as bordas parciais (início até o 1º mês inteiro, fim do último até end) são varridas
+    private Map<String, Totals> categoryTotalsBetween(String userEmail, Instant start, Instant end) {
+        Optional<FullMonths> full = FullMonths.between(start, end);
 
-        return new SummaryResponseDTO(totalIncome, totalExpense, balance);
+        Map<String, Totals> totals;
+        try {
+            Optional<SecretKey> key = userKeyService.findUserSecretKey(userEmail);
+
+            if (key.isEmpty() || full.isEmpty()) {
+                return sumByCategory(
+                        transactionRepository.findSummaryRowsByUserEmailAndDateBetween(userEmail, start, end),
+                        userEmail
+                );
+            }
+
+            totals = categoryRollupService.totalsByCategory(userEmail, key.get(), full.get().first(), full.get().last());
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao processar criptografia do resumo", e);
+        }
+
+        List<Transaction> edges = new ArrayList<>(transactionRepository
+                .findSummaryRowsByUserEmailAndDateBetween(userEmail, start, full.get().start()));
+        edges.addAll(transactionRepository
+                .findSummaryRowsByUserEmailAndDateFromInclusive(userEmail, full.get().end(), end));
+
+        sumByCategory(edges, userEmail).forEach((categoryId, value) -> totals.merge(categoryId, value, Totals::plus));
+
+        return totals;
     }
 
-    public List<CategorySummaryDTO> getCategorySummaryByDateRange(Instant start, Instant end) {
-        // findByDateRange já chama decryptTransactions internamente
-        List<Transaction> transactions = findByDateRange(start, end);
+    // Descriptografa só amount/type das linhas projetadas e soma por categoria
+    private Map<String, Totals> sumByCategory(List<Transaction> transactions, String userEmail) {
+        decryptTransactions(transactions, userEmail, TransactionField.AMOUNT_AND_TYPE);
 
-        Map<String, BigDecimal[]> totals = new HashMap<>();
+        AmountAggregator aggregator = new AmountAggregator();
         for (Transaction t : transactions) {
-            totals.putIfAbsent(t.getCategoryId(), new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
-            BigDecimal[] values = totals.get(t.getCategoryId());
-            if (TransactionType.INCOME.name().equals(t.getType())) {
-                values[0] = values[0].add(t.getAmountAsDecimal());
-            } else {
-                values[1] = values[1].add(t.getAmountAsDecimal());
-            }
+            aggregator.add(t.getCategoryId(), t.getAmount(), t.getType());
         }
 
+        return aggregator.toTotals();
+    }
+
+    private List<CategorySummaryDTO> toCategorySummaries(Map<String, Totals> totals) {
+        // Nomes resolvidos em lote (cache + um único findAllById para o que faltar)
+        Map<String, CategoryCatalog.CategoryRef> categories = categoryCatalog.resolve(totals.keySet());
+
         return totals.entrySet().stream()
+                // Rollups zerados (todas as transações do mês removidas) não aparecem no gráfico
+                .filter(e -> e.getValue().income().signum() != 0 || e.getValue().expense().signum() != 0)
                 .map(e -> {
-                    String categoryName = categoryRepository.findById(e.getKey())
-                            .map(Category::getName)
-                            .orElse("Sem categoria");
+                    CategoryCatalog.CategoryRef category = categories.get(e.getKey());
+                    String categoryName = category != null ? category.name() : "Sem categoria";
 
                     return new CategorySummaryDTO(
                             e.getKey(),
                             categoryName,
-                            e.getValue()[0],
-                            e.getValue()[1]
+                            e.getValue().income(),
+                            e.getValue().expense()
                     );
                 })
                 .toList();
     }
 
-    private void decryptTransactions(List<Transaction> transactions, String userEmail) {
+    private static Instant monthStart(YearMonth yearMonth) {
+        return yearMonth.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    // Meses UTC inteiros dentro de (start, end). A borda inicial é (start, start()) e a final
+    // [end(), end); vazio quando o período não cobre nenhum mês inteiro
+    record FullMonths(YearMonth first, YearMonth last) {
+
+        static Optional<FullMonths> between(Instant start, Instant end) {
+            YearMonth first = YearMonth.from(start.atZone(ZoneOffset.UTC)).plusMonths(1);
+            YearMonth last = YearMonth.from(end.atZone(ZoneOffset.UTC)).minusMonths(1);
+
+            return first.isAfter(last) ? Optional.empty() : Optional.of(new FullMonths(first, last));
+        }
+
+        Instant start() {
+            return monthStart(first);
+        }
+
+        Instant end() {
+            return monthStart(last.plusMonths(1));
+        }
+    }
+
+    // Paginação por keyset em (date desc, id desc): o custo de cada página não depende do histórico,
+    // e só os itens da página são descriptografados
+    private TransactionPageDTO findPage(TransactionFilter filter, String cursor, Integer limit) {
+        int pageSize = limit == null ? defaultPageSize : limit;
+
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Tamanho de página inválido");
+        }
+        pageSize = Math.min(pageSize, maxPageSize);
+
+        PageCursor after = cursor == null || cursor.isBlank() ? null : PageCursor.decode(cursor);
+        String userEmail = AuthenticatedUser.getEmail();
+
+        // Um item a mais indica se existe próxima página
+        List<Transaction> transactions = transactionRepository.findPage(
+                userEmail,
+                filter,
+                after == null ? null : after.date(),
+                after == null ? null : after.id(),
+                pageSize + 1
+        );
+
+        String nextCursor = null;
+        if (transactions.size() > pageSize) {
+            transactions = new ArrayList<>(transactions.subList(0, pageSize));
+            Transaction last = transactions.get(pageSize - 1);
+            nextCursor = new PageCursor(last.getDate(), last.getId()).encode();
+        }
+
+        decryptTransactions(transactions, userEmail);
+
+        return new TransactionPageDTO(transactions, nextCursor);
+    }
+
+    private void validateDateRange(Instant start, Instant end) {
+        if (start == null || end == null) {
+            throw new IllegalArgumentException("Intervalo inválido");
+        }
+
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("Data inicial maior que final");
+        }
+    }
+
+    private boolean hasUserKey(String userEmail) {
         try {
-            User user = userRepository.findByEmail(userEmail)
-                    .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+            return userKeyService.findUserSecretKey(userEmail).isPresent();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private SecretKey requireUserKey(String userEmail) throws Exception {
+        return userKeyService.findUserSecretKey(userEmail)
+                .orElseThrow(() -> new IllegalStateException("Usuário não possui chave de criptografia configurada."));
+    }
 
+    private void decryptTransactions(List<Transaction> transactions, String userEmail) {
+        decryptTransactions(transactions, userEmail, TransactionField.ALL);
+    }
+
+    private void decryptTransactions(List<Transaction> transactions, String userEmail, Set<TransactionField> fields) {
+        try {
             // Se o usuário (como os antigos) não tiver chave ainda,
             // apenas retornamos para exibir o texto puro que já existe no banco.
-            if (user.getEncryptedUserKey() == null) {
+            Optional<SecretKey> key = userKeyService.findUserSecretKey(userEmail);
+            if (key.isEmpty()) {
                 return;
             }
 
-            String userKey = userKeyService.getUserKey(user);
+            SecretKey userKey = key.get();
 
-            transactions.forEach(t -> {
+            // Listas grandes são divididas em pedaços e descriptografadas em paralelo
+            bulkDecryptionExecutor.forEach(transactions, t -> {
                 try {
-                    // O dado criptografado SEMPRE contém ":" separando IV do conteúdo.
-                    // Dados antigos (plain text) não têm ":", então são mantidos como estão.
-                    if (t.getDescription() != null && t.getDescription().contains(":")) {
-                        t.setDescription(DataCrypto.decryptWithUserKey(t.getDescription(), userKey));
-                    }
-
-                    if (t.getAmount() != null && t.getAmount().contains(":")) {
-                        t.setAmount(DataCrypto.decryptWithUserKey(t.getAmount(), userKey));
-                    }
-
-                    if (t.getType() != null && t.getType().contains(":")) {
-                        t.setType(DataCrypto.decryptWithUserKey(t.getType(), userKey));
-                    }
-
+                    // Lê tanto o envelope atual quanto o layout legado (campos CBC ou texto puro)
+                    transactionCipher.decryptInPlace(t, userKey, fields);
                 } catch (Exception e) {
                     // Em caso de erro técnico na chave, protegemos os campos.
-                    t.setDescription("[Conteúdo Protegido]");
-                    t.setAmount("0");
-                    t.setType(TransactionType.EXPENSE.name());
+                    transactionCipher.reveal(t, TransactionCipher.PROTECTED);
                 }
             });
         } catch (Exception e) {
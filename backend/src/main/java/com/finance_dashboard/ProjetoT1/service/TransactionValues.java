@@ -0,0 +1,34 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+import com.finance_dashboard.ProjetoT1.model.Transaction;
+import com.finance_dashboard.ProjetoT1.model.TransactionType;
+import com.finance_dashboard.ProjetoT1.security.TransactionPayload;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// Visão em texto puro de uma transação, usada para manter agregados incrementais
+public record TransactionValues(
+        String id,
+        String categoryId,
+        Instant date,
+        String description,
+        BigDecimal amount,
+        TransactionType type
+) {
+
+    public static TransactionValues of(Transaction transaction, TransactionPayload payload) {
+        return new TransactionValues(
+                transaction.getId(),
+                transaction.getCategoryId(),
+                transaction.getDate(),
+                payload.description(),
+                payload.amount() == null ? BigDecimal.ZERO : new BigDecimal(payload.amount()),
+                TransactionType.INCOME.name().equals(payload.type()) ? TransactionType.INCOME : TransactionType.EXPENSE
+        );
+    }
+
+    public boolean isIncome() {
+        return type == TransactionType.INCOME;
+    }
+}
@@ -0,0 +1,22 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+import javax.crypto.SecretKey;
+import java.util.List;
+
+// Mantém dados derivados (resumos, índices, caches) em dia com as escritas de transações.
+// Chamado depois que a transação foi salva; falhas aqui não desfazem a escrita.
+public interface TransactionWriteListener {
+
+    void onChange(TransactionChange change);
+
+    // Várias transações novas de uma vez (importação, lote). Implementações podem agrupar os ajustes.
+    default void onBulkInsert(String userEmail, SecretKey key, List<TransactionValues> inserted) {
+        for (TransactionValues values : inserted) {
+            onChange(new TransactionChange(userEmail, key, null, values));
+        }
+    }
+
+    // Descarta todo o estado derivado do usuário (escrita interrompida, ver WriteGenerationService);
+    // a próxima leitura reconstrói a partir das transações
+    void discard(String userEmail);
+}
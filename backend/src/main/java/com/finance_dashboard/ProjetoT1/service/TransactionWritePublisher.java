@@ -0,0 +1,100 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.util.List;
+import java.util.OptionalLong;
+
+// Entrega as escritas de transações a todos os TransactionWriteListener.
+// Falha de um agregado não desfaz a escrita: cada listener se reconstrói na próxima leitura.
+// Quem grava transações chama begin() antes de gravar e end() depois de publicar (em finally),
+// para que as reconstruções saibam quando há escrita em andamento (ver WriteGenerationService).
+// A versão dos ETags avança no end(), depois de todos os listeners e mesmo se algum deles falhar:
+// um GET condicional nunca recebe o ETag novo antes de os agregados e caches estarem atualizados.
+@Component
+public class TransactionWritePublisher {
+
+    private final List<TransactionWriteListener> listeners;
+    private final WriteGenerationService writeGenerations;
+    private final DataVersionService dataVersionService;
+
+    public TransactionWritePublisher(
+            List<TransactionWriteListener> listeners,
+            WriteGenerationService writeGenerations,
+            DataVersionService dataVersionService
+    ) {
+        this.listeners = listeners;
+        this.writeGenerations = writeGenerations;
+        this.dataVersionService = dataVersionService;
+    }
+
+    public void begin(String userEmail) {
+        writeGenerations.begin(userEmail);
+    }
+
+    public void end(String userEmail) {
+        try {
+            writeGenerations.end(userEmail);
+        } catch (Exception e) {
+            // Sem o end, as reconstruções do usuário esperam "stale-after" para voltar a gravar
+            System.err.println("Aviso: Falha ao encerrar a escrita de " + userEmail);
+        }
+
+        try {
+            dataVersionService.bump(userEmail);
+        } catch (Exception e) {
+            System.err.println("Aviso: Falha ao avançar a versão dos dados de " + userEmail);
+        }
+    }
+
+    // Chamado nas leituras (antes do ETag): se uma escrita do usuário foi interrompida, descarta o
+    // estado de todos os listeners e só então iguala os contadores; se algum descarte falhar, a
+    // próxima leitura tenta de novo. Custa uma leitura por _id quando não há nada a recuperar
+    public void recoverAbandoned(String userEmail) {
+        OptionalLong abandoned = writeGenerations.abandoned(userEmail);
+        if (abandoned.isEmpty()) {
+            return;
+        }
+
+        for (TransactionWriteListener listener : listeners) {
+            try {
+                listener.discard(userEmail);
+            } catch (Exception e) {
+                warn(listener, userEmail);
+                return;
+            }
+        }
+
+        writeGenerations.repair(userEmail, abandoned.getAsLong());
+        dataVersionService.bump(userEmail);
+    }
+
+    public void publish(TransactionChange change) {
+        for (TransactionWriteListener listener : listeners) {
+            try {
+                listener.onChange(change);
+            } catch (Exception e) {
+                warn(listener, change.userEmail());
+            }
+        }
+    }
+
+    public void publishInserted(String userEmail, SecretKey key, List<TransactionValues> inserted) {
+        if (inserted.isEmpty()) {
+            return;
+        }
+
+        for (TransactionWriteListener listener : listeners) {
+            try {
+                listener.onBulkInsert(userEmail, key, inserted);
+            } catch (Exception e) {
+                warn(listener, userEmail);
+            }
+        }
+    }
+
+    private static void warn(TransactionWriteListener listener, String userEmail) {
+        System.err.println("Aviso: Falha ao atualizar " + listener.getClass().getSimpleName() + " para " + userEmail);
+    }
+}
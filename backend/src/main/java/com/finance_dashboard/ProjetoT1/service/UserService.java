@@ -5,6 +5,7 @@ import com.finance_dashboard.ProjetoT1.dto.*;
 import com.finance_dashboard.ProjetoT1.model.User;
 import com.finance_dashboard.ProjetoT1.repository.UserRepository;
 import com.finance_dashboard.ProjetoT1.security.CryptoUtils;
+import com.finance_dashboard.ProjetoT1.security.UserKeyService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -29,6 +30,9 @@ public class UserService {
     @Autowired
     private CryptoUtils cryptoUtils;
 
+    @Autowired
+    private UserKeyService userKeyService;
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
 
@@ -157,7 +161,11 @@ public class UserService {
         user.setEncryptedUserKey(encryptedKey);
         // Lembre-se de codificar a senha também se já não estiver fazendo!
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+
+        // A chave embrulhada mudou: qualquer entrada antiga em cache deixa de valer
+        userKeyService.invalidate(saved.getEmail());
+        return saved;
     }
 
     // Método auxiliar para converter bytes para String Hexadecimal
@@ -0,0 +1,100 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+import com.finance_dashboard.ProjetoT1.model.WriteGeneration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.OptionalLong;
+
+// Protege as reconstruções dos agregados contra escritas concorrentes.
+// Cada escrita de transação avança "started" antes de gravar e "finished" depois dos listeners.
+// Uma reconstrução só pode gravar o resultado se, antes de ler as transações, nenhuma escrita estava
+// em andamento (started == finished) e, depois de gravar, nenhuma outra começou (started igual).
+// Assim toda escrita ou já está nas linhas lidas, ou teve o listener aplicado sobre o resultado gravado,
+// ou invalidou a reconstrução. Uma escrita que nunca termina (processo derrubado) é recuperada por
+// TransactionWritePublisher.recoverAbandoned depois de "stale-after": o estado derivado do usuário é
+// descartado e só então os contadores são igualados.
+@Service
+public class WriteGenerationService {
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration staleAfter;
+
+    public WriteGenerationService(
+            MongoTemplate mongoTemplate,
+            @Value("${app.transactions.write-generation.stale-after:PT10M}") Duration staleAfter
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.staleAfter = staleAfter;
+    }
+
+    public void begin(String userEmail) {
+        mongoTemplate.upsert(
+                byUser(userEmail),
+                new Update().inc("started", 1).set("startedAt", Instant.now()),
+                WriteGeneration.class
+        );
+    }
+
+    public void end(String userEmail) {
+        mongoTemplate.updateFirst(byUser(userEmail), new Update().inc("finished", 1), WriteGeneration.class);
+    }
+
+    // Marca a guardar antes de ler as transações; vazio se há escrita em andamento
+    // (aí o resultado da reconstrução vale só para a resposta atual e não deve ser gravado)
+    public OptionalLong stable(String userEmail) {
+        WriteGeneration generation = mongoTemplate.findById(userEmail, WriteGeneration.class);
+
+        if (generation == null) {
+            return OptionalLong.of(0);
+        }
+
+        return generation.getStarted() == generation.getFinished()
+                ? OptionalLong.of(generation.getStarted())
+                : OptionalLong.empty();
+    }
+
+    // Escrita interrompida (processo derrubado, erro do Mongo depois do save): alguma escrita não
+    // terminou e nenhuma começou há mais de "stale-after". Os listeners dela podem não ter rodado,
+    // então todo estado derivado do usuário está suspeito. Devolve o "started" a passar para repair
+    public OptionalLong abandoned(String userEmail) {
+        WriteGeneration generation = mongoTemplate.findById(userEmail, WriteGeneration.class);
+
+        if (generation == null || generation.getStarted() == generation.getFinished()) {
+            return OptionalLong.empty();
+        }
+
+        Instant startedAt = generation.getStartedAt();
+        if (startedAt != null && startedAt.isAfter(Instant.now().minus(staleAfter))) {
+            return OptionalLong.empty();
+        }
+
+        return OptionalLong.of(generation.getStarted());
+    }
+
+    // Iguala os contadores depois de descartar o estado derivado, a menos que outra escrita tenha começado
+    public void repair(String userEmail, long started) {
+        mongoTemplate.updateFirst(
+                byUser(userEmail).addCriteria(Criteria.where("started").is(started)),
+                new Update().set("finished", started),
+                WriteGeneration.class
+        );
+    }
+
+    // Depois de gravar: false se alguma escrita começou desde stable(); o resultado gravado deve ser descartado
+    public boolean unchanged(String userEmail, long mark) {
+        WriteGeneration generation = mongoTemplate.findById(userEmail, WriteGeneration.class);
+
+        return (generation == null ? 0 : generation.getStarted()) == mark;
+    }
+
+    private static Query byUser(String userEmail) {
+        return Query.query(Criteria.where("_id").is(userEmail));
+    }
+}
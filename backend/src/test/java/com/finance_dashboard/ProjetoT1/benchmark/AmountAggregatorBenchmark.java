@@ -0,0 +1,101 @@
+package com.finance_dashboard.ProjetoT1.benchmark;
+
+import com.finance_dashboard.ProjetoT1.service.AmountAggregator;
+import com.finance_dashboard.ProjetoT1.service.BalanceSnapshotService.Totals;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Soma por categoria: laço antigo (BigDecimal por linha + HashMap<String, BigDecimal[]>) versus AmountAggregator.
+// Score em linhas/s; com o GCProfiler, "gc.alloc.rate.norm" é bytes alocados por linha.
+//
+// mvn test-compile && java -cp "target/test-classes:target/classes:$(cat cp.txt)" \
+//     com.finance_dashboard.ProjetoT1.benchmark.AmountAggregatorBenchmark
+// (cp.txt gerado com mvn dependency:build-classpath -Dmdep.outputFile=cp.txt)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AmountAggregatorBenchmark {
+
+    private static final int ROWS = 10_000;
+    private static final int CATEGORIES = 12;
+
+    private String[] categoryIds;
+    private String[] amounts;
+    private String[] types;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+
+        String[] categories = new String[CATEGORIES];
+        for (int i = 0; i < CATEGORIES; i++) {
+            categories[i] = "6650c0ffee00000000000" + String.format("%03d", i);
+        }
+
+        categoryIds = new String[ROWS];
+        amounts = new String[ROWS];
+        types = new String[ROWS];
+
+        for (int i = 0; i < ROWS; i++) {
+            categoryIds[i] = categories[random.nextInt(CATEGORIES)];
+            amounts[i] = BigDecimal.valueOf(random.nextInt(500_000) + 1, 2).toPlainString();
+            types[i] = random.nextInt(4) == 0 ? "INCOME" : "EXPENSE";
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public Map<String, BigDecimal[]> bigDecimalLoop() {
+        Map<String, BigDecimal[]> totals = new HashMap<>();
+        for (int i = 0; i < ROWS; i++) {
+            totals.putIfAbsent(categoryIds[i], new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+            BigDecimal[] values = totals.get(categoryIds[i]);
+            if ("INCOME".equals(types[i])) {
+                values[0] = values[0].add(new BigDecimal(amounts[i]));
+            } else {
+                values[1] = values[1].add(new BigDecimal(amounts[i]));
+            }
+        }
+        return totals;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public Map<String, Totals> aggregator() {
+        AmountAggregator aggregator = new AmountAggregator(CATEGORIES);
+        for (int i = 0; i < ROWS; i++) {
+            aggregator.add(categoryIds[i], amounts[i], types[i]);
+        }
+        return aggregator.toTotals();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AmountAggregatorBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()
+        ).run();
+    }
+}
@@ -0,0 +1,254 @@
+package com.finance_dashboard.ProjetoT1.repository;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Executa cada método de consulta dos repositórios contra um Mongo real, captura os comandos
+// enviados e roda "explain" em cada um: o plano vencedor não pode ter COLLSCAN nem SORT em memória.
+// Os índices são os criados pelo MongoIndexInitializer na subida do contexto.
+// Só roda com MONGODB_URI definido (o workflow .github/workflows/backend.yml sobe um Mongo e define a variável);
+// usa um banco próprio, apagado no fim.
+@SpringBootTest(properties = {
+        "spring.data.mongodb.uri=${MONGODB_URI}",
+        "spring.data.mongodb.database=query_plan_verification",
+        "master.encryption.key=0000000000000000000000000000000000000000000000000000000000000000",
+        "app.transactions.archive.enabled=false"
+})
+@EnabledIfEnvironmentVariable(named = "MONGODB_URI", matches = ".+")
+class QueryPlanVerificationTest {
+
+    private static final Set<String> QUERY_COMMANDS = Set.of("find", "aggregate", "count");
+    private static final Set<String> FORBIDDEN_STAGES = Set.of("COLLSCAN", "SORT");
+
+    private static final List<BsonDocument> captured = new CopyOnWriteArrayList<>();
+    private static volatile boolean capturing;
+    private static MongoTemplate dropOnFinish;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private CategoryRollupRepository categoryRollupRepository;
+    @Autowired
+    private MerchantSketchRepository merchantSketchRepository;
+    @Autowired
+    private AmountDistributionRepository amountDistributionRepository;
+    @Autowired
+    private BudgetRepository budgetRepository;
+    @Autowired
+    private BudgetSpendRepository budgetSpendRepository;
+    @Autowired
+    private RecurringRuleRepository recurringRuleRepository;
+    @Autowired
+    private GoalRepository goalRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @TestConfiguration
+    static class CaptureCommands {
+
+        @Bean
+        MongoClientSettingsBuilderCustomizer captureQueryCommands() {
+            return settings -> settings.addCommandListener(new CommandListener() {
+                @Override
+                public void commandStarted(CommandStartedEvent event) {
+                    if (capturing && QUERY_COMMANDS.contains(event.getCommandName())) {
+                        // O documento do evento só é válido durante o callback
+                        captured.add(event.getCommand().clone());
+                    }
+                }
+            });
+        }
+    }
+
+    @AfterAll
+    static void dropDatabase() {
+        if (dropOnFinish != null) {
+            dropOnFinish.getDb().drop();
+        }
+    }
+
+    @Test
+    void everyRepositoryQueryUsesAnIndex() throws Exception {
+        dropOnFinish = mongoTemplate;
+        List<String> failures = new ArrayList<>();
+
+        Map<Class<?>, Object> repositories = Map.of(
+                TransactionRepository.class, transactionRepository,
+                CategoryRepository.class, categoryRepository,
+                CategoryRollupRepository.class, categoryRollupRepository,
+                MerchantSketchRepository.class, merchantSketchRepository,
+                AmountDistributionRepository.class, amountDistributionRepository,
+                BudgetRepository.class, budgetRepository,
+                BudgetSpendRepository.class, budgetSpendRepository,
+                RecurringRuleRepository.class, recurringRuleRepository,
+                GoalRepository.class, goalRepository,
+                UserRepository.class, userRepository
+        );
+
+        for (Map.Entry<Class<?>, Object> repository : repositories.entrySet()) {
+            for (Method method : repository.getKey().getDeclaredMethods()) {
+                // Só leituras: deleteBy* e afins nunca são executados aqui
+                if (!isQueryMethod(method)) {
+                    continue;
+                }
+
+                String name = repository.getKey().getSimpleName() + "." + method.getName();
+                Object[] args = sampleArguments(method);
+                verify(name, () -> method.invoke(repository.getValue(), args), failures);
+            }
+        }
+
+        // Fragmento customizado: as variações de filtro e o keyset das listagens paginadas
+        String email = "plan@example.com";
+        Instant now = Instant.now();
+        String id = new ObjectId().toHexString();
+
+        verify("findPage(all)", () -> transactionRepository.findPage(email, TransactionFilter.all(), null, null, 50), failures);
+        verify("findPage(all, after)", () -> transactionRepository.findPage(email, TransactionFilter.all(), now, id, 50), failures);
+        verify("findPage(category)", () -> transactionRepository.findPage(email, TransactionFilter.category(id), now, id, 50), failures);
+        verify("findPage(halfOpen)", () -> transactionRepository.findPage(email, TransactionFilter.halfOpen(now.minusSeconds(86_400), now), null, null, 50), failures);
+        verify("findPage(between)", () -> transactionRepository.findPage(email, TransactionFilter.between(now.minusSeconds(86_400), now), now, id, 50), failures);
+
+        assertTrue(failures.isEmpty(), "Consultas sem índice adequado:\n" + String.join("\n", failures));
+    }
+
+    private void verify(String name, QueryCall call, List<String> failures) throws Exception {
+        captured.clear();
+        capturing = true;
+        try {
+            call.run();
+        } finally {
+            capturing = false;
+        }
+
+        if (captured.isEmpty()) {
+            failures.add(name + ": nenhum comando de consulta capturado");
+            return;
+        }
+
+        for (BsonDocument command : captured) {
+            Document explain = mongoTemplate.getDb().runCommand(new BsonDocument("explain", strip(command))
+                    .append("verbosity", new BsonString("queryPlanner")));
+
+            List<String> stages = new ArrayList<>();
+            collectWinningStages(explain, false, stages);
+
+            // Coleção inexistente (EOF) não prova nada: os índices criam as coleções na subida
+            if (stages.isEmpty() || stages.contains("EOF")) {
+                failures.add(name + ": plano vazio (coleção ausente?) " + stages);
+                continue;
+            }
+
+            List<String> forbidden = stages.stream().filter(FORBIDDEN_STAGES::contains).toList();
+            if (!forbidden.isEmpty()) {
+                failures.add(name + ": " + forbidden + " em " + command.toJson());
+            }
+        }
+    }
+
+    // Só o plano vencedor: rejectedPlans podem ter COLLSCAN sem que a consulta o use
+    private static void collectWinningStages(Object node, boolean inWinningPlan, List<String> stages) {
+        if (node instanceof Document document) {
+            for (Map.Entry<String, Object> entry : document.entrySet()) {
+                if ("rejectedPlans".equals(entry.getKey())) {
+                    continue;
+                }
+
+                boolean winning = inWinningPlan || "winningPlan".equals(entry.getKey());
+
+                if (winning && "stage".equals(entry.getKey()) && entry.getValue() instanceof String stage) {
+                    stages.add(stage);
+                }
+
+                collectWinningStages(entry.getValue(), winning, stages);
+            }
+        } else if (node instanceof Collection<?> items) {
+            for (Object item : items) {
+                collectWinningStages(item, inWinningPlan, stages);
+            }
+        }
+    }
+
+    // Remove do comando capturado os campos de sessão/transporte que o explain não aceita
+    private static BsonDocument strip(BsonDocument command) {
+        BsonDocument stripped = new BsonDocument();
+        for (Map.Entry<String, BsonValue> entry : command.entrySet()) {
+            String key = entry.getKey();
+            if (!key.startsWith("$") && !key.equals("lsid") && !key.equals("txnNumber")) {
+                stripped.append(key, entry.getValue());
+            }
+        }
+        return stripped;
+    }
+
+    private static boolean isQueryMethod(Method method) {
+        String name = method.getName();
+        return !method.isDefault()
+                && (name.startsWith("find") || name.startsWith("exists") || name.startsWith("count"));
+    }
+
+    private static Object[] sampleArguments(Method method) {
+        Parameter[] parameters = method.getParameters();
+        Object[] args = new Object[parameters.length];
+
+        for (int i = 0; i < parameters.length; i++) {
+            Class<?> type = parameters[i].getType();
+
+            if (type == String.class) {
+                args[i] = new ObjectId().toHexString();
+            } else if (type == Instant.class) {
+                args[i] = Instant.now().plusSeconds(86_400L * i);
+            } else if (type == boolean.class || type == Boolean.class) {
+                args[i] = true;
+            } else if (type == int.class || type == Integer.class) {
+                args[i] = 1;
+            } else if (type == long.class || type == Long.class) {
+                args[i] = 1L;
+            } else if (type == List.class) {
+                args[i] = List.of(new ObjectId().toHexString(), new ObjectId().toHexString());
+            } else if (type == Limit.class) {
+                args[i] = Limit.of(50);
+            } else {
+                throw new IllegalStateException("Sem argumento de exemplo para " + type + " em " + method);
+            }
+        }
+
+        return args;
+    }
+
+    @FunctionalInterface
+    private interface QueryCall {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,82 @@
+package com.finance_dashboard.ProjetoT1.security;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchTokenizerTest {
+
+    private final SearchTokenizer tokenizer = new SearchTokenizer(new CryptoEngine());
+
+    @Test
+    void wordsAreNormalizedAndDistinct() {
+        assertEquals(List.of("cafe", "acucar", "e", "pao", "2024"), SearchTokenizer.words("Café, AÇÚCAR e pão-2024 café!"));
+        assertEquals(List.of(), SearchTokenizer.words("  "));
+        assertEquals(List.of(), SearchTokenizer.words(null));
+    }
+
+    // A busca por prefixo gera o mesmo token que a descrição indexada, com ou sem acento
+    @Test
+    void queryTokensMatchDescriptionPrefixes() throws Exception {
+        SecretKey key = key(1);
+        List<String> tokens = tokenizer.tokens(key, "Supermercado Pão de Açúcar");
+
+        assertTrue(tokens.containsAll(tokenizer.queryTokens(key, "super")));
+        assertTrue(tokens.containsAll(tokenizer.queryTokens(key, "pao acu")));
+        assertTrue(tokens.containsAll(tokenizer.queryTokens(key, "de")));
+        assertFalse(tokens.containsAll(tokenizer.queryTokens(key, "mercado")));
+        // Palavra curta só casa com a palavra inteira
+        assertFalse(tokens.containsAll(tokenizer.queryTokens(key, "su")));
+    }
+
+    @Test
+    void longWordsAreCutAtSixteenCharacters() throws Exception {
+        SecretKey key = key(1);
+        List<String> tokens = tokenizer.tokens(key, "anticonstitucionalissimamente");
+
+        assertEquals(14, tokens.size());
+        assertTrue(tokens.containsAll(tokenizer.queryTokens(key, "anticonstitucionalmente")));
+    }
+
+    @Test
+    void tokensDependOnUserKey() throws Exception {
+        assertEquals(tokenizer.tokens(key(1), "Farmácia"), tokenizer.tokens(key(1), "farmacia"));
+        assertNotEquals(tokenizer.tokens(key(1), "Farmácia"), tokenizer.tokens(key(2), "Farmácia"));
+    }
+
+    @Test
+    void tokensAreCappedPerDescription() throws Exception {
+        assertEquals(256, tokenizer.tokens(key(1), longWords(40)).size());
+    }
+
+    @Test
+    void plainTextMatchingFollowsSameRules() {
+        assertTrue(SearchTokenizer.matches("Supermercado Pão de Açúcar", "SUPER açu"));
+        assertTrue(SearchTokenizer.matches("Posto BR", "br"));
+        assertFalse(SearchTokenizer.matches("Posto BR", "b"));
+        assertFalse(SearchTokenizer.matches("Supermercado", "mercado"));
+        assertTrue(SearchTokenizer.matches("qualquer", ""));
+    }
+
+    private static SecretKey key(int seed) {
+        byte[] bytes = new byte[32];
+        Arrays.fill(bytes, (byte) seed);
+        return CryptoEngine.aesKey(bytes);
+    }
+
+    // Palavras distintas de 16+ letras: 14 prefixos (3 a 16) cada
+    private static String longWords(int count) {
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            out.append((char) ('a' + i % 26)).append((char) ('a' + i / 26)).append("palavracomprida ");
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,129 @@
+package com.finance_dashboard.ProjetoT1.security;
+
+import com.finance_dashboard.ProjetoT1.model.Transaction;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.SecretKey;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TransactionCipherTest {
+
+    private final CryptoEngine engine = new CryptoEngine();
+    private final TransactionCipher cipher = new TransactionCipher(engine, new DataCrypto(engine), new SearchTokenizer(engine));
+
+    @Test
+    void envelopeRoundTripsAndClearsLooseFields() throws Exception {
+        Transaction transaction = transaction("t1");
+        transaction.setDescription("antigo");
+        TransactionPayload payload = new TransactionPayload("Feira\ncom quebra de linha", "10.50", "EXPENSE");
+
+        cipher.seal(transaction, payload, key(1));
+
+        assertEquals(TransactionCipher.ENVELOPE_FORMAT, transaction.getFormatVersion());
+        assertNull(transaction.getDescription());
+        assertNull(transaction.getAmount());
+        assertNull(transaction.getType());
+        assertFalse(transaction.getSearchTokens().isEmpty());
+        assertEquals(payload, cipher.open(transaction, key(1)));
+    }
+
+    @Test
+    void opensOnlyRequestedFields() throws Exception {
+        Transaction transaction = transaction("t1");
+        cipher.seal(transaction, new TransactionPayload("Feira", "10.50", "EXPENSE"), key(1));
+
+        assertEquals(new TransactionPayload(null, "10.50", "EXPENSE"),
+                cipher.open(transaction, key(1), TransactionField.AMOUNT_AND_TYPE));
+    }
+
+    // O id entra como AAD: o envelope copiado para outro documento não abre
+    @Test
+    void envelopeIsBoundToTransactionId() throws Exception {
+        Transaction original = transaction("t1");
+        cipher.seal(original, new TransactionPayload("Feira", "10.50", "EXPENSE"), key(1));
+
+        Transaction copy = transaction("t2");
+        copy.setFormatVersion(original.getFormatVersion());
+        copy.setPayload(original.getPayload());
+
+        assertThrows(AEADBadTagException.class, () -> cipher.open(copy, key(1)));
+        assertThrows(AEADBadTagException.class, () -> cipher.open(original, key(2)));
+    }
+
+    @Test
+    void sealRequiresId() {
+        assertThrows(IllegalStateException.class,
+                () -> cipher.seal(new Transaction(), new TransactionPayload("a", "1", "EXPENSE"), key(1)));
+    }
+
+    // Layout legado: campos soltos em texto puro ou AES-CBC ("iv:conteúdo"), misturados
+    @Test
+    void readsLegacyFields() throws Exception {
+        Transaction transaction = transaction("t1");
+        transaction.setDescription(engine.encrypt("Padaria", key(1)));
+        transaction.setAmount("3.50");
+        transaction.setType(engine.encrypt("EXPENSE", key(1)));
+
+        assertEquals(new TransactionPayload("Padaria", "3.50", "EXPENSE"), cipher.open(transaction, key(1)));
+        assertEquals(new TransactionPayload(null, "3.50", "EXPENSE"),
+                cipher.open(transaction, key(1), TransactionField.AMOUNT_AND_TYPE));
+    }
+
+    @Test
+    void unreadableRowsFallBackToProtected() throws Exception {
+        Transaction transaction = transaction("t1");
+        cipher.seal(transaction, new TransactionPayload("Feira", "10.50", "EXPENSE"), key(1));
+
+        assertEquals(TransactionCipher.PROTECTED,
+                cipher.openOrProtected(transaction, key(2), TransactionField.ALL));
+
+        Transaction unknown = transaction("t2");
+        unknown.setFormatVersion(99);
+        assertEquals(TransactionCipher.PROTECTED, cipher.openOrProtected(unknown, key(1), TransactionField.ALL));
+        assertThrows(IllegalStateException.class, () -> cipher.open(unknown, key(1)));
+    }
+
+    // Usuário legado sem chave: os campos como estão no documento
+    @Test
+    void withoutKeyReturnsPlainFields() {
+        Transaction transaction = transaction("t1");
+        transaction.setDescription("Padaria");
+        transaction.setAmount("3.50");
+        transaction.setType("EXPENSE");
+
+        assertEquals(new TransactionPayload("Padaria", "3.50", "EXPENSE"),
+                cipher.openOrProtected(transaction, null, TransactionField.ALL));
+    }
+
+    @Test
+    void revealLeavesPlainValuesOnEntity() throws Exception {
+        Transaction transaction = transaction("t1");
+        cipher.seal(transaction, new TransactionPayload("Feira", "10.50", "EXPENSE"), key(1));
+
+        cipher.decryptInPlace(transaction, key(1));
+
+        assertEquals("Feira", transaction.getDescription());
+        assertEquals("10.50", transaction.getAmount());
+        assertEquals("EXPENSE", transaction.getType());
+        assertNull(transaction.getPayload());
+        assertNull(transaction.getSearchTokens());
+    }
+
+    private static Transaction transaction(String id) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        return transaction;
+    }
+
+    private static SecretKey key(int seed) {
+        byte[] bytes = new byte[32];
+        Arrays.fill(bytes, (byte) seed);
+        return CryptoEngine.aesKey(bytes);
+    }
+}
@@ -0,0 +1,149 @@
+package com.finance_dashboard.ProjetoT1.security;
+
+import com.finance_dashboard.ProjetoT1.model.User;
+import com.finance_dashboard.ProjetoT1.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserKeyServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final CryptoUtils cryptoUtils = mock(CryptoUtils.class);
+
+    @BeforeEach
+    void users() throws Exception {
+        for (String name : new String[]{"a", "b", "c"}) {
+            User user = new User(name, name + "@example.com", "senha");
+            user.setEncryptedUserKey("wrapped-" + name);
+            when(userRepository.findByEmail(name + "@example.com")).thenReturn(Optional.of(user));
+            when(cryptoUtils.decrypt("wrapped-" + name)).thenReturn(HexFormat.of().formatHex(keyBytes(name)));
+        }
+
+        when(userRepository.findByEmail("legado@example.com"))
+                .thenReturn(Optional.of(new User("legado", "legado@example.com", "senha")));
+    }
+
+    @Test
+    void unwrapsOnceAndServesFromCache() throws Exception {
+        UserKeyService service = service(10, Duration.ofMinutes(15));
+
+        assertArrayEquals(keyBytes("a"), service.findUserKeyBytes("a@example.com").orElseThrow());
+        assertArrayEquals(keyBytes("a"), service.findUserKeyBytes("a@example.com").orElseThrow());
+
+        verify(cryptoUtils, times(1)).decrypt(anyString());
+        assertEquals(1, service.getCacheHits());
+        assertEquals(1, service.getCacheMisses());
+        assertEquals(1, service.getCacheSize());
+    }
+
+    // Usuário legado sem chave também fica em cache (sem nova consulta ao banco)
+    @Test
+    void cachesMissingKeyOfLegacyUser() throws Exception {
+        UserKeyService service = service(10, Duration.ofMinutes(15));
+
+        assertTrue(service.findUserSecretKey("legado@example.com").isEmpty());
+        assertTrue(service.findUserKeyBytes("legado@example.com").isEmpty());
+
+        verify(userRepository, times(1)).findByEmail("legado@example.com");
+    }
+
+    @Test
+    void unknownUserFails() {
+        UserKeyService service = service(10, Duration.ofMinutes(15));
+        when(userRepository.findByEmail("ninguem@example.com")).thenReturn(Optional.empty());
+
+        assertThrows(RuntimeException.class, () -> service.findUserKeyBytes("ninguem@example.com"));
+    }
+
+    // Chamadores recebem cópias: zerar a sua não afeta o cache, e a evicção não zera a deles
+    @Test
+    void callersGetCopies() throws Exception {
+        UserKeyService service = service(1, Duration.ofMinutes(15));
+
+        byte[] first = service.findUserKeyBytes("a@example.com").orElseThrow();
+        Arrays.fill(first, (byte) 0);
+        byte[] second = service.findUserKeyBytes("a@example.com").orElseThrow();
+
+        service.findUserKeyBytes("b@example.com");
+
+        assertArrayEquals(keyBytes("a"), second);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() throws Exception {
+        UserKeyService service = service(2, Duration.ofMinutes(15));
+
+        service.findUserKeyBytes("a@example.com");
+        service.findUserKeyBytes("b@example.com");
+        service.findUserKeyBytes("a@example.com");
+        service.findUserKeyBytes("c@example.com");
+
+        service.findUserKeyBytes("a@example.com");
+        service.findUserKeyBytes("b@example.com");
+
+        verify(cryptoUtils, times(1)).decrypt("wrapped-a");
+        verify(cryptoUtils, times(2)).decrypt("wrapped-b");
+        assertEquals(2, service.getCacheSize());
+    }
+
+    @Test
+    void expiresIdleEntries() throws Exception {
+        UserKeyService service = service(10, Duration.ofMillis(20));
+
+        service.findUserKeyBytes("a@example.com");
+        Thread.sleep(50);
+        service.findUserKeyBytes("a@example.com");
+
+        verify(cryptoUtils, times(2)).decrypt("wrapped-a");
+    }
+
+    // Troca de chave do usuário: a próxima leitura desembrulha de novo
+    @Test
+    void invalidateForcesReload() throws Exception {
+        UserKeyService service = service(10, Duration.ofMinutes(15));
+
+        service.findUserKeyBytes("a@example.com");
+        service.invalidate("a@example.com");
+        service.findUserKeyBytes("a@example.com");
+
+        verify(cryptoUtils, times(2)).decrypt("wrapped-a");
+        assertEquals(2, service.getCacheMisses());
+    }
+
+    @Test
+    void secretKeyUsesCachedBytes() throws Exception {
+        UserKeyService service = service(10, Duration.ofMinutes(15));
+
+        assertArrayEquals(keyBytes("b"), service.findUserSecretKey("b@example.com").orElseThrow().getEncoded());
+        assertArrayEquals(keyBytes("b"), service.findUserSecretKey("b@example.com").orElseThrow().getEncoded());
+    }
+
+    private UserKeyService service(int maxEntries, Duration idleTtl) {
+        UserKeyService service = new UserKeyService(maxEntries, idleTtl);
+        ReflectionTestUtils.setField(service, "cryptoUtils", cryptoUtils);
+        ReflectionTestUtils.setField(service, "userRepository", userRepository);
+        return service;
+    }
+
+    private static byte[] keyBytes(String name) {
+        byte[] bytes = new byte[32];
+        Arrays.fill(bytes, (byte) name.charAt(0));
+        return bytes;
+    }
+}
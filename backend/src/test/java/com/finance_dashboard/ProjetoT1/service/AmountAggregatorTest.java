@@ -0,0 +1,89 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+import com.finance_dashboard.ProjetoT1.service.BalanceSnapshotService.Totals;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AmountAggregatorTest {
+
+    @Test
+    void sumsPerKeyAndType() {
+        AmountAggregator aggregator = new AmountAggregator();
+        aggregator.add("mercado", "10.50", "EXPENSE");
+        aggregator.add("salario", "3000", "INCOME");
+        aggregator.add("mercado", "0.25", "EXPENSE");
+        aggregator.add("mercado", "5", "INCOME");
+
+        Map<String, Totals> totals = aggregator.toTotals();
+
+        assertEquals(new BigDecimal("10.75"), totals.get("mercado").expense());
+        assertEquals(new BigDecimal("5"), totals.get("mercado").income());
+        assertEquals(new BigDecimal("3000"), totals.get("salario").income());
+        assertEquals(new BigDecimal("0"), totals.get("salario").expense());
+        assertEquals(new BigDecimal("3005"), aggregator.total().income());
+        assertEquals(new BigDecimal("10.75"), aggregator.total().expense());
+    }
+
+    // Mesmo resultado (valor e escala) de BigDecimal.add, inclusive fora do caminho rápido
+    @Test
+    void matchesBigDecimalAddition() {
+        String[] amounts = {
+                "1.1", "-2.25", "+3", "0.0001", "0.12345", "1E+2", "12345678901234.5",
+                "99999999999999.9999", "99999999999999.9999", ".5", "7."
+        };
+
+        AmountAggregator aggregator = new AmountAggregator();
+        BigDecimal expected = BigDecimal.ZERO;
+        for (String amount : amounts) {
+            aggregator.add("conta", amount, "EXPENSE");
+            expected = expected.add(new BigDecimal(amount));
+        }
+
+        BigDecimal actual = aggregator.toTotals().get("conta").expense();
+
+        assertEquals(expected, actual);
+        assertEquals(expected.scale(), actual.scale());
+    }
+
+    // Somas que estourariam o long transbordam para o acumulador lento sem perder precisão
+    @Test
+    void spillsOverflowingSums() {
+        AmountAggregator aggregator = new AmountAggregator();
+        BigDecimal expected = BigDecimal.ZERO;
+        for (int i = 0; i < 2_000; i++) {
+            aggregator.add("grande", "99999999999999.99", "INCOME");
+            expected = expected.add(new BigDecimal("99999999999999.99"));
+        }
+
+        assertEquals(expected, aggregator.toTotals().get("grande").income());
+        assertEquals(expected, aggregator.total().income());
+    }
+
+    @Test
+    void ignoresEmptyAmountsAndKeepsNullKey() {
+        AmountAggregator aggregator = new AmountAggregator(1);
+        aggregator.add(null, "2.00", "EXPENSE");
+        aggregator.add("a", "", "EXPENSE");
+        aggregator.add("b", null, "EXPENSE");
+        aggregator.add(null, "1.00", "EXPENSE");
+
+        Map<String, Totals> totals = aggregator.toTotals();
+
+        assertEquals(3, aggregator.size());
+        assertEquals(new BigDecimal("3.00"), totals.get(null).expense());
+        assertEquals(new BigDecimal("0"), totals.get("a").expense());
+    }
+
+    @Test
+    void denseSlotsStartEmpty() {
+        AmountAggregator aggregator = AmountAggregator.dense(3);
+        aggregator.addToSlot(2, "4.5", AmountAggregator.INCOME);
+
+        assertEquals(new BigDecimal("0"), aggregator.totalsOf(0).income());
+        assertEquals(new BigDecimal("4.5"), aggregator.totalsOf(2).income());
+    }
+}
@@ -0,0 +1,83 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+import com.finance_dashboard.ProjetoT1.model.BudgetSpend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BudgetServiceTest {
+
+    private static final BigDecimal LIMIT = new BigDecimal("500.00");
+
+    // mark só usa o percentual de aviso; os colaboradores não são tocados
+    private final BudgetService service = new BudgetService(
+            null, null, null, null, null, null, null, null, 80, Duration.ofSeconds(1));
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void belowWarningLeavesBothClear() {
+        BudgetSpend spend = spend();
+
+        service.mark(spend, new BigDecimal("399.99"), LIMIT);
+
+        assertNull(spend.getWarnedAt());
+        assertNull(spend.getExceededAt());
+    }
+
+    // Limiares inclusivos: 80% exatos avisa, 100% exatos estoura
+    @Test
+    void thresholdsAreInclusive() {
+        BudgetSpend spend = spend();
+
+        service.mark(spend, new BigDecimal("400.00"), LIMIT);
+        assertNotNull(spend.getWarnedAt());
+        assertNull(spend.getExceededAt());
+
+        service.mark(spend, new BigDecimal("500.00"), LIMIT);
+        assertNotNull(spend.getExceededAt());
+    }
+
+    // O instante registrado é o do primeiro cruzamento, não o da última escrita
+    @Test
+    void keepsFirstCrossing() {
+        BudgetSpend spend = spend();
+        Instant warned = Instant.parse("2024-03-05T10:00:00Z");
+        Instant exceeded = Instant.parse("2024-03-20T10:00:00Z");
+        spend.setWarnedAt(warned);
+        spend.setExceededAt(exceeded);
+
+        service.mark(spend, new BigDecimal("650.00"), LIMIT);
+
+        assertEquals(warned, spend.getWarnedAt());
+        assertEquals(exceeded, spend.getExceededAt());
+    }
+
+    // Exclusão ou estorno que traz o gasto de volta para baixo limpa cada marca no seu limiar
+    @Test
+    void clearsWhenSpendDrops() {
+        BudgetSpend spend = spend();
+        service.mark(spend, new BigDecimal("600.00"), LIMIT);
+
+        service.mark(spend, new BigDecimal("450.00"), LIMIT);
+        assertNotNull(spend.getWarnedAt());
+        assertNull(spend.getExceededAt());
+
+        service.mark(spend, new BigDecimal("100.00"), LIMIT);
+        assertNull(spend.getWarnedAt());
+    }
+
+    private static BudgetSpend spend() {
+        return new BudgetSpend("user@example.com", "2024-03", "cat");
+    }
+}
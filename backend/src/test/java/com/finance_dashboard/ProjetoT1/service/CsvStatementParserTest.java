@@ -0,0 +1,86 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvStatementParserTest {
+
+    @Test
+    void readsExportLayout() {
+        List<StatementLine> lines = parse("""
+                id,date,categoryId,category,type,amount,description
+                1,2024-03-01,cat-1,Mercado,EXPENSE,10.50,Feira
+                2,2024-03-02,,Salário,INCOME,3000,"Pagamento, março"
+                """);
+
+        assertEquals(2, lines.size());
+        assertEquals(new StatementLine(2, "2024-03-01", "Feira", "10.50", "EXPENSE", "cat-1", null), lines.get(0));
+        // Sem categoryId, usa o nome da categoria
+        assertEquals(new StatementLine(3, "2024-03-02", "Pagamento, março", "3000", "INCOME", "Salário", null), lines.get(1));
+    }
+
+    @Test
+    void acceptsPortugueseHeadersWithSemicolonAndBom() {
+        List<StatementLine> lines = parse("\uFEFFData;Descrição;Valor;Tipo;Categoria\r\n"
+                + "01/03/2024;Padaria;3,50;EXPENSE;Alimentação\r\n");
+
+        assertEquals(1, lines.size());
+        assertEquals("01/03/2024", lines.get(0).date());
+        assertEquals("Padaria", lines.get(0).description());
+        assertEquals("3,50", lines.get(0).amount());
+        assertEquals("Alimentação", lines.get(0).category());
+    }
+
+    // Campo entre aspas com quebra de linha conta as linhas físicas; linhas em branco são puladas
+    @Test
+    void quotedFieldsSpanLinesAndBlankLinesAreSkipped() {
+        List<StatementLine> lines = parse("data,historico,valor\n"
+                + "2024-03-01,\"linha um\nlinha \"\"dois\"\"\",1\n"
+                + "\n"
+                + "2024-03-03,Outra,2\n");
+
+        assertEquals(2, lines.size());
+        assertEquals("linha um\nlinha \"dois\"", lines.get(0).description());
+        assertEquals(2, lines.get(0).line());
+        assertEquals(5, lines.get(1).line());
+        assertNull(lines.get(1).type());
+    }
+
+    @Test
+    void undoesFormulaEscaping() {
+        List<StatementLine> lines = parse("""
+                date,description,amount,category
+                2024-03-01,'=SUM(A1),1,'+Extra
+                2024-03-02,'normal,2,Casa
+                """);
+
+        assertEquals("=SUM(A1)", lines.get(0).description());
+        assertEquals("+Extra", lines.get(0).category());
+        assertEquals("'normal", lines.get(1).description());
+    }
+
+    @Test
+    void rejectsMissingColumnsAndEmptyFile() {
+        assertThrows(IllegalArgumentException.class, () -> parse("data,valor\n2024-03-01,1\n"));
+        assertThrows(IllegalArgumentException.class, () -> parse(""));
+    }
+
+    @Test
+    void headerOnlyHasNoLines() {
+        assertFalse(new CsvStatementParser(new StringReader("data,descricao,valor\n")).hasNext());
+    }
+
+    private static List<StatementLine> parse(String csv) {
+        List<StatementLine> lines = new ArrayList<>();
+        new CsvStatementParser(new StringReader(csv)).forEachRemaining(lines::add);
+        return lines;
+    }
+}
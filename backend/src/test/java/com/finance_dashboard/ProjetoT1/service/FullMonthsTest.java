@@ -0,0 +1,65 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+import com.finance_dashboard.ProjetoT1.service.TransactionService.FullMonths;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FullMonthsTest {
+
+    @Test
+    void splitsPartialEdges() {
+        FullMonths full = FullMonths.between(
+                Instant.parse("2024-01-15T10:00:00Z"),
+                Instant.parse("2024-04-10T10:00:00Z")
+        ).orElseThrow();
+
+        assertEquals(YearMonth.of(2024, 2), full.first());
+        assertEquals(YearMonth.of(2024, 3), full.last());
+        assertEquals(Instant.parse("2024-02-01T00:00:00Z"), full.start());
+        assertEquals(Instant.parse("2024-04-01T00:00:00Z"), full.end());
+    }
+
+    // Sem mês inteiro no meio: tudo vem da varredura das transações
+    @Test
+    void emptyWithinOrAcrossSingleBoundary() {
+        assertTrue(FullMonths.between(
+                Instant.parse("2024-03-02T00:00:00Z"), Instant.parse("2024-03-28T00:00:00Z")).isEmpty());
+        assertTrue(FullMonths.between(
+                Instant.parse("2024-01-15T00:00:00Z"), Instant.parse("2024-02-10T00:00:00Z")).isEmpty());
+    }
+
+    // Limites exclusivos: start no 1º instante do mês não torna o mês inteiro (o próprio start fica de fora)
+    @Test
+    void exclusiveBoundsOnMonthStarts() {
+        FullMonths full = FullMonths.between(
+                Instant.parse("2024-01-01T00:00:00Z"),
+                Instant.parse("2024-04-01T00:00:00Z")
+        ).orElseThrow();
+
+        assertEquals(YearMonth.of(2024, 2), full.first());
+        assertEquals(YearMonth.of(2024, 3), full.last());
+        // Borda final [end(), end) vazia
+        assertEquals(Instant.parse("2024-04-01T00:00:00Z"), full.end());
+    }
+
+    // As bordas usam o mesmo mês UTC dos rollups: nenhuma transação é contada duas vezes ou esquecida
+    @Test
+    void edgesMatchRollupMonths() {
+        FullMonths full = FullMonths.between(
+                Instant.parse("2023-12-31T23:30:00Z"),
+                Instant.parse("2024-03-01T00:30:00Z")
+        ).orElseThrow();
+
+        assertEquals(YearMonth.of(2024, 1), full.first());
+        assertEquals(YearMonth.of(2024, 2), full.last());
+        assertEquals(full.first().toString(), CategoryRollupService.monthOf(full.start()));
+        assertEquals("2023-12", CategoryRollupService.monthOf(full.start().minusNanos(1)));
+        assertEquals(full.last().toString(), CategoryRollupService.monthOf(full.end().minusNanos(1)));
+        assertEquals("2024-03", CategoryRollupService.monthOf(full.end()));
+    }
+}
@@ -0,0 +1,148 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+import com.finance_dashboard.ProjetoT1.model.Transaction;
+import com.finance_dashboard.ProjetoT1.model.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MonthSliceCacheTest {
+
+    private static final String ANA = "ana@example.com";
+    private static final String BIA = "bia@example.com";
+    private static final YearMonth MARCH = YearMonth.of(2024, 3);
+    private static final YearMonth APRIL = YearMonth.of(2024, 4);
+
+    @Test
+    void servesStoredSlice() {
+        MonthSliceCache cache = cache(1 << 20);
+
+        cache.put(ANA, MARCH, List.of(transaction("a")), cache.stamp(ANA));
+
+        assertEquals("a", cache.get(ANA, MARCH).get(0).getId());
+        assertNull(cache.get(ANA, APRIL));
+        assertNull(cache.get(BIA, MARCH));
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    // Carga que começou antes de uma escrita do mesmo usuário traria o mês antigo
+    @Test
+    void dropsLoadStartedBeforeInvalidationOfSameUser() {
+        MonthSliceCache cache = cache(1 << 20);
+
+        long stamp = cache.stamp(ANA);
+        cache.onChange(new TransactionChange(ANA, null, null, values(MARCH)));
+        cache.put(ANA, MARCH, List.of(transaction("a")), stamp);
+
+        assertNull(cache.get(ANA, MARCH));
+    }
+
+    @Test
+    void keepsLoadWhenOnlyOtherUsersWrite() {
+        MonthSliceCache cache = cache(1 << 20);
+
+        long stamp = cache.stamp(ANA);
+        cache.onChange(new TransactionChange(BIA, null, null, values(MARCH)));
+        cache.put(ANA, MARCH, List.of(transaction("a")), stamp);
+
+        assertNotNull(cache.get(ANA, MARCH));
+    }
+
+    // Edição que troca a data invalida o mês antigo e o novo
+    @Test
+    void editInvalidatesBothMonths() {
+        MonthSliceCache cache = cache(1 << 20);
+        cache.put(ANA, MARCH, List.of(transaction("a")), cache.stamp(ANA));
+        cache.put(ANA, APRIL, List.of(transaction("b")), cache.stamp(ANA));
+
+        cache.onChange(new TransactionChange(ANA, null, values(MARCH), values(APRIL)));
+
+        assertNull(cache.get(ANA, MARCH));
+        assertNull(cache.get(ANA, APRIL));
+    }
+
+    @Test
+    void discardRemovesOnlyThatUser() {
+        MonthSliceCache cache = cache(1 << 20);
+        cache.put(ANA, MARCH, List.of(transaction("a")), cache.stamp(ANA));
+        cache.put(ANA, APRIL, List.of(transaction("b")), cache.stamp(ANA));
+        cache.put(BIA, MARCH, List.of(transaction("c")), cache.stamp(BIA));
+
+        cache.discard(ANA);
+
+        assertNull(cache.get(ANA, MARCH));
+        assertNull(cache.get(ANA, APRIL));
+        assertNotNull(cache.get(BIA, MARCH));
+        assertEquals(1, cache.getSize());
+    }
+
+    // Esvaziar o mapa de gerações nunca aceita uma carga anterior a uma invalidação
+    @Test
+    void trimmingGenerationsStillRejectsStaleLoads() {
+        MonthSliceCache cache = cache(1 << 20);
+
+        long stamp = cache.stamp(ANA);
+        cache.invalidate(ANA, MARCH);
+        for (int i = 0; i < 10_001; i++) {
+            cache.invalidate("user" + i + "@example.com", MARCH);
+        }
+        cache.put(ANA, MARCH, List.of(transaction("a")), stamp);
+
+        assertNull(cache.get(ANA, MARCH));
+
+        cache.put(ANA, MARCH, List.of(transaction("a")), cache.stamp(ANA));
+        assertNotNull(cache.get(ANA, MARCH));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedOverByteBudget() {
+        MonthSliceCache probe = cache(1 << 20);
+        probe.put(ANA, MARCH, List.of(transaction("a")), probe.stamp(ANA));
+        long oneSlice = probe.getBytes();
+
+        MonthSliceCache cache = cache(oneSlice * 2 - 1);
+        cache.put(ANA, MARCH, List.of(transaction("a")), cache.stamp(ANA));
+        cache.put(ANA, APRIL, List.of(transaction("b")), cache.stamp(ANA));
+
+        assertNull(cache.get(ANA, MARCH));
+        assertNotNull(cache.get(ANA, APRIL));
+        assertEquals(1, cache.getEvictions());
+        assertEquals(oneSlice, cache.getBytes());
+    }
+
+    @Test
+    void disabledCacheStoresNothing() {
+        MonthSliceCache cache = new MonthSliceCache(false, 1 << 20, Duration.ofMinutes(10));
+
+        List<Transaction> slice = cache.put(ANA, MARCH, List.of(transaction("a")), cache.stamp(ANA));
+
+        assertEquals(1, slice.size());
+        assertNull(cache.get(ANA, MARCH));
+    }
+
+    private static MonthSliceCache cache(long maxBytes) {
+        return new MonthSliceCache(true, maxBytes, Duration.ofMinutes(10));
+    }
+
+    private static Transaction transaction(String id) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setUserEmail(ANA);
+        return transaction;
+    }
+
+    private static TransactionValues values(YearMonth month) {
+        Instant date = month.atDay(10).atStartOfDay().toInstant(ZoneOffset.UTC);
+        return new TransactionValues("t", "c", date, "d", BigDecimal.ONE, TransactionType.EXPENSE);
+    }
+}
@@ -0,0 +1,77 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OfxStatementParserTest {
+
+    // OFX 1.x: cabeçalho fora de tags e campos sem tag de fechamento
+    @Test
+    void readsSgmlStatement() {
+        List<StatementLine> lines = parse("""
+                OFXHEADER:100
+                DATA:OFXSGML
+                VERSION:102
+
+                <OFX>
+                <BANKMSGSRSV1><STMTTRNRS><STMTRS>
+                <BANKTRANLIST>
+                <STMTTRN>
+                <TRNTYPE>DEBIT
+                <DTPOSTED>20240301120000[-3:BRT]
+                <TRNAMT>-10.50
+                <FITID>abc1
+                <NAME>PADARIA
+                <MEMO>Padaria &amp; Café
+                </STMTTRN>
+                <STMTTRN>
+                <TRNTYPE>CREDIT
+                <DTPOSTED>20240305
+                <TRNAMT>3000.00
+                <FITID>abc2
+                <NAME>SALARIO
+                <MEMO>
+                </STMTTRN>
+                </BANKTRANLIST>
+                </STMTRS></STMTTRNRS></BANKMSGSRSV1>
+                </OFX>
+                """);
+
+        assertEquals(2, lines.size());
+        assertEquals(new StatementLine(1, "2024-03-01", "Padaria & Café", "-10.50", null, null, "abc1"), lines.get(0));
+        // MEMO vazio: usa NAME
+        assertEquals(new StatementLine(2, "2024-03-05", "SALARIO", "3000.00", null, null, "abc2"), lines.get(1));
+    }
+
+    @Test
+    void readsXmlStatement() {
+        List<StatementLine> lines = parse("""
+                <?xml version="1.0"?>
+                <OFX><BANKTRANLIST>
+                <stmttrn><DTPOSTED>20240410</DTPOSTED><TRNAMT>-1.99</TRNAMT><FITID>x</FITID><MEMO>App &lt;mensal&gt;</MEMO></stmttrn>
+                </BANKTRANLIST></OFX>
+                """);
+
+        assertEquals(1, lines.size());
+        assertEquals("2024-04-10", lines.get(0).date());
+        assertEquals("App <mensal>", lines.get(0).description());
+        assertEquals("-1.99", lines.get(0).amount());
+    }
+
+    @Test
+    void fileWithoutTransactionsIsEmpty() {
+        assertTrue(parse("<OFX><BANKTRANLIST></BANKTRANLIST></OFX>").isEmpty());
+    }
+
+    private static List<StatementLine> parse(String ofx) {
+        List<StatementLine> lines = new ArrayList<>();
+        new OfxStatementParser(new StringReader(ofx)).forEachRemaining(lines::add);
+        return lines;
+    }
+}
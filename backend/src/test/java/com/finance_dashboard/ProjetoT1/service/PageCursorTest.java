@@ -0,0 +1,35 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PageCursorTest {
+
+    @Test
+    void roundTrips() {
+        PageCursor cursor = new PageCursor(Instant.parse("2024-03-01T12:34:56.789Z"), "65e1f0c2a1b2c3d4e5f60718");
+
+        assertEquals(cursor, PageCursor.decode(cursor.encode()));
+    }
+
+    // O token vai na query string: sem "+", "/" nem "="
+    @Test
+    void encodesUrlSafe() {
+        String token = new PageCursor(Instant.ofEpochMilli(0), "id:com:dois-pontos?").encode();
+
+        assertEquals(token, token.replaceAll("[^A-Za-z0-9_-]", ""));
+        assertEquals("id:com:dois-pontos?", PageCursor.decode(token).id());
+    }
+
+    @Test
+    void rejectsInvalidTokens() {
+        for (String token : new String[]{"@@@", "c2VtLXNlcGFyYWRvcg", "YWJjOmlk"}) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(token));
+            assertEquals("Cursor inválido", e.getMessage());
+        }
+    }
+}
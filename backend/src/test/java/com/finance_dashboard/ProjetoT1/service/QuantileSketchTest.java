@@ -0,0 +1,113 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuantileSketchTest {
+
+    private static final double[] QUANTILES = {0, 0.25, 0.5, 0.9, 0.99, 1};
+
+    @Test
+    void emptySketchHasNoQuantiles() {
+        QuantileSketch sketch = new QuantileSketch();
+
+        assertTrue(sketch.isEmpty());
+        assertNull(sketch.quantile(0.5));
+    }
+
+    // Cada percentil fica a no máximo RELATIVE_ERROR do valor real naquela posição (+ arredondamento ao centavo)
+    @Test
+    void quantilesStayWithinRelativeError() {
+        Random random = new Random(1);
+        QuantileSketch sketch = new QuantileSketch();
+        List<BigDecimal> values = new ArrayList<>();
+
+        for (int i = 0; i < 10_000; i++) {
+            BigDecimal value = BigDecimal.valueOf(Math.exp(random.nextGaussian() * 1.5 + 4))
+                    .setScale(2, RoundingMode.HALF_UP);
+            values.add(value);
+            sketch.add(value);
+        }
+        values.sort(null);
+
+        for (double q : QUANTILES) {
+            assertWithinError(values.get((int) Math.floor(q * (values.size() - 1))), sketch.quantile(q));
+        }
+        assertEquals(values.size(), sketch.getCount());
+    }
+
+    @Test
+    void removeUndoesAdd() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.add(new BigDecimal("10.00"));
+        sketch.add(new BigDecimal("20.00"));
+        String before = sketch.serialize();
+
+        sketch.add(new BigDecimal("999.99"));
+        sketch.remove(new BigDecimal("999.99"));
+
+        assertEquals(before, sketch.serialize());
+        assertEquals(2, sketch.getCount());
+    }
+
+    // Exclusão de um valor que nunca entrou não deixa contagens negativas
+    @Test
+    void removingUnknownValueIsIgnored() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.add(new BigDecimal("5.00"));
+
+        sketch.remove(new BigDecimal("500.00"));
+        sketch.remove(BigDecimal.ZERO);
+
+        assertEquals(1, sketch.getCount());
+    }
+
+    @Test
+    void mergeMatchesSingleSketch() {
+        QuantileSketch january = new QuantileSketch();
+        QuantileSketch february = new QuantileSketch();
+        QuantileSketch both = new QuantileSketch();
+
+        for (int i = 1; i <= 500; i++) {
+            BigDecimal value = BigDecimal.valueOf(i, 1);
+            (i % 2 == 0 ? january : february).add(value);
+            both.add(value);
+        }
+
+        january.merge(february);
+
+        assertEquals(both.serialize(), january.serialize());
+        assertEquals(both.getCount(), january.getCount());
+    }
+
+    @Test
+    void serializedFormRoundTrips() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.add(BigDecimal.ZERO);
+        sketch.add(new BigDecimal("0.005"));
+        sketch.add(new BigDecimal("42.00"));
+        sketch.add(new BigDecimal("1234.56"));
+
+        String[] lines = sketch.serialize().split("\n", -1);
+        QuantileSketch parsed = QuantileSketch.parse(lines[0], lines[1]);
+
+        assertEquals(sketch.serialize(), parsed.serialize());
+        assertEquals(4, parsed.getCount());
+        assertEquals(0, BigDecimal.ZERO.compareTo(parsed.quantile(0)));
+    }
+
+    private static void assertWithinError(BigDecimal expected, BigDecimal actual) {
+        double tolerance = expected.doubleValue() * QuantileSketch.RELATIVE_ERROR + 0.005;
+        assertTrue(Math.abs(expected.doubleValue() - actual.doubleValue()) <= tolerance,
+                "esperado ~" + expected + ", obtido " + actual);
+    }
+}
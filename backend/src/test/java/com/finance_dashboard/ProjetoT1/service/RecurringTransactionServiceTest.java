@@ -0,0 +1,75 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+import com.finance_dashboard.ProjetoT1.model.RecurrenceFrequency;
+import com.finance_dashboard.ProjetoT1.model.RecurringRule;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RecurringTransactionServiceTest {
+
+    @Test
+    void weeklyAddsSevenDays() {
+        RecurringRule rule = rule(RecurrenceFrequency.WEEKLY, LocalDate.of(2024, 12, 27), null);
+
+        assertEquals(LocalDate.of(2024, 12, 27), RecurringTransactionService.firstOccurrence(rule));
+        assertEquals(LocalDate.of(2025, 1, 3), RecurringTransactionService.nextOccurrence(rule, LocalDate.of(2024, 12, 27)));
+    }
+
+    // Dia 31 vira o último dia dos meses curtos e volta a 31 depois, sem "grudar" no 29
+    @Test
+    void monthlyClampsToMonthEnd() {
+        RecurringRule rule = rule(RecurrenceFrequency.MONTHLY, LocalDate.of(2024, 1, 31), null);
+
+        LocalDate feb = RecurringTransactionService.nextOccurrence(rule, LocalDate.of(2024, 1, 31));
+        LocalDate mar = RecurringTransactionService.nextOccurrence(rule, feb);
+        LocalDate apr = RecurringTransactionService.nextOccurrence(rule, mar);
+
+        assertEquals(LocalDate.of(2024, 2, 29), feb);
+        assertEquals(LocalDate.of(2024, 3, 31), mar);
+        assertEquals(LocalDate.of(2024, 4, 30), apr);
+        assertEquals(LocalDate.of(2025, 2, 28),
+                RecurringTransactionService.nextOccurrence(rule, LocalDate.of(2025, 1, 31)));
+    }
+
+    // Primeira ocorrência cron pode ser o próprio dia de início
+    @Test
+    void cronFirstOccurrenceIncludesStartDate() {
+        // Dia 5 de cada mês, 09:00
+        RecurringRule rule = rule(RecurrenceFrequency.CRON, LocalDate.of(2024, 3, 5), "0 0 9 5 * *");
+
+        assertEquals(LocalDate.of(2024, 3, 5), RecurringTransactionService.firstOccurrence(rule));
+
+        rule.setStartDate(LocalDate.of(2024, 3, 6));
+        assertEquals(LocalDate.of(2024, 4, 5), RecurringTransactionService.firstOccurrence(rule));
+    }
+
+    // Várias execuções no mesmo dia contam como uma ocorrência: a próxima é sempre outro dia
+    @Test
+    void cronNextSkipsSameDay() {
+        RecurringRule rule = rule(RecurrenceFrequency.CRON, LocalDate.of(2024, 3, 1), "0 0 */6 * * MON-FRI");
+
+        assertEquals(LocalDate.of(2024, 3, 4), RecurringTransactionService.nextOccurrence(rule, LocalDate.of(2024, 3, 1)));
+        assertEquals(LocalDate.of(2024, 3, 5), RecurringTransactionService.nextOccurrence(rule, LocalDate.of(2024, 3, 4)));
+    }
+
+    @Test
+    void rejectsMissingOrInvalidCron() {
+        RecurringRule missing = rule(RecurrenceFrequency.CRON, LocalDate.of(2024, 3, 1), " ");
+        RecurringRule invalid = rule(RecurrenceFrequency.CRON, LocalDate.of(2024, 3, 1), "todo dia");
+
+        assertThrows(IllegalArgumentException.class, () -> RecurringTransactionService.firstOccurrence(missing));
+        assertThrows(IllegalArgumentException.class, () -> RecurringTransactionService.firstOccurrence(invalid));
+    }
+
+    private static RecurringRule rule(RecurrenceFrequency frequency, LocalDate startDate, String cron) {
+        RecurringRule rule = new RecurringRule();
+        rule.setFrequency(frequency);
+        rule.setStartDate(startDate);
+        rule.setCron(cron);
+        return rule;
+    }
+}
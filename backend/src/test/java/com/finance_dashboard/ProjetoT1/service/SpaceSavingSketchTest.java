@@ -0,0 +1,119 @@
+package com.finance_dashboard.ProjetoT1.service;
+
+import com.finance_dashboard.ProjetoT1.service.SpaceSavingSketch.Counter;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpaceSavingSketchTest {
+
+    @Test
+    void exactWhileKeysFitInCapacity() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(4);
+
+        sketch.add("mercado", "Mercado", new BigDecimal("10.00"));
+        sketch.add("padaria", "Padaria", new BigDecimal("3.50"));
+        sketch.add("mercado", "Mercado Central", new BigDecimal("5.00"));
+
+        List<Counter> top = sketch.top(10);
+
+        assertEquals(2, top.size());
+        assertEquals("mercado", top.get(0).getKey());
+        assertEquals("Mercado Central", top.get(0).getLabel());
+        assertEquals(0, new BigDecimal("15.00").compareTo(top.get(0).getEstimate()));
+        assertEquals(0, top.get(0).getError().signum());
+        assertEquals(0, new BigDecimal("18.50").compareTo(sketch.getTotal()));
+    }
+
+    @Test
+    void topRespectsLimitAndOrder() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(8);
+        for (int i = 1; i <= 5; i++) {
+            sketch.add("k" + i, "K" + i, BigDecimal.valueOf(i));
+        }
+
+        List<Counter> top = sketch.top(3);
+
+        assertEquals(List.of("k5", "k4", "k3"), top.stream().map(Counter::getKey).toList());
+    }
+
+    // Peso real sempre em [estimate - error, estimate], com inserções e exclusões misturadas
+    @Test
+    void estimatesBoundTrueWeightUnderAddsAndRemoves() {
+        Random random = new Random(42);
+        SpaceSavingSketch sketch = new SpaceSavingSketch(16);
+        Map<String, BigDecimal> truth = new HashMap<>();
+
+        for (int i = 0; i < 20_000; i++) {
+            // Distribuição enviesada: poucas chaves concentram a maior parte do peso
+            String key = "k" + (int) Math.floor(Math.pow(random.nextDouble(), 3) * 200);
+            BigDecimal weight = BigDecimal.valueOf(1 + random.nextInt(100));
+
+            BigDecimal current = truth.getOrDefault(key, BigDecimal.ZERO);
+            if (current.compareTo(weight) >= 0 && random.nextInt(5) == 0) {
+                sketch.remove(key, weight);
+                truth.put(key, current.subtract(weight));
+            } else {
+                sketch.add(key, key, weight);
+                truth.put(key, current.add(weight));
+            }
+        }
+
+        for (Counter counter : sketch.counters()) {
+            BigDecimal real = truth.getOrDefault(counter.getKey(), BigDecimal.ZERO);
+
+            assertTrue(counter.getEstimate().compareTo(real) >= 0, "estimativa abaixo do real para " + counter.getKey());
+            assertTrue(counter.getEstimate().subtract(counter.getError()).compareTo(real) <= 0,
+                    "erro reportado menor que o real para " + counter.getKey());
+        }
+    }
+
+    // Só inserções: toda chave com mais de total / capacity está entre os contadores
+    @Test
+    void heavyHittersAreTrackedWithInsertsOnly() {
+        Random random = new Random(7);
+        SpaceSavingSketch sketch = new SpaceSavingSketch(10);
+        Map<String, BigDecimal> truth = new HashMap<>();
+
+        for (int i = 0; i < 5_000; i++) {
+            String key = i % 3 == 0 ? "aluguel" : "k" + random.nextInt(500);
+            BigDecimal weight = BigDecimal.valueOf(1 + random.nextInt(20));
+
+            sketch.add(key, key, weight);
+            truth.merge(key, weight, BigDecimal::add);
+        }
+
+        BigDecimal threshold = sketch.getTotal().divide(BigDecimal.valueOf(sketch.getCapacity()));
+        List<String> tracked = sketch.counters().stream().map(Counter::getKey).toList();
+
+        truth.forEach((key, weight) -> {
+            if (weight.compareTo(threshold) > 0) {
+                assertTrue(tracked.contains(key), key + " deveria estar no sketch");
+            }
+        });
+        assertEquals("aluguel", sketch.top(1).get(0).getKey());
+    }
+
+    @Test
+    void removingEverythingEmptiesTrackedCounter() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(2);
+        sketch.add("a", "A", BigDecimal.TEN);
+        sketch.remove("a", BigDecimal.TEN);
+
+        assertTrue(sketch.counters().isEmpty());
+        assertEquals(0, sketch.getTotal().signum());
+    }
+
+    @Test
+    void rejectsInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new SpaceSavingSketch(0));
+    }
+}